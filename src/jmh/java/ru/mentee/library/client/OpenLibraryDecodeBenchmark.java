@@ -0,0 +1,67 @@
+package ru.mentee.library.client;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import ru.mentee.library.api.dto.BookInfoResponse;
+import ru.mentee.library.api.dto.OpenLibraryBookDto;
+
+/**
+ * Разбор ответа OpenLibrary: биндинг в {@link OpenLibraryBookDto} с копированием в {@link
+ * BookInfoResponse} против потокового {@link OpenLibraryBooksDecoder}.
+ *
+ * <pre>
+ * gradle jmh
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OpenLibraryDecodeBenchmark {
+
+  private static final TypeReference<Map<String, OpenLibraryBookDto>> DTO_MAP =
+      new TypeReference<>() {};
+
+  // Одна книга с минимумом полей и три полных ответа jscmd=data
+  @Param({"enrich-success.json", "openlibrary-data-batch.json"})
+  public String payload;
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final OpenLibraryBooksDecoder decoder = new OpenLibraryBooksDecoder(objectMapper);
+  private byte[] body;
+
+  @Setup
+  public void load() throws IOException {
+    try (InputStream in = getClass().getResourceAsStream("/" + payload)) {
+      body = in.readAllBytes();
+    }
+  }
+
+  @Benchmark
+  public Map<String, BookInfoResponse> dtoBinding() throws IOException {
+    Map<String, OpenLibraryBookDto> dtos = objectMapper.readValue(body, DTO_MAP);
+    Map<String, BookInfoResponse> books = new HashMap<>();
+    dtos.forEach((bibkey, dto) -> books.put(bibkey, BookInfoResponse.from(dto)));
+    return books;
+  }
+
+  @Benchmark
+  public Map<String, BookInfoResponse> streaming() throws IOException {
+    try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+      return decoder.readBooks(parser);
+    }
+  }
+}
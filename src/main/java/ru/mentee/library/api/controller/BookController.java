@@ -1,17 +1,49 @@
 package ru.mentee.library.api.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.GZIPOutputStream;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.multipart.MultipartFile;
+import ru.mentee.library.api.dto.BookBatchRequest;
+import ru.mentee.library.api.dto.BookBatchResponse;
+import ru.mentee.library.api.dto.BookDetailsResponse;
+import ru.mentee.library.api.dto.BookImportJobResponse;
+import ru.mentee.library.api.dto.BookImportRequest;
 import ru.mentee.library.api.dto.BookInfoResponse;
+import ru.mentee.library.api.dto.BookPageResponse;
 import ru.mentee.library.api.dto.CreateBookRequest;
+import ru.mentee.library.api.dto.IsbnInfoBatchResponse;
+import ru.mentee.library.api.dto.IsbnInfoRequest;
+import ru.mentee.library.cache.BookCoverCache;
+import ru.mentee.library.config.BookBatchProperties;
+import ru.mentee.library.config.BookCoverProperties;
+import ru.mentee.library.config.BookExportProperties;
+import ru.mentee.library.config.BookImportProperties;
+import ru.mentee.library.config.OpenLibraryBatchProperties;
 import ru.mentee.library.domain.model.Book;
+import ru.mentee.library.service.BookBatchService;
+import ru.mentee.library.service.BookExportService;
+import ru.mentee.library.service.BookImportService;
 import ru.mentee.library.service.BookService;
 
 @RestController
@@ -19,11 +51,91 @@ import ru.mentee.library.service.BookService;
 @RequiredArgsConstructor
 public class BookController {
 
+  private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+
   private final BookService bookService;
+  private final BookExportService bookExportService;
+  private final BookBatchService bookBatchService;
+  private final BookImportService bookImportService;
+  private final BookBatchProperties batchProperties;
+  private final OpenLibraryBatchProperties openLibraryBatchProperties;
+  private final BookImportProperties importProperties;
+  private final BookCoverCache bookCoverCache;
+  private final BookCoverProperties coverProperties;
+  private final BookExportProperties exportProperties;
 
   @GetMapping
-  public ResponseEntity<List<Book>> getAllBooks() {
-    return ResponseEntity.ok(bookService.findAll());
+  public ResponseEntity<BookPageResponse> getAllBooks(
+      @RequestParam(required = false) String cursor, @RequestParam(required = false) Integer size) {
+    return ResponseEntity.ok(bookService.findPage(cursor, size));
+  }
+
+  @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  @PreAuthorize("hasAnyRole('LIBRARIAN', 'ADMIN')")
+  public WebAsyncTask<Void> exportBooks(
+      @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+      HttpServletResponse response) {
+    boolean gzip = acceptsGzip(acceptEncoding);
+
+    response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+    response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    if (gzip) {
+      response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+    }
+
+    // WebAsyncTask, а не StreamingResponseBody: у того таймаут общий для всех асинхронных ответов
+    return new WebAsyncTask<>(
+        exportProperties.getTimeout().toMillis(),
+        () -> {
+          OutputStream out = response.getOutputStream();
+          if (gzip) {
+            try (GZIPOutputStream gzipOut = new GZIPOutputStream(out, EXPORT_BUFFER_SIZE)) {
+              bookExportService.exportNdjson(gzipOut);
+            }
+          } else {
+            bookExportService.exportNdjson(out);
+            out.flush();
+          }
+          return null;
+        });
+  }
+
+  /**
+   * Разбирает {@code Accept-Encoding} по RFC 9110: gzip допустим, если у него (а если он не назван
+   * — у {@code *}) вес больше нуля. {@code gzip;q=0} — явный отказ.
+   */
+  static boolean acceptsGzip(String acceptEncoding) {
+    if (acceptEncoding == null) {
+      return false;
+    }
+    double gzip = -1;
+    double any = -1;
+    for (String element : acceptEncoding.split(",")) {
+      String[] parts = element.split(";");
+      String coding = parts[0].strip().toLowerCase(Locale.ROOT);
+      double quality = 1;
+      for (int i = 1; i < parts.length; i++) {
+        String parameter = parts[i].strip();
+        if (parameter.regionMatches(true, 0, "q=", 0, 2)) {
+          quality = parseQuality(parameter.substring(2).strip());
+        }
+      }
+      if (coding.equals("gzip") || coding.equals("x-gzip")) {
+        gzip = Math.max(gzip, quality);
+      } else if (coding.equals("*")) {
+        any = Math.max(any, quality);
+      }
+    }
+    return gzip >= 0 ? gzip > 0 : any > 0;
+  }
+
+  private static double parseQuality(String value) {
+    try {
+      return Double.parseDouble(value);
+    } catch (NumberFormatException e) {
+      // Непонятный вес — кодировка не принимается
+      return 0;
+    }
   }
 
   @GetMapping("/{id}")
@@ -39,6 +151,46 @@ public class BookController {
     }
   }
 
+  @GetMapping("/{id}/details")
+  public ResponseEntity<BookDetailsResponse> getBookDetails(@PathVariable Long id) {
+    try {
+      return ResponseEntity.ok(bookService.findDetails(id));
+    } catch (RuntimeException e) {
+      if (e.getMessage() != null && e.getMessage().contains("not found")) {
+        return ResponseEntity.notFound().build();
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Обложка книги из дискового кэша; при первом запросе скачивается из OpenLibrary. Тело отдаётся
+   * Tomcat'ом через sendfile, минуя heap.
+   */
+  @GetMapping("/{id}/cover")
+  public void getBookCover(
+      @PathVariable Long id, HttpServletRequest request, HttpServletResponse response)
+      throws IOException {
+    Book book;
+    try {
+      book = bookService.findById(id);
+    } catch (RuntimeException e) {
+      if (e.getMessage() != null && e.getMessage().contains("not found")) {
+        response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+        return;
+      }
+      throw e;
+    }
+
+    Path cover = book.getIsbn() != null ? bookCoverCache.get(book.getIsbn()) : null;
+    if (cover == null) {
+      response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+      return;
+    }
+    FileResponseWriter.write(
+        request, response, cover, MediaType.IMAGE_JPEG, coverProperties.getMaxAge());
+  }
+
   @PostMapping
   @PreAuthorize("hasAnyRole('LIBRARIAN', 'ADMIN')")
   public ResponseEntity<Book> createBook(
@@ -56,6 +208,16 @@ public class BookController {
     return ResponseEntity.status(HttpStatus.CREATED).body(book);
   }
 
+  @PostMapping("/batch")
+  @PreAuthorize("hasAnyRole('LIBRARIAN', 'ADMIN')")
+  public ResponseEntity<BookBatchResponse> applyBatch(
+      @Valid @RequestBody BookBatchRequest request) {
+    if (request.getOperations().size() > batchProperties.getMaxOperations()) {
+      return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+    }
+    return ResponseEntity.ok(bookBatchService.apply(request.getOperations()));
+  }
+
   @PutMapping("/{id}")
   @PreAuthorize("hasAnyRole('LIBRARIAN', 'ADMIN')")
   public ResponseEntity<Book> updateBook(
@@ -64,15 +226,50 @@ public class BookController {
     return ResponseEntity.ok(book);
   }
 
-  @GetMapping("/isbn/{isbn}/info")
-  public ResponseEntity<BookInfoResponse> getBookInfoByIsbn(@PathVariable String isbn) {
-    BookInfoResponse bookInfo = bookService.getBookInfoByIsbn(isbn);
+  @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+  @PreAuthorize("hasAnyRole('LIBRARIAN', 'ADMIN')")
+  public ResponseEntity<BookImportJobResponse> importBooks(
+      @Valid @RequestBody BookImportRequest request) {
+    return submitImport(request.getIsbns());
+  }
 
-    if (bookInfo == null) {
-      return ResponseEntity.notFound().build();
+  @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+  @PreAuthorize("hasAnyRole('LIBRARIAN', 'ADMIN')")
+  public ResponseEntity<BookImportJobResponse> importBooksFromFile(
+      @RequestPart("file") MultipartFile file) throws IOException {
+    try (InputStream in = file.getInputStream()) {
+      return submitImport(BookImportService.readIsbns(in));
     }
+  }
+
+  @GetMapping("/import/{id}")
+  @PreAuthorize("hasAnyRole('LIBRARIAN', 'ADMIN')")
+  public ResponseEntity<BookImportJobResponse> getImportJob(@PathVariable UUID id) {
+    return bookImportService
+        .find(id)
+        .map(ResponseEntity::ok)
+        .orElseGet(() -> ResponseEntity.notFound().build());
+  }
+
+  // Асинхронно: поток контейнера освобождается, пока идёт запрос в OpenLibrary
+  @GetMapping("/isbn/{isbn}/info")
+  public CompletableFuture<ResponseEntity<BookInfoResponse>> getBookInfoByIsbn(
+      @PathVariable String isbn) {
+    return bookService
+        .getBookInfoByIsbnAsync(isbn)
+        .thenApply(
+            bookInfo ->
+                bookInfo != null ? ResponseEntity.ok(bookInfo) : ResponseEntity.notFound().build());
+  }
 
-    return ResponseEntity.ok(bookInfo);
+  @PostMapping("/isbn/info")
+  public ResponseEntity<IsbnInfoBatchResponse> getBookInfoByIsbns(
+      @Valid @RequestBody IsbnInfoRequest request) {
+    if (request.getIsbns().size() > openLibraryBatchProperties.getMaxLookupIsbns()) {
+      return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+    }
+    // Ненайденные ISBN остаются в books со значением null, неотвеченные — в unavailable
+    return ResponseEntity.ok(bookService.getBookInfoByIsbns(request.getIsbns()));
   }
 
   @PostMapping("/isbn/{isbn}")
@@ -81,18 +278,25 @@ public class BookController {
     return ResponseEntity.ok(book);
   }
 
+  private ResponseEntity<BookImportJobResponse> submitImport(List<String> isbns) {
+    if (isbns.isEmpty()) {
+      return ResponseEntity.badRequest().build();
+    }
+    if (isbns.size() > importProperties.getMaxIsbns()) {
+      return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+    }
+    BookImportJobResponse job = bookImportService.submit(isbns);
+    return ResponseEntity.accepted()
+        .location(URI.create("/api/books/import/" + job.id()))
+        .body(job);
+  }
+
   @DeleteMapping("/{id}")
   public ResponseEntity<Void> deleteBook(@PathVariable Long id) {
-    // Проверяем существование книги перед удалением
-    try {
-      bookService.findById(id);
-      bookService.deleteBook(id);
-      return ResponseEntity.noContent().build();
-    } catch (RuntimeException e) {
-      if (e.getMessage() != null && e.getMessage().contains("not found")) {
-        return ResponseEntity.notFound().build();
-      }
-      throw e;
+    // DELETE сам сообщает, была ли строка — отдельная проверка существования не нужна
+    if (!bookService.deleteBook(id)) {
+      return ResponseEntity.notFound().build();
     }
+    return ResponseEntity.noContent().build();
   }
 }
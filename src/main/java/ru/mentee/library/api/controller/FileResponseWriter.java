@@ -0,0 +1,116 @@
+package ru.mentee.library.api.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.web.context.request.ServletWebRequest;
+
+/**
+ * Отдача неизменяемого файла без копирования через heap: Tomcat отправляет его сам через sendfile
+ * ({@code FileChannel.transferTo}) после выхода из контроллера. Если коннектор sendfile не
+ * поддерживает, файл передаётся тем же {@code transferTo} в поток ответа.
+ *
+ * <p>Поддерживаются условные запросы (ETag из размера и времени изменения), один диапазон {@code
+ * Range} и {@code If-Range}. На несколько диапазонов отдаётся файл целиком — RFC 9110 это
+ * допускает.
+ */
+final class FileResponseWriter {
+
+  // Атрибуты запроса, которые читает Http11Processor (org.apache.coyote.Constants)
+  private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+  private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+  private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+  private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+  private FileResponseWriter() {}
+
+  static void write(
+      HttpServletRequest request,
+      HttpServletResponse response,
+      Path file,
+      MediaType contentType,
+      Duration maxAge)
+      throws IOException {
+    long length = Files.size(file);
+    long lastModified = Files.getLastModifiedTime(file).toMillis();
+    String etag = "\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + "\"";
+
+    response.setHeader(
+        HttpHeaders.CACHE_CONTROL,
+        CacheControl.maxAge(maxAge).cachePublic().immutable().getHeaderValue());
+    if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+      return;
+    }
+    response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+    response.setContentType(contentType.toString());
+
+    long start = 0;
+    long end = length - 1;
+    HttpRange range = singleRange(request, etag);
+    if (range != null) {
+      try {
+        start = range.getRangeStart(length);
+        end = range.getRangeEnd(length);
+      } catch (IllegalArgumentException e) {
+        start = length;
+      }
+      // HttpRange не проверяет, что начало диапазона внутри файла
+      if (start >= length || start > end) {
+        response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+        response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+        return;
+      }
+      response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+      response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+    }
+    response.setContentLengthLong(end - start + 1);
+    if (HttpMethod.HEAD.matches(request.getMethod()) || end < start) {
+      return;
+    }
+
+    if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+      request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+      request.setAttribute(SENDFILE_START, start);
+      request.setAttribute(SENDFILE_END, end + 1);
+      return;
+    }
+    try (FileChannel channel = FileChannel.open(file)) {
+      WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+      for (long position = start; position <= end; ) {
+        position += channel.transferTo(position, end + 1 - position, out);
+      }
+    }
+  }
+
+  /**
+   * @return единственный запрошенный диапазон или {@code null}, если файл отдаётся целиком
+   */
+  private static HttpRange singleRange(HttpServletRequest request, String etag) {
+    String header = request.getHeader(HttpHeaders.RANGE);
+    String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+    // If-Range с датой или чужим ETag — файл изменился, отдаём целиком
+    if (header == null || (ifRange != null && !ifRange.equals(etag))) {
+      return null;
+    }
+    List<HttpRange> ranges;
+    try {
+      ranges = HttpRange.parseRanges(header);
+    } catch (IllegalArgumentException e) {
+      // Некорректный Range игнорируется
+      return null;
+    }
+    return ranges.size() == 1 ? ranges.get(0) : null;
+  }
+}
@@ -5,6 +5,9 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import ru.mentee.library.client.OpenLibraryUnavailableException;
+import ru.mentee.library.service.InvalidCursorException;
+import ru.mentee.library.service.InvalidIsbnException;
 
 @RestControllerAdvice
 public class GlobalExceptionHandler {
@@ -13,4 +16,19 @@ public class GlobalExceptionHandler {
   public ResponseEntity<Void> handleValidationException(MethodArgumentNotValidException ex) {
     return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
   }
+
+  @ExceptionHandler(InvalidCursorException.class)
+  public ResponseEntity<Void> handleInvalidCursor(InvalidCursorException ex) {
+    return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+  }
+
+  @ExceptionHandler(InvalidIsbnException.class)
+  public ResponseEntity<Void> handleInvalidIsbn(InvalidIsbnException ex) {
+    return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+  }
+
+  @ExceptionHandler(OpenLibraryUnavailableException.class)
+  public ResponseEntity<Void> handleOpenLibraryUnavailable(OpenLibraryUnavailableException ex) {
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+  }
 }
@@ -0,0 +1,17 @@
+package ru.mentee.library.api.dto;
+
+public record BookBatchItemResult(int index, Status status, Long id, String error) {
+
+  public enum Status {
+    CREATED,
+    UPDATED,
+    DELETED,
+    NOT_FOUND,
+    INVALID,
+    FAILED
+  }
+
+  public boolean isSuccess() {
+    return status == Status.CREATED || status == Status.UPDATED || status == Status.DELETED;
+  }
+}
@@ -0,0 +1,16 @@
+package ru.mentee.library.api.dto;
+
+import lombok.Data;
+
+@Data
+public class BookBatchOperation {
+  private Type type;
+  private Long id; // Для UPDATE и DELETE
+  private CreateBookRequest book; // Для CREATE и UPDATE
+
+  public enum Type {
+    CREATE,
+    UPDATE,
+    DELETE
+  }
+}
@@ -0,0 +1,5 @@
+package ru.mentee.library.api.dto;
+
+import java.util.List;
+
+public record BookBatchResponse(int succeeded, int failed, List<BookBatchItemResult> results) {}
@@ -0,0 +1,11 @@
+package ru.mentee.library.api.dto;
+
+import java.time.Instant;
+import ru.mentee.library.domain.model.Book;
+
+/**
+ * Книга вместе с сохранённым обогащением из OpenLibrary.
+ *
+ * @param enrichment {@code null}, если книга создана не по ISBN
+ */
+public record BookDetailsResponse(Book book, BookInfoResponse enrichment, Instant enrichedAt) {}
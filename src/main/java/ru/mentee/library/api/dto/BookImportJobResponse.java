@@ -0,0 +1,30 @@
+package ru.mentee.library.api.dto;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+public record BookImportJobResponse(
+    UUID id,
+    Status status,
+    int total,
+    int processed,
+    int created,
+    int updated,
+    int skipped,
+    int failed,
+    double itemsPerSecond,
+    Instant submittedAt,
+    Instant startedAt,
+    Instant finishedAt,
+    List<Failure> failures) {
+
+  public enum Status {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+  }
+
+  public record Failure(String isbn, String error) {}
+}
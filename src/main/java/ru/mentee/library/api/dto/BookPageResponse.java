@@ -0,0 +1,6 @@
+package ru.mentee.library.api.dto;
+
+import java.util.List;
+import ru.mentee.library.domain.model.Book;
+
+public record BookPageResponse(List<Book> items, String next) {}
@@ -0,0 +1,14 @@
+package ru.mentee.library.api.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ответ пакетного поиска по ISBN.
+ *
+ * @param books информация по найденным ISBN в исходном написании; {@code null} в значении — книга
+ *     не найдена
+ * @param unavailable ISBN, по которым OpenLibrary не ответил и устаревшей записи в кэше нет
+ */
+public record IsbnInfoBatchResponse(
+    Map<String, BookInfoResponse> books, List<String> unavailable) {}
@@ -0,0 +1,11 @@
+package ru.mentee.library.api.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import java.util.List;
+import lombok.Data;
+
+@Data
+public class IsbnInfoRequest {
+  @NotEmpty(message = "ISBNs are required")
+  private List<String> isbns;
+}
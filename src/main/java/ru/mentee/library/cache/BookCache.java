@@ -0,0 +1,91 @@
+package ru.mentee.library.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.mentee.library.config.BookCacheProperties;
+import ru.mentee.library.domain.model.Book;
+
+/**
+ * Локальный read-through кэш книг по id. Ограничен по размеру и времени жизни, статистика
+ * (hit/miss/eviction) публикуется в MeterRegistry как cache_* с тегом cache=books.
+ */
+@Component
+public class BookCache {
+
+  private final Cache<Long, Book> cache;
+
+  private final CacheInvalidationBus invalidationBus;
+
+  public BookCache(
+      BookCacheProperties properties,
+      MeterRegistry meterRegistry,
+      CacheInvalidationBus invalidationBus) {
+    this.invalidationBus = invalidationBus;
+    this.cache =
+        Caffeine.newBuilder()
+            .maximumSize(properties.getMaximumSize())
+            .expireAfterWrite(properties.getTtl())
+            .recordStats()
+            .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, "books");
+    invalidationBus.subscribe(
+        CacheInvalidationBus.BOOK, id -> evict(Long.valueOf(id)), this::evictAll);
+  }
+
+  /** Возвращает книгу из кэша или загружает её; {@code null} от загрузчика не кэшируется. */
+  public Book get(Long id, Function<Long, Book> loader) {
+    return cache.get(id, loader);
+  }
+
+  public void evict(Long id) {
+    cache.invalidate(id);
+  }
+
+  public void evictAll() {
+    cache.invalidateAll();
+  }
+
+  public void evictAfterCommit(Long id) {
+    evictAfterCommit(List.of(id));
+  }
+
+  /**
+   * Удаляет записи сейчас и ещё раз после коммита: иначе параллельное чтение между этими моментами
+   * положит в кэш старую версию строки. Другие узлы узнают об изменении через {@link
+   * CacheInvalidationBus}.
+   */
+  public void evictAfterCommit(Collection<Long> ids) {
+    if (ids.isEmpty()) {
+      return;
+    }
+    cache.invalidateAll(ids);
+    afterCommit(() -> cache.invalidateAll(ids));
+    invalidationBus.publish(CacheInvalidationBus.BOOK, ids);
+  }
+
+  public void putAfterCommit(Book book) {
+    afterCommit(() -> cache.put(book.getId(), book));
+  }
+
+  private static void afterCommit(Runnable action) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      action.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCommit() {
+            action.run();
+          }
+        });
+  }
+}
@@ -0,0 +1,303 @@
+package ru.mentee.library.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.mentee.library.client.OpenLibraryUnavailableException;
+import ru.mentee.library.config.BookCoverProperties;
+import ru.mentee.library.service.Isbn;
+
+/**
+ * Дисковый кэш обложек OpenLibrary ({@code covers.openlibrary.org}) по ISBN-13.
+ *
+ * <p>Обложка скачивается при первом запросе прямо в файл (через временный файл и атомарное
+ * переименование), дальше отдаётся с диска. Суммарный размер ограничен {@code maxSize}: сверх него
+ * вытесняются файлы, к которым дольше всего не обращались. Порядок LRU хранится в памяти; после
+ * рестарта он восстанавливается по времени изменения файлов. ISBN без обложки запоминаются на
+ * {@code negativeTtl}.
+ *
+ * <p>Вытесненный файл удаляется не сразу, а через {@code deleteDelay}: его путь мог быть только что
+ * выдан, а Tomcat открывает файл для sendfile уже после выхода из контроллера. Открытый файл
+ * дочитывается по своему дескриптору и после удаления. Файл, пропавший с диска мимо кэша, при
+ * обращении считается промахом и скачивается заново.
+ */
+@Component
+@Slf4j
+public class BookCoverCache {
+
+  private static final String SUFFIX = ".jpg";
+  private static final String TEMP_SUFFIX = ".tmp";
+
+  private final BookCoverProperties properties;
+  private final Path directory;
+  private final HttpClient httpClient;
+  private final SingleFlight<Long, Path> downloads;
+  private final Cache<Long, Boolean> missing;
+  private final ScheduledExecutorService deleter =
+      Executors.newSingleThreadScheduledExecutor(
+          Thread.ofPlatform().name("book-cover-cache").daemon().factory());
+
+  // ISBN → размер файла, в порядке доступа (LRU)
+  private final LinkedHashMap<Long, Long> entries = new LinkedHashMap<>(256, 0.75f, true);
+  private long totalBytes;
+
+  private final Counter hits;
+  private final Counter misses;
+  private final Counter notFound;
+  private final Counter evictions;
+
+  public BookCoverCache(BookCoverProperties properties, MeterRegistry meterRegistry) {
+    this.properties = properties;
+    this.directory = Path.of(properties.getDirectory());
+    this.httpClient =
+        HttpClient.newBuilder()
+            .connectTimeout(properties.getTimeout())
+            // covers.openlibrary.org отвечает редиректом на archive.org
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+    this.downloads =
+        new SingleFlight<>(
+            Counter.builder("book_cover_downloads_coalesced_total")
+                .description("Cover requests that waited for an already running download")
+                .register(meterRegistry));
+    this.missing =
+        Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .expireAfterWrite(properties.getNegativeTtl())
+            .build();
+
+    this.hits = requestCounter(meterRegistry, "hit");
+    this.misses = requestCounter(meterRegistry, "miss");
+    this.notFound = requestCounter(meterRegistry, "not_found");
+    this.evictions =
+        Counter.builder("book_cover_cache_evictions_total")
+            .description("Cover files removed to keep the disk cache within its size limit")
+            .register(meterRegistry);
+    Gauge.builder("book_cover_cache_bytes", this, BookCoverCache::size)
+        .description("Total size of cached cover files")
+        .baseUnit("bytes")
+        .register(meterRegistry);
+  }
+
+  @PostConstruct
+  public void init() throws IOException {
+    Files.createDirectories(directory);
+    List<Path> files;
+    try (Stream<Path> listing = Files.list(directory)) {
+      files = listing.toList();
+    }
+    List<CachedFile> cached =
+        files.stream()
+            .map(this::describe)
+            .filter(Objects::nonNull)
+            .sorted(Comparator.comparing(CachedFile::modified))
+            .toList();
+    synchronized (this) {
+      cached.forEach(file -> add(file.isbn(), file.size()));
+      evictOverflow();
+    }
+    log.info("Cover cache {} holds {} files, {} bytes", directory, entries.size(), totalBytes);
+  }
+
+  /**
+   * Файл обложки из кэша; при промахе скачивает её из OpenLibrary.
+   *
+   * @return {@code null}, если у книги нет обложки или ISBN некорректен
+   * @throws OpenLibraryUnavailableException если сервис обложек не ответил
+   */
+  public Path get(String isbn) {
+    long key = Isbn.parse(isbn);
+    if (key < 0) {
+      return null;
+    }
+    synchronized (this) {
+      if (entries.get(key) != null) {
+        Path file = file(key);
+        if (Files.exists(file)) {
+          hits.increment();
+          return file;
+        }
+        // Каталог почистили снаружи — иначе контроллер получил бы путь к несуществующему файлу
+        remove(key);
+      }
+    }
+    if (missing.getIfPresent(key) != null) {
+      notFound.increment();
+      return null;
+    }
+    misses.increment();
+    return downloads.execute(key, this::download);
+  }
+
+  synchronized long size() {
+    return totalBytes;
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    deleter.shutdown();
+  }
+
+  private Path download(long isbn) {
+    Path target = file(isbn);
+    Path temp = directory.resolve(isbn + "-" + Thread.currentThread().threadId() + TEMP_SUFFIX);
+    HttpRequest request =
+        HttpRequest.newBuilder(
+                URI.create(properties.getUrl() + "/b/isbn/" + isbn + "-L.jpg?default=false"))
+            .timeout(properties.getTimeout())
+            .GET()
+            .build();
+    try {
+      HttpResponse<Path> response =
+          httpClient.send(
+              request,
+              info ->
+                  info.statusCode() == 200
+                      ? HttpResponse.BodySubscribers.ofFile(temp)
+                      : HttpResponse.BodySubscribers.replacing(null));
+      if (response.statusCode() == 404) {
+        missing.put(isbn, Boolean.TRUE);
+        notFound.increment();
+        return null;
+      }
+      if (response.statusCode() != 200) {
+        throw new OpenLibraryUnavailableException(
+            "Cover service responded with " + response.statusCode(), null);
+      }
+      // Под блокировкой: отложенное удаление прежнего файла этого ISBN не заденет новый
+      synchronized (this) {
+        Files.move(
+            temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        add(isbn, Files.size(target));
+        evictOverflow();
+      }
+      return target;
+    } catch (IOException e) {
+      throw new OpenLibraryUnavailableException("Cover service is not responding", e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new OpenLibraryUnavailableException("Cover download was interrupted", e);
+    } finally {
+      deleteQuietly(temp);
+    }
+  }
+
+  private void add(long isbn, long size) {
+    Long previous = entries.put(isbn, size);
+    totalBytes += size - (previous != null ? previous : 0);
+  }
+
+  private void remove(long isbn) {
+    Long size = entries.remove(isbn);
+    if (size != null) {
+      totalBytes -= size;
+    }
+  }
+
+  /** Вытесняет самые давние обложки, пока кэш не влезет в лимит. */
+  private void evictOverflow() {
+    long limit = properties.getMaxSize().toBytes();
+    Iterator<Map.Entry<Long, Long>> eldest = entries.entrySet().iterator();
+    // Последнюю (только что добавленную) обложку не трогаем, даже если она одна больше лимита
+    while (totalBytes > limit && entries.size() > 1 && eldest.hasNext()) {
+      Map.Entry<Long, Long> entry = eldest.next();
+      eldest.remove();
+      totalBytes -= entry.getValue();
+      deleteLater(entry.getKey());
+      evictions.increment();
+    }
+  }
+
+  private void deleteLater(long isbn) {
+    Duration delay = properties.getDeleteDelay();
+    if (!delay.isZero()) {
+      try {
+        deleter.schedule(
+            () -> {
+              synchronized (this) {
+                // Обложку успели скачать заново — файл снова в кэше
+                if (!entries.containsKey(isbn)) {
+                  deleteQuietly(file(isbn));
+                }
+              }
+            },
+            delay.toMillis(),
+            TimeUnit.MILLISECONDS);
+        return;
+      } catch (RejectedExecutionException e) {
+        // Остановка приложения: удаляем сразу
+      }
+    }
+    deleteQuietly(file(isbn));
+  }
+
+  private CachedFile describe(Path path) {
+    String name = path.getFileName().toString();
+    if (name.endsWith(TEMP_SUFFIX)) {
+      // Загрузка прервалась рестартом
+      deleteQuietly(path);
+      return null;
+    }
+    if (!name.endsWith(SUFFIX)) {
+      return null;
+    }
+    long isbn = Isbn.parse(name.substring(0, name.length() - SUFFIX.length()));
+    if (isbn < 0) {
+      return null;
+    }
+    try {
+      return new CachedFile(isbn, Files.size(path), Files.getLastModifiedTime(path));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private Path file(long isbn) {
+    return directory.resolve(isbn + SUFFIX);
+  }
+
+  private static void deleteQuietly(Path path) {
+    try {
+      Files.deleteIfExists(path);
+    } catch (IOException e) {
+      log.debug("Failed to delete {}", path, e);
+    }
+  }
+
+  private static Counter requestCounter(MeterRegistry meterRegistry, String result) {
+    return Counter.builder("book_cover_requests_total")
+        .description("Cover requests by disk cache outcome")
+        .tag("result", result)
+        .register(meterRegistry);
+  }
+
+  private record CachedFile(long isbn, long size, FileTime modified) {}
+}
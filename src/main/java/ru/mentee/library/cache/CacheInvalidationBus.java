@@ -0,0 +1,206 @@
+package ru.mentee.library.cache;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import ru.mentee.library.config.CacheInvalidationProperties;
+
+/**
+ * Шина инвалидации локальных кэшей между репликами через PostgreSQL LISTEN/NOTIFY.
+ *
+ * <p>NOTIFY отправляется в той же транзакции, что и запись: PostgreSQL доставляет его только после
+ * коммита и отбрасывает при откате. Каждый узел держит отдельное (не из пула) соединение с LISTEN и
+ * вызывает подписчиков по типу сущности. После переподключения кэши сбрасываются целиком, так как
+ * уведомления за время разрыва потеряны.
+ */
+@Component
+@Slf4j
+public class CacheInvalidationBus {
+
+  public static final String BOOK = "book";
+
+  // Лимит payload у NOTIFY — 8000 байт, оставляем запас
+  private static final int MAX_PAYLOAD_LENGTH = 7_900;
+  private static final Pattern CHANNEL_NAME = Pattern.compile("[a-z_][a-z0-9_]*");
+
+  private final JdbcTemplate jdbcTemplate;
+  private final DataSourceProperties dataSourceProperties;
+  private final CacheInvalidationProperties properties;
+  private final Map<String, List<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+  private volatile boolean running;
+  private volatile Connection listenConnection;
+  private Thread listenerThread;
+
+  public CacheInvalidationBus(
+      DataSource dataSource,
+      DataSourceProperties dataSourceProperties,
+      CacheInvalidationProperties properties) {
+    this.jdbcTemplate = new JdbcTemplate(dataSource);
+    this.dataSourceProperties = dataSourceProperties;
+    this.properties = properties;
+  }
+
+  @PostConstruct
+  public void start() {
+    if (!properties.isEnabled()) {
+      log.info("Cross-node cache invalidation is disabled");
+      return;
+    }
+    if (!CHANNEL_NAME.matcher(properties.getChannel()).matches()) {
+      throw new IllegalStateException("Invalid NOTIFY channel: " + properties.getChannel());
+    }
+    running = true;
+    listenerThread = new Thread(this::listenLoop, "cache-invalidation-listener");
+    listenerThread.setDaemon(true);
+    listenerThread.start();
+  }
+
+  @PreDestroy
+  public void stop() {
+    running = false;
+    closeQuietly(listenConnection);
+    if (listenerThread != null) {
+      listenerThread.interrupt();
+    }
+  }
+
+  /**
+   * @param evictor вызывается с id сущности из уведомления
+   * @param evictAll вызывается после (пере)подключения, когда часть уведомлений могла потеряться
+   */
+  public void subscribe(String entityType, Consumer<String> evictor, Runnable evictAll) {
+    subscribers
+        .computeIfAbsent(entityType, type -> new CopyOnWriteArrayList<>())
+        .add(new Subscriber(evictor, evictAll));
+  }
+
+  /**
+   * Ставит уведомления в текущую транзакцию (или отправляет сразу, если транзакции нет). Id
+   * упаковываются в payload через запятую, чтобы батч-изменения не слали NOTIFY на каждую строку.
+   */
+  public void publish(String entityType, Collection<?> ids) {
+    if (!properties.isEnabled() || ids.isEmpty()) {
+      return;
+    }
+    StringBuilder payload = new StringBuilder(entityType).append(':');
+    int prefixLength = payload.length();
+    for (Object id : ids) {
+      String value = String.valueOf(id);
+      if (payload.length() > prefixLength
+          && payload.length() + 1 + value.length() > MAX_PAYLOAD_LENGTH) {
+        sendNotify(payload.toString());
+        payload.setLength(prefixLength);
+      }
+      if (payload.length() > prefixLength) {
+        payload.append(',');
+      }
+      payload.append(value);
+    }
+    sendNotify(payload.toString());
+  }
+
+  private void sendNotify(String payload) {
+    jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", properties.getChannel(), payload);
+  }
+
+  private void listenLoop() {
+    while (running) {
+      try (Connection connection = openListenConnection()) {
+        listenConnection = connection;
+        try (Statement statement = connection.createStatement()) {
+          statement.execute("LISTEN " + properties.getChannel());
+        }
+        log.info("Listening for cache invalidations on channel {}", properties.getChannel());
+        evictEverything();
+
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        int timeoutMillis = (int) properties.getPollTimeout().toMillis();
+        while (running) {
+          PGNotification[] notifications = pgConnection.getNotifications(timeoutMillis);
+          if (notifications != null) {
+            for (PGNotification notification : notifications) {
+              dispatch(notification.getParameter());
+            }
+          }
+        }
+      } catch (SQLException e) {
+        if (running) {
+          log.warn("Cache invalidation listener disconnected, reconnecting", e);
+          sleepBeforeReconnect();
+        }
+      } finally {
+        listenConnection = null;
+      }
+    }
+  }
+
+  private Connection openListenConnection() throws SQLException {
+    return DriverManager.getConnection(
+        dataSourceProperties.determineUrl(),
+        dataSourceProperties.determineUsername(),
+        dataSourceProperties.determinePassword());
+  }
+
+  void dispatch(String payload) {
+    int separator = payload.indexOf(':');
+    if (separator <= 0) {
+      log.warn("Ignoring malformed invalidation payload: {}", payload);
+      return;
+    }
+    String entityType = payload.substring(0, separator);
+    List<Subscriber> targets = subscribers.getOrDefault(entityType, List.of());
+    for (String id : payload.substring(separator + 1).split(",")) {
+      for (Subscriber subscriber : targets) {
+        try {
+          subscriber.evictor().accept(id);
+        } catch (RuntimeException e) {
+          log.warn("Failed to evict {}:{} from local cache", entityType, id, e);
+        }
+      }
+    }
+  }
+
+  private void evictEverything() {
+    subscribers.values().forEach(list -> list.forEach(s -> s.evictAll().run()));
+  }
+
+  private void sleepBeforeReconnect() {
+    try {
+      Thread.sleep(properties.getReconnectDelay().toMillis());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      running = false;
+    }
+  }
+
+  private static void closeQuietly(Connection connection) {
+    if (connection == null) {
+      return;
+    }
+    try {
+      connection.close();
+    } catch (SQLException e) {
+      log.debug("Failed to close listen connection", e);
+    }
+  }
+
+  private record Subscriber(Consumer<String> evictor, Runnable evictAll) {}
+}
@@ -0,0 +1,153 @@
+package ru.mentee.library.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.mentee.library.config.IsbnFilterProperties;
+import ru.mentee.library.domain.repository.BookRepository;
+import ru.mentee.library.service.Isbn;
+
+/**
+ * Фильтр Блума по ISBN книг каталога: отвечает "точно нет" без запроса в БД, а "возможно есть"
+ * проверяется запросом по уникальному индексу {@code books.isbn}.
+ *
+ * <p>Заполняется после старта потоковым чтением {@code books.isbn}; пока загрузка не закончена,
+ * фильтр на всё отвечает "возможно есть". Новые ISBN добавляются при записи на этом узле, удаления
+ * не учитываются (они дают только ложные срабатывания). Книги, созданные другими узлами, фильтр не
+ * видит — такие вставки ловит upsert по ISBN.
+ */
+@Component
+@Slf4j
+public class IsbnBloomFilter {
+
+  private final BookRepository bookRepository;
+  private final TransactionTemplate readOnlyTransaction;
+  private final AtomicLongArray words;
+  private final long bitCount;
+  private final int hashFunctions;
+  private final AtomicLong inserted = new AtomicLong();
+  private final Counter negatives;
+  private final Counter positives;
+  private final Counter falsePositives;
+
+  private volatile boolean ready;
+
+  public IsbnBloomFilter(
+      BookRepository bookRepository,
+      PlatformTransactionManager transactionManager,
+      IsbnFilterProperties properties,
+      MeterRegistry meterRegistry) {
+    this.bookRepository = bookRepository;
+    this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+    this.readOnlyTransaction.setReadOnly(true);
+
+    // m = -n·ln(p) / ln²2, k = m/n · ln2
+    long n = Math.max(1, properties.getExpectedInsertions());
+    double p = properties.getFalsePositiveRate();
+    long bits = (long) Math.ceil(-n * Math.log(p) / (Math.log(2) * Math.log(2)));
+    this.words = new AtomicLongArray((int) Math.max(1, (bits + 63) / 64));
+    this.bitCount = words.length() * 64L;
+    this.hashFunctions = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+
+    this.negatives = lookupCounter(meterRegistry, "negative");
+    this.positives = lookupCounter(meterRegistry, "positive");
+    this.falsePositives = lookupCounter(meterRegistry, "false_positive");
+    meterRegistry.gauge("isbn_filter_insertions", inserted);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void loadAsync() {
+    Thread.ofVirtual().name("isbn-filter-load").start(this::load);
+  }
+
+  /** Читает все ISBN каталога; до завершения фильтр не отсекает ни одного ISBN. */
+  public void load() {
+    long start = System.nanoTime();
+    try {
+      readOnlyTransaction.executeWithoutResult(
+          status -> {
+            try (Stream<String> isbns = bookRepository.streamIsbns()) {
+              isbns.forEach(this::put);
+            }
+          });
+      ready = true;
+      log.info(
+          "ISBN filter loaded with {} ISBNs in {} ms",
+          inserted.get(),
+          TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    } catch (RuntimeException e) {
+      log.warn("Failed to load ISBN filter, every ISBN will be checked in the database", e);
+    }
+  }
+
+  public void put(String isbn) {
+    long key = Isbn.parse(isbn);
+    if (key < 0) {
+      return; // Не-ISBN в старых строках: канонический ISBN с ним всё равно не совпадёт
+    }
+    long h1 = mix(key);
+    long h2 = mix(h1) | 1;
+    for (int i = 0; i < hashFunctions; i++) {
+      long bit = Math.floorMod(h1 + i * h2, bitCount);
+      long mask = 1L << bit;
+      words.accumulateAndGet((int) (bit >>> 6), mask, (word, m) -> word | m);
+    }
+    inserted.incrementAndGet();
+  }
+
+  /**
+   * @return {@code false}, только если книги с таким ISBN в каталоге точно нет
+   */
+  public boolean mightContain(String isbn) {
+    long key = Isbn.parse(isbn);
+    if (!ready || key < 0) {
+      return true;
+    }
+    long h1 = mix(key);
+    long h2 = mix(h1) | 1;
+    for (int i = 0; i < hashFunctions; i++) {
+      long bit = Math.floorMod(h1 + i * h2, bitCount);
+      if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+        negatives.increment();
+        return false;
+      }
+    }
+    positives.increment();
+    return true;
+  }
+
+  /** Фильтр ответил "возможно есть", а запрос в БД книгу не нашёл. */
+  public void recordFalsePositive() {
+    falsePositives.increment();
+  }
+
+  boolean isReady() {
+    return ready;
+  }
+
+  // Финализатор MurmurHash3: соседние ISBN дают независимые хэши
+  private static long mix(long value) {
+    value ^= value >>> 33;
+    value *= 0xff51afd7ed558ccdL;
+    value ^= value >>> 33;
+    value *= 0xc4ceb9fe1a85ec53L;
+    value ^= value >>> 33;
+    return value;
+  }
+
+  private static Counter lookupCounter(MeterRegistry meterRegistry, String result) {
+    return Counter.builder("isbn_filter_lookups_total")
+        .description("ISBN existence checks answered by the Bloom filter")
+        .tag("result", result)
+        .register(meterRegistry);
+  }
+}
@@ -0,0 +1,271 @@
+package ru.mentee.library.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import ru.mentee.library.api.dto.BookInfoResponse;
+import ru.mentee.library.config.IsbnInfoCacheProperties;
+import ru.mentee.library.domain.model.IsbnInfoCacheEntry;
+import ru.mentee.library.domain.repository.IsbnInfoCacheRepository;
+
+/**
+ * Двухуровневый кэш ответов OpenLibrary по нормализованному ISBN.
+ *
+ * <p>L1 — ограниченная Caffeine-карта в памяти узла, L2 — таблица {@code isbn_info_cache}, общая
+ * для всех узлов и переживающая рестарт. Кэшируются и отрицательные ответы ("не найдено"), но с
+ * более коротким TTL. Срок жизни считается от момента запроса в OpenLibrary, поэтому запись,
+ * поднятая из L2 в L1, живёт только оставшееся время.
+ */
+@Component
+@Slf4j
+public class IsbnInfoCache {
+
+  private final IsbnInfoCacheRepository repository;
+  private final IsbnInfoCacheProperties properties;
+  private final Clock clock;
+  private final Cache<String, Entry> l1;
+  private final Counter l2Hits;
+  private final Counter l2Misses;
+
+  @Autowired
+  public IsbnInfoCache(
+      IsbnInfoCacheRepository repository,
+      IsbnInfoCacheProperties properties,
+      MeterRegistry meterRegistry) {
+    this(repository, properties, meterRegistry, Clock.systemUTC());
+  }
+
+  IsbnInfoCache(
+      IsbnInfoCacheRepository repository,
+      IsbnInfoCacheProperties properties,
+      MeterRegistry meterRegistry,
+      Clock clock) {
+    this.repository = repository;
+    this.properties = properties;
+    this.clock = clock;
+    this.l1 =
+        Caffeine.newBuilder()
+            .maximumSize(properties.getMaximumSize())
+            .expireAfter(new RemainingTtlExpiry())
+            .recordStats()
+            .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, l1, "isbn_info");
+    this.l2Hits =
+        Counter.builder("isbn_info_l2_requests_total")
+            .description("Lookups in the database tier of the ISBN info cache")
+            .tag("result", "hit")
+            .register(meterRegistry);
+    this.l2Misses =
+        Counter.builder("isbn_info_l2_requests_total")
+            .description("Lookups in the database tier of the ISBN info cache")
+            .tag("result", "miss")
+            .register(meterRegistry);
+  }
+
+  /**
+   * Возвращает информацию о книге из L1/L2 или загружает её через {@code loader}.
+   *
+   * @return {@code null}, если книга не найдена (в том числе закэшированное "не найдено")
+   */
+  public BookInfoResponse get(String isbn, Function<String, BookInfoResponse> loader) {
+    Entry entry = l1.getIfPresent(isbn);
+    if (entry == null) {
+      entry = loadFromDatabase(isbn);
+    }
+    if (entry == null) {
+      entry = new Entry(loader.apply(isbn), clock.instant());
+      store(isbn, entry);
+    }
+    return entry.info();
+  }
+
+  /**
+   * Неблокирующий вариант {@link #get}: L1 проверяется сразу, запросы в L2 (JDBC) выполняются на
+   * {@code blockingExecutor}, загрузка — асинхронная.
+   */
+  public CompletableFuture<BookInfoResponse> getAsync(
+      String isbn,
+      Function<String, CompletableFuture<BookInfoResponse>> loader,
+      Executor blockingExecutor) {
+    Entry cached = l1.getIfPresent(isbn);
+    if (cached != null) {
+      return CompletableFuture.completedFuture(cached.info());
+    }
+    return CompletableFuture.supplyAsync(() -> loadFromDatabase(isbn), blockingExecutor)
+        .thenCompose(
+            entry ->
+                entry != null
+                    ? CompletableFuture.completedFuture(entry.info())
+                    : loader
+                        .apply(isbn)
+                        .thenApplyAsync(
+                            info -> {
+                              store(isbn, new Entry(info, clock.instant()));
+                              return info;
+                            },
+                            blockingExecutor));
+  }
+
+  /**
+   * Пакетный поиск без загрузки: промахи L1 ищутся в L2 одним запросом. ISBN, которых нет ни в
+   * одном уровне, в результат не попадают — их загружают отдельно и сохраняют через {@link
+   * #putAll}.
+   *
+   * @return найденные записи; {@code null} в значении — закэшированное "не найдено"
+   */
+  public Map<String, BookInfoResponse> getAllPresent(Collection<String> isbns) {
+    Map<String, BookInfoResponse> result = new HashMap<>();
+    Set<String> missing = new LinkedHashSet<>();
+    for (String isbn : isbns) {
+      Entry entry = l1.getIfPresent(isbn);
+      if (entry != null) {
+        result.put(isbn, entry.info());
+      } else {
+        missing.add(isbn);
+      }
+    }
+    if (!missing.isEmpty()) {
+      loadAllFromDatabase(missing).forEach((isbn, entry) -> result.put(isbn, entry.info()));
+    }
+    return result;
+  }
+
+  /**
+   * Сохраняет загруженные ответы в оба уровня; в L2 — одним {@code saveAll}.
+   *
+   * @param loaded ответы OpenLibrary по ISBN; {@code null} в значении — книга не найдена
+   */
+  public void putAll(Map<String, BookInfoResponse> loaded) {
+    Instant fetchedAt = clock.instant();
+    List<IsbnInfoCacheEntry> rows = new ArrayList<>(loaded.size());
+    loaded.forEach(
+        (isbn, info) -> {
+          l1.put(isbn, new Entry(info, fetchedAt));
+          rows.add(row(isbn, info, fetchedAt));
+        });
+    try {
+      repository.saveAll(rows);
+    } catch (DataAccessException e) {
+      // Пакет откатывается целиком; L1 уже заполнен, L2 догонит при следующей загрузке
+      log.debug("Failed to store {} ISBN info entries in database cache", rows.size(), e);
+    }
+  }
+
+  /**
+   * Последняя сохранённая в L2 информация о книге без учёта TTL — ответ на случай, когда
+   * OpenLibrary недоступен.
+   *
+   * @return {@code null}, если найденной книги в L2 нет
+   */
+  public BookInfoResponse getStale(String isbn) {
+    try {
+      return repository.findById(isbn).map(IsbnInfoCacheEntry::getPayload).orElse(null);
+    } catch (DataAccessException e) {
+      log.warn("ISBN info cache table is unavailable, no stale entry for {}", isbn, e);
+      return null;
+    }
+  }
+
+  private Entry loadFromDatabase(String isbn) {
+    Entry entry;
+    try {
+      entry =
+          repository
+              .findById(isbn)
+              .map(row -> new Entry(row.getPayload(), row.getFetchedAt()))
+              .filter(row -> remainingTtl(row).isPositive())
+              .orElse(null);
+    } catch (DataAccessException e) {
+      log.warn("ISBN info cache table is unavailable, skipping L2 for {}", isbn, e);
+      return null;
+    }
+
+    if (entry == null) {
+      l2Misses.increment();
+      return null;
+    }
+    l2Hits.increment();
+    l1.put(isbn, entry);
+    return entry;
+  }
+
+  private Map<String, Entry> loadAllFromDatabase(Set<String> isbns) {
+    List<IsbnInfoCacheEntry> rows;
+    try {
+      rows = repository.findAllById(isbns);
+    } catch (DataAccessException e) {
+      log.warn("ISBN info cache table is unavailable, skipping L2 for {} ISBNs", isbns.size(), e);
+      return Map.of();
+    }
+
+    Map<String, Entry> entries = new HashMap<>();
+    for (IsbnInfoCacheEntry row : rows) {
+      Entry entry = new Entry(row.getPayload(), row.getFetchedAt());
+      if (remainingTtl(entry).isPositive()) {
+        entries.put(row.getIsbn(), entry);
+        l1.put(row.getIsbn(), entry);
+      }
+    }
+    l2Hits.increment(entries.size());
+    l2Misses.increment(isbns.size() - entries.size());
+    return entries;
+  }
+
+  private void store(String isbn, Entry entry) {
+    l1.put(isbn, entry);
+    try {
+      repository.save(row(isbn, entry.info(), entry.fetchedAt()));
+    } catch (DataAccessException e) {
+      // Другой узел успел записать тот же ISBN или таблица недоступна — L1 всё равно заполнен
+      log.debug("Failed to store ISBN info for {} in database cache", isbn, e);
+    }
+  }
+
+  private static IsbnInfoCacheEntry row(String isbn, BookInfoResponse info, Instant fetchedAt) {
+    return IsbnInfoCacheEntry.builder().isbn(isbn).payload(info).fetchedAt(fetchedAt).build();
+  }
+
+  private Duration remainingTtl(Entry entry) {
+    Duration ttl = entry.info() != null ? properties.getTtl() : properties.getNegativeTtl();
+    return ttl.minus(Duration.between(entry.fetchedAt(), clock.instant()));
+  }
+
+  private record Entry(BookInfoResponse info, Instant fetchedAt) {}
+
+  private class RemainingTtlExpiry implements Expiry<String, Entry> {
+    @Override
+    public long expireAfterCreate(String key, Entry value, long currentTime) {
+      return Math.max(0, remainingTtl(value).toNanos());
+    }
+
+    @Override
+    public long expireAfterUpdate(String key, Entry value, long currentTime, long currentDuration) {
+      return expireAfterCreate(key, value, currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(String key, Entry value, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
+  }
+}
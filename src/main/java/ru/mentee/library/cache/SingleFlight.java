@@ -0,0 +1,86 @@
+package ru.mentee.library.cache;
+
+import io.micrometer.core.instrument.Counter;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Схлопывает одновременные одинаковые запросы: первый вызов по ключу выполняет загрузку, а
+ * остальные, пришедшие пока она идёт, ждут тот же результат (или ту же ошибку).
+ */
+public class SingleFlight<K, V> {
+
+  private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+  private final Counter coalescedCounter;
+
+  public SingleFlight(Counter coalescedCounter) {
+    this.coalescedCounter = coalescedCounter;
+  }
+
+  public V execute(K key, Function<K, V> loader) {
+    CompletableFuture<V> call = new CompletableFuture<>();
+    CompletableFuture<V> existing = inFlight.putIfAbsent(key, call);
+    if (existing != null) {
+      coalescedCounter.increment();
+      return await(existing);
+    }
+
+    try {
+      V value = loader.apply(key);
+      call.complete(value);
+      return value;
+    } catch (RuntimeException | Error e) {
+      call.completeExceptionally(e);
+      throw e;
+    } finally {
+      inFlight.remove(key, call);
+    }
+  }
+
+  /**
+   * Неблокирующий вариант {@link #execute}. Синхронные и асинхронные вызовы с одним ключом
+   * схлопываются друг с другом.
+   */
+  public CompletableFuture<V> executeAsync(K key, Function<K, CompletableFuture<V>> loader) {
+    CompletableFuture<V> call = new CompletableFuture<>();
+    CompletableFuture<V> existing = inFlight.putIfAbsent(key, call);
+    if (existing != null) {
+      coalescedCounter.increment();
+      return existing;
+    }
+
+    try {
+      loader
+          .apply(key)
+          .whenComplete(
+              (value, error) -> {
+                inFlight.remove(key, call);
+                if (error != null) {
+                  call.completeExceptionally(error);
+                } else {
+                  call.complete(value);
+                }
+              });
+    } catch (RuntimeException | Error e) {
+      inFlight.remove(key, call);
+      call.completeExceptionally(e);
+    }
+    return call;
+  }
+
+  private static <V> V await(CompletableFuture<V> call) {
+    try {
+      return call.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      if (e.getCause() instanceof Error error) {
+        throw error;
+      }
+      throw e;
+    }
+  }
+}
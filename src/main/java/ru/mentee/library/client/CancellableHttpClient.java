@@ -0,0 +1,170 @@
+package ru.mentee.library.client;
+
+import java.io.IOException;
+import java.net.Authenticator;
+import java.net.CookieHandler;
+import java.net.ProxySelector;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.WebSocket;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
+
+/**
+ * JDK {@link HttpClient}, у которого отмена ответа доходит до самого обмена.
+ *
+ * <p>AsyncFeign строит свой future поверх {@code sendAsync} через {@code thenApply}/{@code
+ * exceptionally}, и {@code cancel} этого future до HttpClient не доходит: запрос продолжает
+ * занимать соединение и слот HTTP/2-потока. Здесь future {@code sendAsync}, созданные внутри {@link
+ * #cancellable}, запоминаются и отменяются вместе с внешним; с JDK 16 {@code cancel(true)}
+ * прерывает обмен. Остальные методы делегируются как есть.
+ */
+public class CancellableHttpClient extends HttpClient {
+
+  private final HttpClient delegate;
+  private final ThreadLocal<List<CompletableFuture<?>>> exchanges = new ThreadLocal<>();
+
+  public CancellableHttpClient(HttpClient delegate) {
+    this.delegate = delegate;
+  }
+
+  /**
+   * Выполняет {@code call} и связывает отмену его результата с запросами, которые он отправил через
+   * этот клиент в том же потоке.
+   */
+  public <T> CompletableFuture<T> cancellable(Supplier<CompletableFuture<T>> call) {
+    List<CompletableFuture<?>> started = new CopyOnWriteArrayList<>();
+    List<CompletableFuture<?>> outer = exchanges.get();
+    exchanges.set(started);
+    CompletableFuture<T> result;
+    try {
+      result = call.get();
+    } finally {
+      if (outer == null) {
+        exchanges.remove();
+      } else {
+        exchanges.set(outer);
+      }
+    }
+    result.whenComplete(
+        (value, error) -> {
+          if (error instanceof CancellationException) {
+            started.forEach(exchange -> exchange.cancel(true));
+          }
+        });
+    return result;
+  }
+
+  @Override
+  public <T> CompletableFuture<HttpResponse<T>> sendAsync(
+      HttpRequest request, HttpResponse.BodyHandler<T> responseBodyHandler) {
+    return track(delegate.sendAsync(request, responseBodyHandler));
+  }
+
+  @Override
+  public <T> CompletableFuture<HttpResponse<T>> sendAsync(
+      HttpRequest request,
+      HttpResponse.BodyHandler<T> responseBodyHandler,
+      HttpResponse.PushPromiseHandler<T> pushPromiseHandler) {
+    return track(delegate.sendAsync(request, responseBodyHandler, pushPromiseHandler));
+  }
+
+  @Override
+  public <T> HttpResponse<T> send(
+      HttpRequest request, HttpResponse.BodyHandler<T> responseBodyHandler)
+      throws IOException, InterruptedException {
+    return delegate.send(request, responseBodyHandler);
+  }
+
+  @Override
+  public Optional<CookieHandler> cookieHandler() {
+    return delegate.cookieHandler();
+  }
+
+  @Override
+  public Optional<Duration> connectTimeout() {
+    return delegate.connectTimeout();
+  }
+
+  @Override
+  public Redirect followRedirects() {
+    return delegate.followRedirects();
+  }
+
+  @Override
+  public Optional<ProxySelector> proxy() {
+    return delegate.proxy();
+  }
+
+  @Override
+  public SSLContext sslContext() {
+    return delegate.sslContext();
+  }
+
+  @Override
+  public SSLParameters sslParameters() {
+    return delegate.sslParameters();
+  }
+
+  @Override
+  public Optional<Authenticator> authenticator() {
+    return delegate.authenticator();
+  }
+
+  @Override
+  public Version version() {
+    return delegate.version();
+  }
+
+  @Override
+  public Optional<Executor> executor() {
+    return delegate.executor();
+  }
+
+  @Override
+  public WebSocket.Builder newWebSocketBuilder() {
+    return delegate.newWebSocketBuilder();
+  }
+
+  @Override
+  public void shutdown() {
+    delegate.shutdown();
+  }
+
+  @Override
+  public boolean awaitTermination(Duration duration) throws InterruptedException {
+    return delegate.awaitTermination(duration);
+  }
+
+  @Override
+  public boolean isTerminated() {
+    return delegate.isTerminated();
+  }
+
+  @Override
+  public void shutdownNow() {
+    delegate.shutdownNow();
+  }
+
+  @Override
+  public void close() {
+    delegate.close();
+  }
+
+  private <T> CompletableFuture<T> track(CompletableFuture<T> exchange) {
+    List<CompletableFuture<?>> started = exchanges.get();
+    if (started != null) {
+      started.add(exchange);
+    }
+    return exchange;
+  }
+}
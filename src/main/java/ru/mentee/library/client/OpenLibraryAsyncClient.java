@@ -0,0 +1,19 @@
+package ru.mentee.library.client;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import ru.mentee.library.api.dto.BookInfoResponse;
+
+/**
+ * Неблокирующий вариант {@link OpenLibraryClient}: запрос уходит через JDK HttpClient, поток на
+ * время ответа не занимается. Создаётся в {@code OpenLibraryAsyncClientConfig}.
+ */
+public interface OpenLibraryAsyncClient {
+  @GetMapping("/api/books")
+  CompletableFuture<Map<String, BookInfoResponse>> getBookByIsbn(
+      @RequestParam("bibkeys") String bibkeys,
+      @RequestParam("format") String format,
+      @RequestParam("jscmd") String jscmd);
+}
@@ -0,0 +1,268 @@
+package ru.mentee.library.client;
+
+import feign.RetryableException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.mentee.library.api.dto.BookInfoResponse;
+import ru.mentee.library.config.OpenLibraryBatchProperties;
+import ru.mentee.library.monitoring.TraceContext;
+
+/**
+ * Собирает ISBN от одновременных вызывающих в течение короткого окна (или до {@code maxKeys}) и
+ * отправляет их одним запросом {@code /api/books?bibkeys=ISBN:a,ISBN:b,...}. Ответ OpenLibrary —
+ * карта по bibkey, каждая запись возвращается своему ожидающему.
+ *
+ * <p>Сам запрос проходит через bulkhead (ограничение одновременных вызовов) и circuit breaker: при
+ * недоступности OpenLibrary ожидающие быстро получают {@link OpenLibraryUnavailableException}
+ * вместо блокировки на весь read timeout. Внутри breaker'а запрос может хеджироваться (см. {@link
+ * OpenLibraryHedger}), так что breaker видит итоговый результат, а не отменённые дубли.
+ *
+ * <p>С {@code asyncClient=true} запрос идёт через {@link OpenLibraryAsyncClient}, и до ответа
+ * OpenLibrary не занят ни один поток, даже виртуальный.
+ *
+ * <p>Пачка отправляется с {@link TraceContext} запроса, который её открыл: в исходящий вызов
+ * попадают его {@code traceparent} и {@code X-Request-Id}.
+ */
+@Component
+@Slf4j
+public class OpenLibraryBatcher {
+
+  private final OpenLibraryClient openLibraryClient;
+  private final OpenLibraryAsyncClient asyncClient;
+  private final OpenLibraryBatchProperties properties;
+  private final CircuitBreaker circuitBreaker;
+  private final Bulkhead bulkhead;
+  private final OpenLibraryHedger hedger;
+  private final OpenLibraryRateLimiter rateLimiter;
+  private final DistributionSummary batchSize;
+  private final ScheduledExecutorService scheduler =
+      Executors.newSingleThreadScheduledExecutor(
+          Thread.ofPlatform().name("openlibrary-batcher").daemon().factory());
+  private final ExecutorService sender = Executors.newVirtualThreadPerTaskExecutor();
+
+  private final Object lock = new Object();
+  private Map<String, CompletableFuture<BookInfoResponse>> pending = new LinkedHashMap<>();
+  private TraceContext pendingContext;
+  private ScheduledFuture<?> scheduledFlush;
+
+  public OpenLibraryBatcher(
+      OpenLibraryClient openLibraryClient,
+      OpenLibraryAsyncClient asyncClient,
+      OpenLibraryBatchProperties properties,
+      CircuitBreaker openLibraryCircuitBreaker,
+      Bulkhead openLibraryBulkhead,
+      OpenLibraryHedger hedger,
+      OpenLibraryRateLimiter rateLimiter,
+      MeterRegistry meterRegistry) {
+    this.openLibraryClient = openLibraryClient;
+    this.asyncClient = asyncClient;
+    this.properties = properties;
+    this.circuitBreaker = openLibraryCircuitBreaker;
+    this.bulkhead = openLibraryBulkhead;
+    this.hedger = hedger;
+    this.rateLimiter = rateLimiter;
+    this.batchSize =
+        DistributionSummary.builder("openlibrary_batch_size")
+            .description("Number of ISBNs sent in one OpenLibrary request")
+            .register(meterRegistry);
+  }
+
+  /**
+   * @return книга или {@code null}, если OpenLibrary её не знает
+   */
+  public CompletableFuture<BookInfoResponse> lookup(String isbn) {
+    if (!properties.isEnabled()) {
+      CompletableFuture<BookInfoResponse> result = new CompletableFuture<>();
+      send(Map.of(isbn, result), OpenLibraryRateLimiter.Priority.INTERACTIVE);
+      return result;
+    }
+
+    CompletableFuture<BookInfoResponse> result;
+    Map<String, CompletableFuture<BookInfoResponse>> full = null;
+    TraceContext context = null;
+    synchronized (lock) {
+      if (pending.isEmpty()) {
+        pendingContext = TraceContext.current();
+      }
+      result = pending.computeIfAbsent(isbn, key -> new CompletableFuture<>());
+      if (pending.size() >= properties.getMaxKeys()) {
+        context = pendingContext;
+        full = takePending();
+      } else if (scheduledFlush == null) {
+        scheduledFlush =
+            scheduler.schedule(this::flush, properties.getWindow().toNanos(), TimeUnit.NANOSECONDS);
+      }
+    }
+    if (full != null) {
+      sendAsync(full, OpenLibraryRateLimiter.Priority.INTERACTIVE, context);
+    }
+    // Future в pending общий для всех, кто ждёт этот ISBN: таймаут или отмена у одного вызывающего
+    // не должны завершать его для остальных
+    return result.copy();
+  }
+
+  /**
+   * Запрашивает набор ISBN сразу, без окна ожидания: пачками по {@code maxKeys}, обычно одним
+   * запросом. Используется, когда все ключи известны заранее.
+   *
+   * @param priority очередь в ограничителе скорости: импорт не должен вытеснять пользователей
+   * @return книги по ISBN; {@code null} в значении — OpenLibrary книгу не знает
+   */
+  public CompletableFuture<Map<String, BookInfoResponse>> lookupAll(
+      Collection<String> isbns, OpenLibraryRateLimiter.Priority priority) {
+    TraceContext context = TraceContext.current();
+    Map<String, CompletableFuture<BookInfoResponse>> results = new LinkedHashMap<>();
+    Map<String, CompletableFuture<BookInfoResponse>> batch = new LinkedHashMap<>();
+    for (String isbn : isbns) {
+      CompletableFuture<BookInfoResponse> result = new CompletableFuture<>();
+      if (results.putIfAbsent(isbn, result) != null) {
+        continue;
+      }
+      batch.put(isbn, result);
+      if (batch.size() >= properties.getMaxKeys()) {
+        sendAsync(batch, priority, context);
+        batch = new LinkedHashMap<>();
+      }
+    }
+    if (!batch.isEmpty()) {
+      sendAsync(batch, priority, context);
+    }
+    return CompletableFuture.allOf(results.values().toArray(CompletableFuture[]::new))
+        .thenApply(
+            ignored -> {
+              // HashMap: значения null допустимы
+              Map<String, BookInfoResponse> books = new HashMap<>();
+              results.forEach((isbn, result) -> books.put(isbn, result.join()));
+              return books;
+            });
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    scheduler.shutdownNow();
+    sender.shutdown();
+  }
+
+  private void flush() {
+    Map<String, CompletableFuture<BookInfoResponse>> batch;
+    TraceContext context;
+    synchronized (lock) {
+      context = pendingContext;
+      batch = takePending();
+    }
+    if (!batch.isEmpty()) {
+      sendAsync(batch, OpenLibraryRateLimiter.Priority.INTERACTIVE, context);
+    }
+  }
+
+  private void sendAsync(
+      Map<String, CompletableFuture<BookInfoResponse>> batch,
+      OpenLibraryRateLimiter.Priority priority,
+      TraceContext context) {
+    sender.execute(TraceContext.wrap(context, () -> send(batch, priority)));
+  }
+
+  private Map<String, CompletableFuture<BookInfoResponse>> takePending() {
+    Map<String, CompletableFuture<BookInfoResponse>> batch = pending;
+    pending = new LinkedHashMap<>();
+    pendingContext = null;
+    if (scheduledFlush != null) {
+      scheduledFlush.cancel(false);
+      scheduledFlush = null;
+    }
+    return batch;
+  }
+
+  private void send(
+      Map<String, CompletableFuture<BookInfoResponse>> batch,
+      OpenLibraryRateLimiter.Priority priority) {
+    batchSize.record(batch.size());
+    String bibkeys =
+        batch.keySet().stream().map(isbn -> "ISBN:" + isbn).collect(Collectors.joining(","));
+    log.debug("Calling Feign client with bibkeys: {}", bibkeys);
+
+    try {
+      // Пользовательские запросы идут впереди фоновых (см. OpenLibraryRateLimiter). Это токен
+      // основной попытки, хедж берёт свой (см. OpenLibraryHedger)
+      rateLimiter.acquire(priority);
+      if (properties.isAsyncClient()) {
+        // Тот же порядок обёрток, но слот bulkhead освобождается по завершении future
+        bulkhead
+            .executeCompletionStage(
+                () ->
+                    circuitBreaker.executeCompletionStage(
+                        () ->
+                            hedger.executeAsync(
+                                () -> asyncClient.getBookByIsbn(bibkeys, "json", "data"))))
+            .whenComplete(
+                (response, error) -> {
+                  if (error != null) {
+                    fail(batch, toFailure(error));
+                  } else {
+                    complete(batch, response);
+                  }
+                });
+        return;
+      }
+      // Bulkhead снаружи: отказ из-за нехватки слотов не должен считаться ошибкой OpenLibrary
+      Map<String, BookInfoResponse> response =
+          bulkhead.executeSupplier(
+              () ->
+                  circuitBreaker.executeSupplier(
+                      () ->
+                          hedger.execute(
+                              () -> openLibraryClient.getBookByIsbn(bibkeys, "json", "data"))));
+      complete(batch, response);
+    } catch (RuntimeException e) {
+      fail(batch, toFailure(e));
+    }
+  }
+
+  private static void complete(
+      Map<String, CompletableFuture<BookInfoResponse>> batch,
+      Map<String, BookInfoResponse> response) {
+    batch.forEach(
+        (isbn, result) -> result.complete(response != null ? response.get("ISBN:" + isbn) : null));
+  }
+
+  private static RuntimeException toFailure(Throwable error) {
+    Throwable cause =
+        error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    return switch (cause) {
+      case OpenLibraryUnavailableException unavailable -> unavailable;
+      case CallNotPermittedException e ->
+          new OpenLibraryUnavailableException("OpenLibrary calls are rejected", e);
+      case BulkheadFullException e ->
+          new OpenLibraryUnavailableException("OpenLibrary calls are rejected", e);
+        // Ошибки соединения и read timeout
+      case RetryableException e ->
+          new OpenLibraryUnavailableException("OpenLibrary is not responding", e);
+      case RuntimeException e -> e;
+      default -> new IllegalStateException(cause);
+    };
+  }
+
+  private static void fail(
+      Map<String, CompletableFuture<BookInfoResponse>> batch, RuntimeException error) {
+    batch.values().forEach(result -> result.completeExceptionally(error));
+  }
+}
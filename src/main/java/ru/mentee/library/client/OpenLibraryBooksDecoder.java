@@ -0,0 +1,186 @@
+package ru.mentee.library.client;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import feign.Response;
+import feign.codec.DecodeException;
+import feign.codec.Decoder;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import ru.mentee.library.api.dto.BookInfoResponse;
+
+/**
+ * Потоковый разбор ответа {@code /api/books?format=json&jscmd=data} сразу в {@link
+ * BookInfoResponse}, без промежуточных {@code OpenLibraryBookDto}.
+ *
+ * <p>Ответ читается одним проходом {@link JsonParser}: из каждой книги берутся только нужные поля,
+ * остальные поддеревья ({@code subjects}, {@code links}, {@code cover}, {@code excerpts} и т.п.)
+ * пропускаются через {@code skipChildren()} без построения объектов. Остальные типы ответов
+ * разбираются обычным Jackson-биндингом.
+ *
+ * <p>Синхронный клиент подключает декодер через {@code
+ * spring.cloud.openfeign.client.config.open-library-client.decoder}, асинхронный — в {@code
+ * OpenLibraryAsyncClientConfig}.
+ */
+public class OpenLibraryBooksDecoder implements Decoder {
+
+  private final ObjectMapper objectMapper;
+  private final JsonFactory jsonFactory;
+
+  public OpenLibraryBooksDecoder() {
+    this(new ObjectMapper());
+  }
+
+  public OpenLibraryBooksDecoder(ObjectMapper objectMapper) {
+    this.objectMapper = objectMapper;
+    this.jsonFactory = objectMapper.getFactory();
+  }
+
+  @Override
+  public Object decode(Response response, Type type) throws IOException {
+    if (response.body() == null) {
+      return isBooksMap(type) ? Map.of() : null;
+    }
+    try (InputStream body = response.body().asInputStream()) {
+      if (!isBooksMap(type)) {
+        return objectMapper.readValue(body, objectMapper.constructType(type));
+      }
+      try (JsonParser parser = jsonFactory.createParser(body)) {
+        return readBooks(parser);
+      }
+    } catch (IllegalStateException e) {
+      throw new DecodeException(response.status(), e.getMessage(), response.request(), e);
+    }
+  }
+
+  /**
+   * @return книги по bibkey ({@code "ISBN:..."}); {@code null} в значении — запись не объект
+   */
+  Map<String, BookInfoResponse> readBooks(JsonParser parser) throws IOException {
+    JsonToken token = parser.nextToken();
+    if (token == null || token == JsonToken.VALUE_NULL) {
+      return Map.of();
+    }
+    if (token != JsonToken.START_OBJECT) {
+      throw new IllegalStateException("Expected JSON object, got " + token);
+    }
+    // HashMap: значения null допустимы
+    Map<String, BookInfoResponse> books = new HashMap<>();
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String bibkey = parser.currentName();
+      if (parser.nextToken() == JsonToken.START_OBJECT) {
+        books.put(bibkey, readBook(parser));
+      } else {
+        parser.skipChildren();
+        books.put(bibkey, null);
+      }
+    }
+    return books;
+  }
+
+  private static BookInfoResponse readBook(JsonParser parser) throws IOException {
+    BookInfoResponse.BookInfoResponseBuilder book =
+        BookInfoResponse.builder().authors(List.of()).publishers(List.of());
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String field = parser.currentName();
+      JsonToken value = parser.nextToken();
+      switch (field) {
+        case "title" -> book.title(text(parser));
+        case "authors" -> book.authors(names(parser));
+        case "publishers" -> book.publishers(names(parser));
+        case "publish_date" -> book.publishDate(text(parser));
+        case "number_of_pages" ->
+            book.numberOfPages(value.isNumeric() ? parser.getValueAsInt() : skip(parser));
+        case "identifiers" -> readIdentifiers(parser, book);
+        default -> parser.skipChildren();
+      }
+    }
+    return book.build();
+  }
+
+  /** Имена из массива объектов {@code [{"name": ..., "url": ...}]}. */
+  private static List<String> names(JsonParser parser) throws IOException {
+    if (parser.currentToken() != JsonToken.START_ARRAY) {
+      parser.skipChildren();
+      return List.of();
+    }
+    List<String> names = new ArrayList<>(2);
+    while (parser.nextToken() != JsonToken.END_ARRAY) {
+      if (parser.currentToken() != JsonToken.START_OBJECT) {
+        parser.skipChildren();
+        continue;
+      }
+      String name = null;
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        boolean isName = "name".equals(parser.currentName());
+        parser.nextToken();
+        if (isName) {
+          name = text(parser);
+        } else {
+          parser.skipChildren();
+        }
+      }
+      names.add(name);
+    }
+    return names;
+  }
+
+  private static void readIdentifiers(
+      JsonParser parser, BookInfoResponse.BookInfoResponseBuilder book) throws IOException {
+    if (parser.currentToken() != JsonToken.START_OBJECT) {
+      parser.skipChildren();
+      return;
+    }
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String field = parser.currentName();
+      parser.nextToken();
+      switch (field) {
+        case "isbn_10" -> book.isbn10(first(parser));
+        case "isbn_13" -> book.isbn13(first(parser));
+        default -> parser.skipChildren();
+      }
+    }
+  }
+
+  /** Первый элемент массива строк, остальные пропускаются. */
+  private static String first(JsonParser parser) throws IOException {
+    if (parser.currentToken() != JsonToken.START_ARRAY) {
+      return text(parser);
+    }
+    String first = null;
+    while (parser.nextToken() != JsonToken.END_ARRAY) {
+      String value = text(parser);
+      if (first == null) {
+        first = value;
+      }
+    }
+    return first;
+  }
+
+  private static String text(JsonParser parser) throws IOException {
+    if (parser.currentToken().isStructStart()) {
+      parser.skipChildren();
+      return null;
+    }
+    return parser.getValueAsString();
+  }
+
+  private static <T> T skip(JsonParser parser) throws IOException {
+    parser.skipChildren();
+    return null;
+  }
+
+  private static boolean isBooksMap(Type type) {
+    return type instanceof ParameterizedType map
+        && map.getRawType() == Map.class
+        && map.getActualTypeArguments()[1] == BookInfoResponse.class;
+  }
+}
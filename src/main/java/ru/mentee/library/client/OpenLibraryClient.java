@@ -4,12 +4,12 @@ import java.util.Map;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
-import ru.mentee.library.api.dto.OpenLibraryBookDto;
+import ru.mentee.library.api.dto.BookInfoResponse;
 
 @FeignClient(name = "open-library-client", url = "${openlibrary.api.url}")
 public interface OpenLibraryClient {
   @GetMapping("/api/books")
-  Map<String, OpenLibraryBookDto> getBookByIsbn( // ← Изменить на Map
+  Map<String, BookInfoResponse> getBookByIsbn(
       @RequestParam("bibkeys") String bibkeys,
       @RequestParam("format") String format,
       @RequestParam("jscmd") String jscmd);
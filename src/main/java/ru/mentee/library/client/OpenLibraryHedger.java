@@ -0,0 +1,354 @@
+package ru.mentee.library.client;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import jakarta.annotation.PreDestroy;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import org.springframework.stereotype.Component;
+import ru.mentee.library.config.OpenLibraryHedgingProperties;
+import ru.mentee.library.monitoring.TraceContext;
+
+/**
+ * Хеджирование запросов к OpenLibrary: если ответ не пришёл за p-й перцентиль недавних задержек,
+ * отправляется второй такой же запрос, берётся первый ответ, а проигравший отменяется.
+ *
+ * <p>Число хеджей ограничено бюджетом: каждый запрос пополняет его на {@code budgetRatio}, хедж
+ * забирает единицу. Так дополнительная нагрузка не превышает заданной доли даже при деградации
+ * OpenLibrary, когда медленными становятся все запросы.
+ *
+ * <p>Хедж занимает собственный слот bulkhead, поэтому одновременных запросов к OpenLibrary не
+ * больше, чем разрешает bulkhead. Лимит запросов хедж тоже проходит сам: берёт токен {@link
+ * OpenLibraryRateLimiter} с фоновым приоритетом, не дожидаясь его, — дополнительный запрос не
+ * должен тратить резерв интерактивных. Нет свободного слота или токена — хедж не отправляется.
+ */
+@Component
+public class OpenLibraryHedger {
+
+  // Бюджет хранится в тысячных долях запроса, чтобы обойтись атомарным long
+  private static final long UNIT = 1_000;
+
+  private final OpenLibraryHedgingProperties properties;
+  private final Bulkhead bulkhead;
+  private final OpenLibraryRateLimiter rateLimiter;
+  private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+  private final AtomicLong budget = new AtomicLong();
+  private final Timer latency;
+  private final Counter hedgesSent;
+  private final Counter hedgesWon;
+  private final Counter hedgesSkipped;
+  private final Counter hedgesRateLimited;
+
+  public OpenLibraryHedger(
+      OpenLibraryHedgingProperties properties,
+      Bulkhead openLibraryBulkhead,
+      OpenLibraryRateLimiter rateLimiter,
+      MeterRegistry meterRegistry) {
+    this.properties = properties;
+    this.bulkhead = openLibraryBulkhead;
+    this.rateLimiter = rateLimiter;
+    this.latency =
+        Timer.builder("openlibrary_request_duration")
+            .description("Latency of successful OpenLibrary requests")
+            .publishPercentiles(properties.getPercentile())
+            .register(meterRegistry);
+    this.hedgesSent =
+        Counter.builder("openlibrary_hedges_total")
+            .description("Hedged (duplicate) OpenLibrary requests sent")
+            .tag("result", "sent")
+            .register(meterRegistry);
+    this.hedgesWon =
+        Counter.builder("openlibrary_hedges_total")
+            .description("Hedged (duplicate) OpenLibrary requests sent")
+            .tag("result", "won")
+            .register(meterRegistry);
+    this.hedgesSkipped =
+        Counter.builder("openlibrary_hedges_total")
+            .description("Hedged (duplicate) OpenLibrary requests sent")
+            .tag("result", "no_permit")
+            .register(meterRegistry);
+    this.hedgesRateLimited =
+        Counter.builder("openlibrary_hedges_total")
+            .description("Hedged (duplicate) OpenLibrary requests sent")
+            .tag("result", "rate_limited")
+            .register(meterRegistry);
+  }
+
+  public <T> T execute(Supplier<T> request) {
+    if (!properties.isEnabled()) {
+      return latency.record(request);
+    }
+    deposit();
+    // Попытки выполняются в потоках хеджера, исходящим вызовам нужен контекст запроса
+    Supplier<T> traced = TraceContext.propagate(request);
+
+    Race<T> race = new Race<>();
+    Future<?> primary = executor.submit(() -> attempt(traced, race, false));
+    Future<?> hedge = null;
+    AtomicBoolean hedgeStarted = new AtomicBoolean();
+    try {
+      try {
+        return race.result.get(hedgeDelayNanos(), TimeUnit.NANOSECONDS).value();
+      } catch (TimeoutException e) {
+        if (!reserveHedge(race)) {
+          return await(race.result).value();
+        }
+        hedge = executor.submit(() -> hedgeAttempt(traced, race, hedgeStarted));
+        // Победитель считается здесь, а не в попытке: к возврату счётчик уже обновлён
+        Attempt<T> winner = await(race.result);
+        if (winner.hedge()) {
+          hedgesWon.increment();
+        }
+        return winner.value();
+      } catch (ExecutionException e) {
+        throw unwrap(e.getCause());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Interrupted while waiting for OpenLibrary", e);
+      }
+    } finally {
+      // Отмена прерывает виртуальный поток проигравшего и закрывает его сокет
+      primary.cancel(true);
+      if (hedge != null) {
+        hedge.cancel(true);
+        // Хедж, отменённый до старта, не вернёт слот bulkhead сам
+        if (hedgeStarted.compareAndSet(false, true)) {
+          bulkhead.onComplete();
+        }
+      }
+    }
+  }
+
+  /**
+   * Неблокирующий вариант {@link #execute}: хедж запускается таймером, ни один поток не ждёт
+   * ответа.
+   */
+  public <T> CompletableFuture<T> executeAsync(Supplier<CompletableFuture<T>> request) {
+    // Хедж запускается из потока таймера
+    Supplier<CompletableFuture<T>> traced = TraceContext.propagate(request);
+    Race<T> race = new Race<>();
+    CompletableFuture<T> primary = attemptAsync(traced, race, false);
+    if (!properties.isEnabled()) {
+      return race.result.thenApply(Attempt::value);
+    }
+    deposit();
+
+    AtomicReference<CompletableFuture<T>> hedge = new AtomicReference<>();
+    CompletableFuture<Void> hedgeTimer =
+        CompletableFuture.runAsync(
+            () -> {
+              if (!reserveHedge(race)) {
+                return;
+              }
+              CompletableFuture<T> call = attemptAsync(traced, race, true);
+              hedge.set(call);
+              // Результат мог появиться до set, тогда отмена ниже хедж не увидела
+              if (race.result.isDone()) {
+                call.cancel(true);
+              }
+            },
+            CompletableFuture.delayedExecutor(hedgeDelayNanos(), TimeUnit.NANOSECONDS, executor));
+    return race.result
+        .whenComplete(
+            (winner, error) -> {
+              hedgeTimer.cancel(false);
+              primary.cancel(true);
+              CompletableFuture<T> hedgeCall = hedge.get();
+              if (hedgeCall != null) {
+                hedgeCall.cancel(true);
+              }
+            })
+        .thenApply(
+            winner -> {
+              if (winner.hedge()) {
+                hedgesWon.increment();
+              }
+              return winner.value();
+            });
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  /**
+   * Решает, отправлять ли хедж. Место в гонке занимается до проверок: иначе основная попытка,
+   * упавшая в этот момент, завершила бы запрос ошибкой, хотя хедж вот-вот уйдёт.
+   */
+  private boolean reserveHedge(Race<?> race) {
+    if (!race.reserve()) {
+      return false;
+    }
+    if (!tryWithdraw()) {
+      race.release();
+      return false;
+    }
+    // Без ожидания: хедж нужен только если есть свободный слот прямо сейчас
+    if (bulkhead.getMetrics().getAvailableConcurrentCalls() == 0
+        || !bulkhead.tryAcquirePermission()) {
+      refund();
+      hedgesSkipped.increment();
+      race.release();
+      return false;
+    }
+    // Токен берётся после слота: слот можно вернуть, а токен — нет
+    if (!rateLimiter.tryAcquire(OpenLibraryRateLimiter.Priority.BACKGROUND)) {
+      bulkhead.onComplete();
+      refund();
+      hedgesRateLimited.increment();
+      race.release();
+      return false;
+    }
+    hedgesSent.increment();
+    return true;
+  }
+
+  private <T> void hedgeAttempt(Supplier<T> request, Race<T> race, AtomicBoolean started) {
+    if (!started.compareAndSet(false, true)) {
+      // Вызывающий уже вернулся и сам освободил слот
+      return;
+    }
+    try {
+      attempt(request, race, true);
+    } finally {
+      bulkhead.onComplete();
+    }
+  }
+
+  private <T> void attempt(Supplier<T> request, Race<T> race, boolean isHedge) {
+    long start = System.nanoTime();
+    try {
+      T value = request.get();
+      latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+      race.result.complete(new Attempt<>(value, isHedge));
+    } catch (RuntimeException e) {
+      race.fail(e);
+    }
+  }
+
+  private <T> CompletableFuture<T> attemptAsync(
+      Supplier<CompletableFuture<T>> request, Race<T> race, boolean isHedge) {
+    long start = System.nanoTime();
+    CompletableFuture<T> call;
+    try {
+      call = request.get();
+    } catch (RuntimeException e) {
+      call = CompletableFuture.failedFuture(e);
+    }
+    call.whenComplete(
+        (value, error) -> {
+          if (isHedge) {
+            // Слот хеджа освобождается до публикации результата: к возврату вызывающему он свободен
+            bulkhead.onComplete();
+          }
+          if (error == null) {
+            latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            race.result.complete(new Attempt<>(value, isHedge));
+          } else {
+            race.fail(error);
+          }
+        });
+    return call;
+  }
+
+  private long hedgeDelayNanos() {
+    long minDelay = properties.getMinDelay().toNanos();
+    ValueAtPercentile[] percentiles = latency.takeSnapshot().percentileValues();
+    if (latency.count() == 0 || percentiles.length == 0) {
+      return minDelay;
+    }
+    return Math.max(minDelay, (long) percentiles[0].value(TimeUnit.NANOSECONDS));
+  }
+
+  private void refund() {
+    long max = properties.getMaxBurst() * UNIT;
+    budget.getAndUpdate(current -> Math.min(max, current + UNIT));
+  }
+
+  private void deposit() {
+    long deposit = (long) (properties.getBudgetRatio() * UNIT);
+    long max = properties.getMaxBurst() * UNIT;
+    budget.getAndUpdate(current -> Math.min(max, current + deposit));
+  }
+
+  private boolean tryWithdraw() {
+    long current;
+    do {
+      current = budget.get();
+      if (current < UNIT) {
+        return false;
+      }
+    } while (!budget.compareAndSet(current, current - UNIT));
+    return true;
+  }
+
+  private static <T> T await(CompletableFuture<T> result) {
+    try {
+      return result.join();
+    } catch (CompletionException e) {
+      throw unwrap(e.getCause());
+    }
+  }
+
+  private static RuntimeException unwrap(Throwable cause) {
+    if (cause instanceof RuntimeException runtimeException) {
+      return runtimeException;
+    }
+    if (cause instanceof Error error) {
+      throw error;
+    }
+    return new IllegalStateException(cause);
+  }
+
+  private record Attempt<T>(T value, boolean hedge) {}
+
+  /**
+   * Попытки одного запроса: первый успех завершает {@code result}, ошибка отдаётся вызывающему,
+   * только когда не осталось попыток, которые ещё могут успеть.
+   */
+  private static final class Race<T> {
+
+    private final CompletableFuture<Attempt<T>> result = new CompletableFuture<>();
+    private final AtomicInteger running = new AtomicInteger(1);
+    private final AtomicReference<Throwable> lastError = new AtomicReference<>();
+
+    /**
+     * @return {@code false}, если результат уже есть и новая попытка не нужна
+     */
+    boolean reserve() {
+      running.incrementAndGet();
+      if (result.isDone()) {
+        release();
+        return false;
+      }
+      return true;
+    }
+
+    void fail(Throwable error) {
+      lastError.set(error);
+      release();
+    }
+
+    void release() {
+      Throwable error = lastError.get();
+      if (running.decrementAndGet() == 0 && error != null) {
+        result.completeExceptionally(error);
+      }
+    }
+  }
+}
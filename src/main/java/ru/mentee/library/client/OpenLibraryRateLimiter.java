@@ -0,0 +1,153 @@
+package ru.mentee.library.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.stereotype.Component;
+import ru.mentee.library.config.OpenLibraryRateLimitProperties;
+
+/**
+ * Клиентский лимит запросов к OpenLibrary — token bucket в форме GCRA: всё состояние корзины — одно
+ * "теоретическое время прибытия" следующего запроса в {@link AtomicLong}, которое двигается CAS'ом
+ * без блокировок.
+ *
+ * <p>Интерактивный запрос, которому токена не хватило, резервирует будущий слот и спит до него —
+ * это и есть очередь; её глубина и время ожидания ограничены. Фоновые запросы видят корзину меньше
+ * на {@code interactiveReserve} токенов и будущих слотов не резервируют: они спят, пока токен в их
+ * части корзины не освободится, и пробуют снова. Поэтому фоновая очередь любой длины не сдвигает
+ * время прибытия дальше своей части корзины, и у интерактивных запросов всегда остаётся резерв.
+ */
+@Component
+public class OpenLibraryRateLimiter {
+
+  public enum Priority {
+    INTERACTIVE,
+    BACKGROUND
+  }
+
+  private final OpenLibraryRateLimitProperties properties;
+  private final long intervalNanos;
+  private final AtomicLong theoreticalArrival = new AtomicLong(System.nanoTime());
+  private final AtomicInteger queueDepth = new AtomicInteger();
+  private final Map<Priority, Timer> waitTimers = new EnumMap<>(Priority.class);
+  private final Map<Priority, Counter> rejections = new EnumMap<>(Priority.class);
+
+  public OpenLibraryRateLimiter(
+      OpenLibraryRateLimitProperties properties, MeterRegistry meterRegistry) {
+    this.properties = properties;
+    this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / properties.getRequestsPerSecond());
+
+    Gauge.builder("openlibrary_rate_limiter_queue_depth", queueDepth, AtomicInteger::get)
+        .description("Requests waiting for an OpenLibrary rate limiter token")
+        .register(meterRegistry);
+    for (Priority priority : Priority.values()) {
+      String tag = priority.name().toLowerCase();
+      waitTimers.put(
+          priority,
+          Timer.builder("openlibrary_rate_limiter_wait")
+              .description("Time spent waiting for an OpenLibrary rate limiter token")
+              .tag("priority", tag)
+              .register(meterRegistry));
+      rejections.put(
+          priority,
+          Counter.builder("openlibrary_rate_limiter_rejected_total")
+              .description("Requests rejected by the OpenLibrary rate limiter")
+              .tag("priority", tag)
+              .register(meterRegistry));
+    }
+  }
+
+  /**
+   * Ждёт токен для одного запроса.
+   *
+   * @throws OpenLibraryUnavailableException если ждать пришлось бы дольше допустимого или очередь
+   *     заполнена
+   */
+  public void acquire(Priority priority) {
+    if (!properties.isEnabled()) {
+      return;
+    }
+    long tolerance = tolerance(priority);
+    long maxWait =
+        (priority == Priority.INTERACTIVE
+                ? properties.getInteractiveMaxWait()
+                : properties.getBackgroundMaxWait())
+            .toNanos();
+
+    long start = System.nanoTime();
+    long deadline = start + maxWait;
+    while (true) {
+      long now = System.nanoTime();
+      long arrival = theoreticalArrival.get();
+      long next = Math.max(arrival, now) + intervalNanos;
+      long wait = next - now - tolerance;
+      if (wait > 0 && (now + wait - deadline > 0 || queueDepth.get() >= properties.getMaxQueue())) {
+        rejections.get(priority).increment();
+        throw new OpenLibraryUnavailableException("OpenLibrary rate limit exceeded", null);
+      }
+      if (wait > 0 && priority == Priority.BACKGROUND) {
+        // Без резервирования: освободившийся токен может забрать интерактивный запрос
+        sleep(wait);
+        continue;
+      }
+      if (theoreticalArrival.compareAndSet(arrival, next)) {
+        if (wait > 0) {
+          sleep(wait);
+        }
+        waitTimers.get(priority).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return;
+      }
+    }
+  }
+
+  /**
+   * Берёт токен, только если он свободен прямо сейчас: без ожидания и без резервирования будущих
+   * слотов.
+   *
+   * @return {@code false}, если токена нет
+   */
+  public boolean tryAcquire(Priority priority) {
+    if (!properties.isEnabled()) {
+      return true;
+    }
+    long tolerance = tolerance(priority);
+    while (true) {
+      long now = System.nanoTime();
+      long arrival = theoreticalArrival.get();
+      long next = Math.max(arrival, now) + intervalNanos;
+      if (next - now - tolerance > 0) {
+        return false;
+      }
+      if (theoreticalArrival.compareAndSet(arrival, next)) {
+        return true;
+      }
+    }
+  }
+
+  private long tolerance(Priority priority) {
+    int tokens =
+        priority == Priority.INTERACTIVE
+            ? properties.getBurst()
+            : properties.getBurst() - properties.getInteractiveReserve();
+    return tokens * intervalNanos;
+  }
+
+  private void sleep(long nanos) {
+    queueDepth.incrementAndGet();
+    try {
+      Thread.sleep(Duration.ofNanos(nanos));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new OpenLibraryUnavailableException("Interrupted while waiting for rate limiter", e);
+    } finally {
+      queueDepth.decrementAndGet();
+    }
+  }
+}
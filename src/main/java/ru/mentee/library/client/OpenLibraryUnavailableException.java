@@ -0,0 +1,9 @@
+package ru.mentee.library.client;
+
+/** OpenLibrary не ответил за отведённое время или вызовы к нему временно отключены. */
+public class OpenLibraryUnavailableException extends RuntimeException {
+
+  public OpenLibraryUnavailableException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
@@ -0,0 +1,26 @@
+package ru.mentee.library.client;
+
+import feign.RequestInterceptor;
+import feign.RequestTemplate;
+import org.springframework.stereotype.Component;
+import ru.mentee.library.monitoring.TraceContext;
+
+/**
+ * Передаёт в исходящие вызовы OpenLibrary {@code traceparent} (та же трасса, новый span-id) и
+ * {@code X-Request-Id} текущего запроса. Spring Cloud OpenFeign подключает бин к {@link
+ * OpenLibraryClient} сам, асинхронному клиенту он задаётся явно. Вызовы вне запроса (фоновое
+ * обновление, импорт) уходят без заголовков.
+ */
+@Component
+public class TracePropagationInterceptor implements RequestInterceptor {
+
+  @Override
+  public void apply(RequestTemplate template) {
+    TraceContext context = TraceContext.current();
+    if (context == null) {
+      return;
+    }
+    template.header(TraceContext.TRACEPARENT, context.outgoingTraceparent());
+    template.header(TraceContext.REQUEST_ID_HEADER, context.requestId());
+  }
+}
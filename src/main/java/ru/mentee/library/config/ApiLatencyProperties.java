@@ -0,0 +1,35 @@
+package ru.mentee.library.config;
+
+import java.time.Duration;
+import java.util.List;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "library.monitoring.api-latency")
+public class ApiLatencyProperties {
+
+  /**
+   * Границы бакетов гистограммы времени ответа. Они одинаковы на всех репликах, поэтому бакеты
+   * складываются в Prometheus и {@code histogram_quantile} считается по всему кластеру.
+   */
+  private List<Duration> slo =
+      List.of(
+          Duration.ofMillis(25),
+          Duration.ofMillis(50),
+          Duration.ofMillis(100),
+          Duration.ofMillis(250),
+          Duration.ofMillis(500),
+          Duration.ofSeconds(1),
+          Duration.ofMillis(2500),
+          Duration.ofSeconds(5),
+          Duration.ofSeconds(10));
+
+  /** Добавить к SLO-бакетам стандартную гистограмму Micrometer (~70 бакетов на каждую серию). */
+  private boolean percentileHistogram = false;
+
+  /**
+   * Сколько шаблонов маршрутов учитывается раздельно; остальные попадают в {@code route="OTHER"}.
+   */
+  private int maxRoutes = 100;
+}
@@ -0,0 +1,15 @@
+package ru.mentee.library.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "library.books.batch")
+public class BookBatchProperties {
+
+  /** Максимум операций в одном запросе. */
+  private int maxOperations = 10_000;
+
+  /** Сколько операций выполняется в одной транзакции. */
+  private int chunkSize = 1_000;
+}
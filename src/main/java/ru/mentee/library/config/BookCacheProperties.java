@@ -0,0 +1,14 @@
+package ru.mentee.library.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "library.books.cache")
+public class BookCacheProperties {
+
+  private long maximumSize = 10_000;
+
+  private Duration ttl = Duration.ofMinutes(10);
+}
@@ -0,0 +1,38 @@
+package ru.mentee.library.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+@Data
+@ConfigurationProperties(prefix = "library.books.covers")
+public class BookCoverProperties {
+
+  /**
+   * Каталог дискового кэша обложек, только для него. Относительный путь считается от рабочего
+   * каталога приложения; во временный каталог не кладём — его чистит ОС.
+   */
+  private String directory = "data/covers";
+
+  /** Предельный суммарный размер файлов; сверх него удаляются давно не запрошенные обложки. */
+  private DataSize maxSize = DataSize.ofMegabytes(512);
+
+  /**
+   * Сколько вытесненный файл ещё лежит на диске: его путь мог быть уже выдан на отдачу. 0 — удалять
+   * сразу.
+   */
+  private Duration deleteDelay = Duration.ofMinutes(1);
+
+  /** Адрес сервиса обложек OpenLibrary. */
+  private String url = "https://covers.openlibrary.org";
+
+  /** Таймаут загрузки одной обложки. */
+  private Duration timeout = Duration.ofSeconds(5);
+
+  /** Сколько помнить, что у ISBN нет обложки. */
+  private Duration negativeTtl = Duration.ofHours(1);
+
+  /** {@code Cache-Control: max-age} для клиентов: обложка издания не меняется. */
+  private Duration maxAge = Duration.ofDays(365);
+}
@@ -0,0 +1,30 @@
+package ru.mentee.library.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "library.books.enrichment-refresh")
+public class BookEnrichmentRefreshProperties {
+
+  private boolean enabled = false;
+
+  /** Пауза между запусками. */
+  private Duration interval = Duration.ofMinutes(5);
+
+  /** Обогащение старше этого срока обновляется. */
+  private Duration ttl = Duration.ofDays(30);
+
+  /** Сколько книг обновляется за один запуск (самые старые первыми). */
+  private int maxBooksPerRun = 1_000;
+
+  /** Сколько ISBN уходит в OpenLibrary одним запросом. */
+  private int batchSize = 50;
+
+  /** Потолок исходящих запросов в секунду, чтобы не отнимать квоту у пользовательского трафика. */
+  private double maxRequestsPerSecond = 1.0;
+
+  /** Сколько обновлённых строк пишется в одной транзакции. */
+  private int chunkSize = 200;
+}
@@ -0,0 +1,16 @@
+package ru.mentee.library.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "library.books.export")
+public class BookExportProperties {
+
+  /**
+   * Сколько может идти выгрузка каталога. Задаётся только экспорту: общий {@code
+   * spring.mvc.async.request-timeout} действует на все асинхронные ответы API.
+   */
+  private Duration timeout = Duration.ofMinutes(30);
+}
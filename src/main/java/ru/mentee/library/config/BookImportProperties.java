@@ -0,0 +1,25 @@
+package ru.mentee.library.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "library.books.import")
+public class BookImportProperties {
+
+  /** Максимум ISBN в одном задании импорта. */
+  private int maxIsbns = 100_000;
+
+  /** Сколько ISBN обогащается и записывается за раз (одна транзакция, обычно один запрос). */
+  private int chunkSize = 50;
+
+  /**
+   * Сколько чанков одного задания обрабатывается одновременно. При включённом ограничителе скорости
+   * OpenLibrary урезается до числа фоновых запросов, которые он пропускает за секунду.
+   */
+  private int parallelism = 4;
+
+  /** Сколько хранится статус завершённого задания. */
+  private Duration retention = Duration.ofHours(1);
+}
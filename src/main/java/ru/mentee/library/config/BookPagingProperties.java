@@ -0,0 +1,13 @@
+package ru.mentee.library.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "library.books.paging")
+public class BookPagingProperties {
+
+  private int defaultSize = 50;
+
+  private int maxSize = 500;
+}
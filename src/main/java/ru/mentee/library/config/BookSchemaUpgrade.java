@@ -0,0 +1,116 @@
+package ru.mentee.library.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import java.sql.DatabaseMetaData;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+import ru.mentee.library.service.Isbn;
+
+/**
+ * Приводит существующую таблицу {@code books} в соответствие с текущей схемой, до первой вставки.
+ *
+ * <p>{@code ddl-auto=update} создаёт {@code books_seq} с единицы и на базе, где книги уже есть:
+ * тогда новые id совпали бы с существующими ключами. Последовательность подтягивается к {@code
+ * max(id)}, только если отстаёт, поэтому повторный запуск и запуск нескольких узлов ничего не
+ * меняют.
+ *
+ * <p>Книги пишутся по каноническому ISBN-13, а строки, созданные раньше, могут хранить ISBN как его
+ * ввели ({@code 0-14-032872-6}): поиск по ISBN и {@code ON CONFLICT (isbn)} их не видят, и книга
+ * задвоилась бы. Такие строки переписываются в канонический вид; если книга с этим ISBN уже есть,
+ * строка остаётся как была и попадает в лог. Некорректные ISBN не трогаются. Выполняется при
+ * создании бинов — после обновления схемы Hibernate (зависимость от {@link EntityManagerFactory}) и
+ * до старта веб-сервера.
+ */
+@Component
+@Slf4j
+public class BookSchemaUpgrade {
+
+  // Пул Hibernate выдаёт id до значения последовательности включительно: после setval(max)
+  // следующий блок начинается с max + 1
+  private static final String POSTGRES_ALIGN_SEQUENCE =
+      """
+      SELECT setval('books_seq', b.max_id)
+      FROM (SELECT max(id) AS max_id FROM books) b
+      WHERE b.max_id > (SELECT last_value FROM books_seq)""";
+
+  // Канонический ISBN-13 — ровно 13 цифр; всё остальное кандидат на нормализацию
+  private static final String SELECT_RAW_ISBNS =
+      """
+      SELECT id, isbn FROM books
+      WHERE isbn IS NOT NULL
+        AND (LENGTH(isbn) <> 13 OR isbn LIKE '%-%' OR isbn LIKE '% %' OR UPPER(isbn) LIKE '%X%')""";
+  private static final String NORMALIZE_ISBN =
+      """
+      UPDATE books SET isbn = ?
+      WHERE id = ? AND NOT EXISTS (SELECT 1 FROM books other WHERE other.isbn = ?)""";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final boolean postgres;
+
+  public BookSchemaUpgrade(DataSource dataSource, EntityManagerFactory entityManagerFactory) {
+    this.jdbcTemplate = new JdbcTemplate(dataSource);
+    this.postgres = isPostgres(dataSource);
+  }
+
+  @PostConstruct
+  public void upgrade() {
+    alignSequence();
+    normalizeIsbns();
+  }
+
+  void alignSequence() {
+    // H2 здесь только in-memory: таблица создаётся вместе с последовательностью
+    if (!postgres) {
+      return;
+    }
+    List<Long> aligned = jdbcTemplate.queryForList(POSTGRES_ALIGN_SEQUENCE, Long.class);
+    if (!aligned.isEmpty()) {
+      log.warn("books_seq was behind existing ids, moved to {}", aligned.get(0));
+    }
+  }
+
+  void normalizeIsbns() {
+    int normalized = 0;
+    for (Map<String, Object> row : jdbcTemplate.queryForList(SELECT_RAW_ISBNS)) {
+      Object id = row.get("id");
+      String raw = (String) row.get("isbn");
+      if (Isbn.parse(raw) < 0) {
+        continue;
+      }
+      String canonical = Isbn.canonical(raw);
+      int updated;
+      try {
+        updated = jdbcTemplate.update(NORMALIZE_ISBN, canonical, id, canonical);
+      } catch (DuplicateKeyException e) {
+        // Тот же ISBN только что записал другой узел
+        updated = 0;
+      }
+      if (updated > 0) {
+        normalized++;
+      } else {
+        log.warn("Book {} keeps ISBN '{}': ISBN {} belongs to another book", id, raw, canonical);
+      }
+    }
+    if (normalized > 0) {
+      log.info("Normalized ISBN of {} existing books", normalized);
+    }
+  }
+
+  private static boolean isPostgres(DataSource dataSource) {
+    try {
+      String product =
+          JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+      return "PostgreSQL".equals(product);
+    } catch (MetaDataAccessException e) {
+      throw new IllegalStateException("Cannot determine database product", e);
+    }
+  }
+}
@@ -0,0 +1,19 @@
+package ru.mentee.library.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "library.cache.invalidation")
+public class CacheInvalidationProperties {
+
+  /** Межузловая инвалидация через LISTEN/NOTIFY; работает только на PostgreSQL. */
+  private boolean enabled = false;
+
+  private String channel = "library_cache_invalidation";
+
+  private Duration pollTimeout = Duration.ofMillis(500);
+
+  private Duration reconnectDelay = Duration.ofSeconds(5);
+}
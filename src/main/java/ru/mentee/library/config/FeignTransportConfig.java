@@ -0,0 +1,30 @@
+package ru.mentee.library.config;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.io.HttpClientConnectionManager;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Метрики пула соединений Feign. Сам пул создаёт Spring Cloud OpenFeign по настройкам {@code
+ * spring.cloud.openfeign.httpclient.*}; здесь к нему подключаются gauges {@code
+ * httpcomponents_httpclient_pool_total_connections{state=leased|available}}, {@code
+ * ..._total_pending} и {@code ..._total_max}.
+ */
+@Configuration
+public class FeignTransportConfig {
+
+  @Bean
+  public MeterBinder feignConnectionPoolMetrics(
+      ObjectProvider<HttpClientConnectionManager> connectionManager) {
+    return registry -> {
+      // Пула нет, если включён HTTP/2-транспорт на JDK HttpClient
+      if (connectionManager.getIfAvailable() instanceof PoolingHttpClientConnectionManager pool) {
+        new PoolingHttpClientConnectionManagerMetricsBinder(pool, "feign").bindTo(registry);
+      }
+    };
+  }
+}
@@ -0,0 +1,15 @@
+package ru.mentee.library.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "library.books.isbn-filter")
+public class IsbnFilterProperties {
+
+  /** На сколько ISBN рассчитан фильтр; при превышении растёт доля ложных срабатываний. */
+  private long expectedInsertions = 1_000_000;
+
+  /** Допустимая доля ложных срабатываний — каждое стоит одного запроса по индексу. */
+  private double falsePositiveRate = 0.01;
+}
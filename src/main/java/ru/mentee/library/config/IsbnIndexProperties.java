@@ -0,0 +1,12 @@
+package ru.mentee.library.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "library.openlibrary.index")
+public class IsbnIndexProperties {
+
+  /** Файл, собранный {@code IsbnIndexBuilder}; пусто — индекс не используется. */
+  private String path;
+}
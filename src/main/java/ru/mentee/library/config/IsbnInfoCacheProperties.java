@@ -0,0 +1,19 @@
+package ru.mentee.library.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "library.openlibrary.cache")
+public class IsbnInfoCacheProperties {
+
+  /** Размер L1 (память узла). */
+  private long maximumSize = 50_000;
+
+  /** Сколько живёт найденная книга. */
+  private Duration ttl = Duration.ofDays(7);
+
+  /** Сколько живёт запись "не найдено" — меньше, книга может появиться в OpenLibrary. */
+  private Duration negativeTtl = Duration.ofHours(1);
+}
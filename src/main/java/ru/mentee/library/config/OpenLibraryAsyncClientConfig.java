@@ -0,0 +1,74 @@
+package ru.mentee.library.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import feign.AsyncFeign;
+import feign.Request;
+import feign.Retryer;
+import feign.http2client.Http2Client;
+import feign.slf4j.Slf4jLogger;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.mentee.library.client.CancellableHttpClient;
+import ru.mentee.library.client.OpenLibraryAsyncClient;
+import ru.mentee.library.client.OpenLibraryBooksDecoder;
+import ru.mentee.library.client.TracePropagationInterceptor;
+
+/**
+ * Асинхронный Feign-клиент OpenLibrary. {@code @FeignClient} не умеет возвращать {@code
+ * CompletableFuture}, поэтому клиент собирается вручную: AsyncFeign поверх JDK HttpClient (один пул
+ * соединений, HTTP/2 при поддержке сервером), те же аннотации Spring MVC, декодер, адрес и таймауты
+ * и заголовки трассировки, что у {@link ru.mentee.library.client.OpenLibraryClient}.
+ *
+ * <p>Пул hc5 и его метрики ({@code FeignTransportConfig}) к этому клиенту не относятся: у JDK
+ * HttpClient свои соединения. Поэтому по умолчанию {@code library.openlibrary.batch.async-client}
+ * выключен.
+ */
+@Configuration
+public class OpenLibraryAsyncClientConfig {
+
+  @Bean
+  public OpenLibraryAsyncClient openLibraryAsyncClient(
+      ObjectMapper objectMapper,
+      TracePropagationInterceptor tracePropagationInterceptor,
+      @Value("${openlibrary.api.url}") String url,
+      @Value("${spring.cloud.openfeign.client.config.open-library-client.connectTimeout:1000}")
+          long connectTimeoutMillis,
+      @Value("${spring.cloud.openfeign.client.config.open-library-client.readTimeout:2500}")
+          long readTimeoutMillis) {
+    CancellableHttpClient httpClient =
+        new CancellableHttpClient(
+            HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(connectTimeoutMillis))
+                // Должно совпадать с Request.Options ниже, иначе Http2Client создаст свой клиент
+                .followRedirects(HttpClient.Redirect.ALWAYS)
+                // Разбор ответов и колбэки — на виртуальных потоках, без отдельного пула
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build());
+    OpenLibraryAsyncClient client =
+        AsyncFeign.<Object>builder()
+            .client(new Http2Client(httpClient))
+            .contract(new SpringMvcContract())
+            .decoder(new OpenLibraryBooksDecoder(objectMapper))
+            .requestInterceptor(tracePropagationInterceptor)
+            // Как у синхронного клиента: повторы решают хеджер и circuit breaker
+            .retryer(Retryer.NEVER_RETRY)
+            .logger(new Slf4jLogger(OpenLibraryAsyncClient.class))
+            .options(
+                new Request.Options(
+                    connectTimeoutMillis,
+                    TimeUnit.MILLISECONDS,
+                    readTimeoutMillis,
+                    TimeUnit.MILLISECONDS,
+                    true))
+            .target(OpenLibraryAsyncClient.class, url);
+    // Отмена future (проигравший хедж, таймаут) прерывает HTTP-обмен, а не только ожидание
+    return (bibkeys, format, jscmd) ->
+        httpClient.cancellable(() -> client.getBookByIsbn(bibkeys, format, jscmd));
+  }
+}
@@ -0,0 +1,28 @@
+package ru.mentee.library.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "library.openlibrary.batch")
+public class OpenLibraryBatchProperties {
+
+  private boolean enabled = true;
+
+  /** Сколько ждать остальные ISBN после первого в пачке. */
+  private Duration window = Duration.ofMillis(5);
+
+  /** Пачка уходит сразу, как только набралось столько ключей. */
+  private int maxKeys = 50;
+
+  /**
+   * Отправлять пачки через {@code OpenLibraryAsyncClient}: поток не занимается на время ответа, но
+   * запросы идут мимо пула hc5 и его метрик. Иначе — через блокирующий {@code OpenLibraryClient} на
+   * виртуальном потоке.
+   */
+  private boolean asyncClient = false;
+
+  /** Максимум ISBN в одном запросе {@code POST /api/books/isbn/info}. */
+  private int maxLookupIsbns = 200;
+}
@@ -0,0 +1,24 @@
+package ru.mentee.library.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "library.openlibrary.hedging")
+public class OpenLibraryHedgingProperties {
+
+  private boolean enabled = false;
+
+  /** Перцентиль недавних задержек, после которого отправляется дублирующий запрос. */
+  private double percentile = 0.95;
+
+  /** Нижняя граница задержки хеджа — и значение, пока статистики ещё нет. */
+  private Duration minDelay = Duration.ofMillis(50);
+
+  /** Доля дополнительных запросов, которую разрешено потратить на хеджи. */
+  private double budgetRatio = 0.05;
+
+  /** Сколько хеджей может накопиться в бюджете за время затишья. */
+  private int maxBurst = 10;
+}
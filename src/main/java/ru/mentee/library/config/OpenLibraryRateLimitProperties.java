@@ -0,0 +1,30 @@
+package ru.mentee.library.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "library.openlibrary.rate-limit")
+public class OpenLibraryRateLimitProperties {
+
+  private boolean enabled = true;
+
+  /** Средняя скорость исходящих запросов. */
+  private double requestsPerSecond = 5;
+
+  /** Ёмкость корзины: сколько запросов можно отправить подряд после простоя. */
+  private int burst = 10;
+
+  /** Сколько токенов корзины недоступно фоновым запросам — они остаются интерактивным. */
+  private int interactiveReserve = 3;
+
+  /** Максимум потоков, ожидающих своей очереди. */
+  private int maxQueue = 100;
+
+  /** Сколько интерактивный запрос готов ждать токен. */
+  private Duration interactiveMaxWait = Duration.ofSeconds(1);
+
+  /** Сколько фоновый запрос готов ждать токен. */
+  private Duration backgroundMaxWait = Duration.ofSeconds(30);
+}
@@ -0,0 +1,74 @@
+package ru.mentee.library.config;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Circuit breaker и bulkhead для исходящих вызовов OpenLibrary. Состояние и счётчики публикуются
+ * стандартными метриками resilience4j ({@code resilience4j_circuitbreaker_state}, {@code
+ * resilience4j_bulkhead_available_concurrent_calls} и др.), отказы — в {@code
+ * openlibrary_calls_rejected_total{reason}}.
+ */
+@Configuration
+public class OpenLibraryResilienceConfig {
+
+  private static final String NAME = "openlibrary";
+
+  @Bean
+  public CircuitBreaker openLibraryCircuitBreaker(
+      OpenLibraryResilienceProperties properties, MeterRegistry meterRegistry) {
+    OpenLibraryResilienceProperties.CircuitBreaker settings = properties.getCircuitBreaker();
+    CircuitBreakerConfig config =
+        CircuitBreakerConfig.custom()
+            .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+            .slidingWindowSize(settings.getSlidingWindowSize())
+            .minimumNumberOfCalls(settings.getMinimumNumberOfCalls())
+            .failureRateThreshold(settings.getFailureRateThreshold())
+            .slowCallDurationThreshold(settings.getSlowCallDurationThreshold())
+            .slowCallRateThreshold(settings.getSlowCallRateThreshold())
+            .waitDurationInOpenState(settings.getWaitDurationInOpenState())
+            .permittedNumberOfCallsInHalfOpenState(settings.getPermittedCallsInHalfOpenState())
+            .build();
+    CircuitBreakerRegistry registry = CircuitBreakerRegistry.of(config);
+    TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry).bindTo(meterRegistry);
+
+    CircuitBreaker circuitBreaker = registry.circuitBreaker(NAME);
+    Counter rejected = rejectedCounter(meterRegistry, "circuit_open");
+    circuitBreaker.getEventPublisher().onCallNotPermitted(event -> rejected.increment());
+    return circuitBreaker;
+  }
+
+  @Bean
+  public Bulkhead openLibraryBulkhead(
+      OpenLibraryResilienceProperties properties, MeterRegistry meterRegistry) {
+    BulkheadConfig config =
+        BulkheadConfig.custom()
+            .maxConcurrentCalls(properties.getBulkhead().getMaxConcurrentCalls())
+            .maxWaitDuration(properties.getBulkhead().getMaxWaitDuration())
+            .build();
+    BulkheadRegistry registry = BulkheadRegistry.of(config);
+    TaggedBulkheadMetrics.ofBulkheadRegistry(registry).bindTo(meterRegistry);
+
+    Bulkhead bulkhead = registry.bulkhead(NAME);
+    Counter rejected = rejectedCounter(meterRegistry, "bulkhead_full");
+    bulkhead.getEventPublisher().onCallRejected(event -> rejected.increment());
+    return bulkhead;
+  }
+
+  private static Counter rejectedCounter(MeterRegistry meterRegistry, String reason) {
+    return Counter.builder("openlibrary_calls_rejected_total")
+        .description("OpenLibrary calls rejected without reaching the network")
+        .tag("reason", reason)
+        .register(meterRegistry);
+  }
+}
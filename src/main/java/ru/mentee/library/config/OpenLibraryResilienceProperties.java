@@ -0,0 +1,54 @@
+package ru.mentee.library.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "library.openlibrary.resilience")
+public class OpenLibraryResilienceProperties {
+
+  /**
+   * Сколько вызывающий ждёт ответа OpenLibrary (включая окно батчинга), прежде чем сдаться. Фоновым
+   * вызовам к нему добавляется {@code library.openlibrary.rate-limit.background-max-wait}.
+   */
+  private Duration timeoutBudget = Duration.ofSeconds(3);
+
+  private CircuitBreaker circuitBreaker = new CircuitBreaker();
+  private Bulkhead bulkhead = new Bulkhead();
+
+  @Data
+  public static class CircuitBreaker {
+
+    /** Размер скользящего окна в вызовах. */
+    private int slidingWindowSize = 20;
+
+    /** Меньше вызовов в окне — доля ошибок ещё не считается. */
+    private int minimumNumberOfCalls = 10;
+
+    /** Доля ошибок (%), при которой цепь размыкается. */
+    private float failureRateThreshold = 50;
+
+    /** Вызов дольше этого считается медленным. */
+    private Duration slowCallDurationThreshold = Duration.ofSeconds(2);
+
+    /** Доля медленных вызовов (%), при которой цепь размыкается. */
+    private float slowCallRateThreshold = 50;
+
+    /** Сколько цепь остаётся разомкнутой до пробных вызовов. */
+    private Duration waitDurationInOpenState = Duration.ofSeconds(30);
+
+    /** Сколько пробных вызовов пропускается в полуоткрытом состоянии. */
+    private int permittedCallsInHalfOpenState = 3;
+  }
+
+  @Data
+  public static class Bulkhead {
+
+    /** Максимум одновременных исходящих запросов в OpenLibrary. */
+    private int maxConcurrentCalls = 16;
+
+    /** Сколько ждать свободного слота; 0 — отказывать сразу. */
+    private Duration maxWaitDuration = Duration.ZERO;
+  }
+}
@@ -146,7 +146,12 @@ public class SecurityConfig {
                     .permitAll()
                     .requestMatchers(HttpMethod.GET, "/api/books/isbn/**")
                     .permitAll()
-                    .requestMatchers(HttpMethod.POST, "/api/books")
+                    // Обложки грузятся тегом <img>, без токена
+                    .requestMatchers(HttpMethod.GET, "/api/books/*/cover")
+                    .permitAll()
+                    .requestMatchers(HttpMethod.POST, "/api/books/isbn/info")
+                    .permitAll()
+                    .requestMatchers(HttpMethod.POST, "/api/books", "/api/books/batch")
                     .hasAnyRole("LIBRARIAN", "ADMIN")
                     .requestMatchers(HttpMethod.PUT, "/api/books/**")
                     .hasAnyRole("LIBRARIAN", "ADMIN")
@@ -14,8 +14,10 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class Book {
 
+  // Пул из sequence вместо IDENTITY: Hibernate может батчить INSERT'ы
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "books_seq")
+  @SequenceGenerator(name = "books_seq", sequenceName = "books_seq", allocationSize = 100)
   private Long id;
 
   @Column(nullable = false)
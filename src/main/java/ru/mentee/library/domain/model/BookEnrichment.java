@@ -0,0 +1,30 @@
+package ru.mentee.library.domain.model;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import ru.mentee.library.api.dto.BookInfoResponse;
+
+// Отдельная таблица, чтобы строка books (кэш, страницы, экспорт) не тащила payload OpenLibrary
+@Entity
+@Table(name = "book_enrichments")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookEnrichment {
+
+  @Id private Long bookId;
+
+  @JdbcTypeCode(SqlTypes.JSON)
+  @Column(nullable = false)
+  private BookInfoResponse payload; // Полный ответ OpenLibrary: все авторы, издатели, ISBN-10/13
+
+  @Column(nullable = false)
+  private Instant enrichedAt;
+}
@@ -0,0 +1,31 @@
+package ru.mentee.library.domain.model;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import ru.mentee.library.api.dto.BookInfoResponse;
+
+@Entity
+@Table(name = "isbn_info_cache")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IsbnInfoCacheEntry {
+
+  @Id
+  @Column(length = 32)
+  private String isbn; // Нормализованный ISBN
+
+  @JdbcTypeCode(SqlTypes.JSON)
+  @Column(nullable = true)
+  private BookInfoResponse payload; // null — OpenLibrary ничего не нашёл (негативная запись)
+
+  @Column(nullable = false)
+  private Instant fetchedAt;
+}
@@ -0,0 +1,39 @@
+package ru.mentee.library.domain.repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.mentee.library.domain.model.BookEnrichment;
+
+public interface BookEnrichmentRepository extends JpaRepository<BookEnrichment, Long> {
+
+  /** Обогащения старше {@code threshold}, самые старые первыми. */
+  @Query(
+      """
+      select e.bookId as bookId, b.isbn as isbn from BookEnrichment e, Book b
+      where b.id = e.bookId and b.isbn is not null and e.enrichedAt < :threshold
+      order by e.enrichedAt
+      """)
+  List<StaleEnrichment> findStale(@Param("threshold") Instant threshold, Pageable pageable);
+
+  long countByEnrichedAtBefore(Instant threshold);
+
+  @Query("select min(e.enrichedAt) from BookEnrichment e")
+  Optional<Instant> findOldestEnrichedAt();
+
+  @Modifying
+  @Query("delete from BookEnrichment e where e.bookId in :bookIds")
+  int deleteByBookIds(@Param("bookIds") Collection<Long> bookIds);
+
+  interface StaleEnrichment {
+    Long getBookId();
+
+    String getIsbn();
+  }
+}
@@ -1,6 +1,48 @@
 package ru.mentee.library.domain.repository;
 
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import ru.mentee.library.domain.model.Book;
 
-public interface BookRepository extends JpaRepository<Book, Long> {}
+public interface BookRepository extends JpaRepository<Book, Long>, BookUpsertRepository {
+
+  // Keyset-пагинация: Slice не делает COUNT(*), а запрашивает на одну строку больше
+  Slice<Book> findByIdGreaterThan(Long id, Pageable pageable);
+
+  // Курсор по всей таблице для экспорта; вызывать только внутри транзакции и закрывать Stream
+  @QueryHints({
+    @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+    @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+  })
+  @Query("select b from Book b order by b.id")
+  Stream<Book> streamAll();
+
+  Optional<Book> findByIsbn(String isbn);
+
+  // Все ISBN каталога для фильтра Блума; вызывать только внутри транзакции и закрывать Stream
+  @QueryHints({
+    @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+    @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+  })
+  @Query("select b.isbn from Book b where b.isbn is not null")
+  Stream<String> streamIsbns();
+
+  // Upsert по ISBN при импорте: существующие книги чанка одним запросом
+  List<Book> findByIsbnIn(Collection<String> isbns);
+
+  // Удаление одним запросом: возвращает число удалённых строк, без предварительного SELECT
+  @Modifying
+  @Query("delete from Book b where b.id = :id")
+  int deleteBookById(@Param("id") Long id);
+}
@@ -0,0 +1,23 @@
+package ru.mentee.library.domain.repository;
+
+import java.util.List;
+import ru.mentee.library.domain.model.Book;
+
+public interface BookUpsertRepository {
+
+  /**
+   * Вставляет книгу, если книги с таким ISBN ещё нет, одним запросом без гонки между параллельными
+   * вставками. Сущность не становится управляемой.
+   *
+   * @return id новой строки или {@code null}, если ISBN уже занят
+   */
+  Long insertIfAbsent(Book book);
+
+  /**
+   * Пакетный вариант {@link #insertIfAbsent}: id всех книг берутся одним запросом к
+   * последовательности, вставки уходят одним JDBC-батчем.
+   *
+   * @return id новых строк в порядке {@code books}; {@code null} на месте книг, чей ISBN уже занят
+   */
+  List<Long> insertAllIfAbsent(List<Book> books);
+}
@@ -0,0 +1,119 @@
+package ru.mentee.library.domain.repository;
+
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import ru.mentee.library.domain.model.Book;
+
+/**
+ * PostgreSQL: {@code INSERT ... ON CONFLICT (isbn) DO NOTHING}. H2 (локальный запуск и тесты) не
+ * знает ON CONFLICT вне режима совместимости, там тот же эффект даёт {@code MERGE ... WHEN NOT
+ * MATCHED}. Id берётся из {@code books_seq}: каждое nextval занимает свой блок пула Hibernate,
+ * поэтому с id, выданными Hibernate, не пересекается.
+ *
+ * <p>Пакетная вставка считает вставленными строки с ненулевым счётчиком обновлений. Драйвер,
+ * который счётчиков батча не сообщает ({@code reWriteBatchedInserts} у PgJDBC), сделает все строки
+ * "занятыми": вызывающий перечитает их по ISBN и увидит уже вставленные.
+ */
+public class BookUpsertRepositoryImpl implements BookUpsertRepository {
+
+  private static final String POSTGRES_NEXT_ID = "SELECT nextval('books_seq')";
+  private static final String POSTGRES_NEXT_IDS =
+      "SELECT nextval('books_seq') FROM generate_series(1, ?)";
+  private static final String POSTGRES_INSERT =
+      """
+      INSERT INTO books (id, title, author, publication_year, isbn, available)
+      VALUES (?, ?, ?, ?, ?, ?)
+      ON CONFLICT (isbn) DO NOTHING""";
+
+  private static final String STANDARD_NEXT_ID = "SELECT NEXT VALUE FOR books_seq";
+  private static final String STANDARD_NEXT_IDS =
+      "SELECT NEXT VALUE FOR books_seq FROM SYSTEM_RANGE(1, ?)";
+  private static final String STANDARD_INSERT =
+      """
+      MERGE INTO books b
+      USING (VALUES (CAST(? AS BIGINT), CAST(? AS VARCHAR), CAST(? AS VARCHAR), CAST(? AS INTEGER),
+                     CAST(? AS VARCHAR), CAST(? AS BOOLEAN)))
+            AS v (id, title, author, publication_year, isbn, available)
+      ON b.isbn = v.isbn
+      WHEN NOT MATCHED THEN
+        INSERT (id, title, author, publication_year, isbn, available)
+        VALUES (v.id, v.title, v.author, v.publication_year, v.isbn, v.available)""";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final boolean postgres;
+
+  public BookUpsertRepositoryImpl(DataSource dataSource) {
+    this.jdbcTemplate = new JdbcTemplate(dataSource);
+    this.postgres = isPostgres(dataSource);
+  }
+
+  @Override
+  public Long insertIfAbsent(Book book) {
+    Long id =
+        jdbcTemplate.queryForObject(postgres ? POSTGRES_NEXT_ID : STANDARD_NEXT_ID, Long.class);
+    int inserted =
+        jdbcTemplate.update(
+            postgres ? POSTGRES_INSERT : STANDARD_INSERT,
+            id,
+            book.getTitle(),
+            book.getAuthor(),
+            book.getPublicationYear(),
+            book.getIsbn(),
+            book.getAvailable());
+    return inserted > 0 ? id : null;
+  }
+
+  @Override
+  public List<Long> insertAllIfAbsent(List<Book> books) {
+    if (books.isEmpty()) {
+      return List.of();
+    }
+    List<Long> ids =
+        jdbcTemplate.queryForList(
+            postgres ? POSTGRES_NEXT_IDS : STANDARD_NEXT_IDS, Long.class, books.size());
+    int[] inserted =
+        jdbcTemplate.batchUpdate(
+            postgres ? POSTGRES_INSERT : STANDARD_INSERT,
+            new BatchPreparedStatementSetter() {
+              @Override
+              public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Book book = books.get(i);
+                ps.setLong(1, ids.get(i));
+                ps.setString(2, book.getTitle());
+                ps.setString(3, book.getAuthor());
+                ps.setObject(4, book.getPublicationYear(), Types.INTEGER);
+                ps.setString(5, book.getIsbn());
+                ps.setObject(6, book.getAvailable(), Types.BOOLEAN);
+              }
+
+              @Override
+              public int getBatchSize() {
+                return books.size();
+              }
+            });
+    List<Long> result = new ArrayList<>(books.size());
+    for (int i = 0; i < books.size(); i++) {
+      result.add(inserted[i] > 0 ? ids.get(i) : null);
+    }
+    return result;
+  }
+
+  private static boolean isPostgres(DataSource dataSource) {
+    try {
+      String product =
+          JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+      return "PostgreSQL".equals(product);
+    } catch (MetaDataAccessException e) {
+      throw new IllegalStateException("Cannot determine database product", e);
+    }
+  }
+}
@@ -0,0 +1,6 @@
+package ru.mentee.library.domain.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import ru.mentee.library.domain.model.IsbnInfoCacheEntry;
+
+public interface IsbnInfoCacheRepository extends JpaRepository<IsbnInfoCacheEntry, String> {}
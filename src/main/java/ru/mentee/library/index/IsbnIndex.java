@@ -0,0 +1,122 @@
+package ru.mentee.library.index;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.mentee.library.api.dto.BookInfoResponse;
+import ru.mentee.library.config.IsbnIndexProperties;
+import ru.mentee.library.service.Isbn;
+
+/**
+ * Поиск по офлайн-индексу ISBN (см. {@link IsbnIndexBuilder}). Файл отображается в память
+ * сегментами {@link MappedByteBuffer}, поиск — бинарный по отсортированной таблице ISBN, без
+ * копирования данных в кучу; страницы файла кэширует ОС.
+ */
+@Component
+@Slf4j
+public class IsbnIndex {
+
+  private final MappedByteBuffer[] segments;
+  private final int segmentShift;
+  private final long segmentMask;
+  private final long count;
+  private final long entriesOffset;
+  private final Counter hits;
+  private final Counter misses;
+
+  public IsbnIndex(IsbnIndexProperties properties, MeterRegistry meterRegistry) {
+    this.hits = lookupCounter(meterRegistry, "hit");
+    this.misses = lookupCounter(meterRegistry, "miss");
+    if (properties.getPath() == null || properties.getPath().isBlank()) {
+      this.segments = new MappedByteBuffer[0];
+      this.segmentShift = IsbnIndexFormat.DEFAULT_SEGMENT_SHIFT;
+      this.segmentMask = 0;
+      this.count = 0;
+      this.entriesOffset = 0;
+      return;
+    }
+
+    Path path = Path.of(properties.getPath());
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      ByteBuffer header = ByteBuffer.allocate(IsbnIndexFormat.HEADER_SIZE);
+      channel.read(header, 0);
+      header.flip();
+      if (header.getInt() != IsbnIndexFormat.MAGIC || header.getInt() != IsbnIndexFormat.VERSION) {
+        throw new IllegalStateException("Not an ISBN index file: " + path);
+      }
+      this.segmentShift = header.getInt();
+      header.getInt();
+      this.count = header.getLong();
+      this.entriesOffset = header.getLong();
+      this.segmentMask = (1L << segmentShift) - 1;
+
+      // Отображение остаётся действительным и после закрытия канала
+      long size = channel.size();
+      int segmentCount = (int) ((size + segmentMask) >>> segmentShift);
+      this.segments = new MappedByteBuffer[segmentCount];
+      for (int i = 0; i < segmentCount; i++) {
+        long start = (long) i << segmentShift;
+        segments[i] =
+            channel.map(
+                FileChannel.MapMode.READ_ONLY, start, Math.min(segmentMask + 1, size - start));
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to open ISBN index " + path, e);
+    }
+    log.info("ISBN index {} mapped with {} entries", path, count);
+  }
+
+  public boolean isEnabled() {
+    return count > 0;
+  }
+
+  /**
+   * @return информация о книге или {@code null}, если ISBN в индексе нет
+   */
+  public BookInfoResponse find(String isbn) {
+    if (!isEnabled()) {
+      return null;
+    }
+    long key = Isbn.parse(isbn);
+    if (key > 0) {
+      long low = 0;
+      long high = count - 1;
+      while (low <= high) {
+        long mid = (low + high) >>> 1;
+        long entry = entriesOffset + mid * IsbnIndexFormat.ENTRY_SIZE;
+        long midKey = getLong(entry);
+        if (midKey < key) {
+          low = mid + 1;
+        } else if (midKey > key) {
+          high = mid - 1;
+        } else {
+          hits.increment();
+          long record = getLong(entry + Long.BYTES);
+          return IsbnIndexFormat.decode(
+              segments[(int) (record >>> segmentShift)], (int) (record & segmentMask));
+        }
+      }
+    }
+    misses.increment();
+    return null;
+  }
+
+  private long getLong(long position) {
+    return segments[(int) (position >>> segmentShift)].getLong((int) (position & segmentMask));
+  }
+
+  private static Counter lookupCounter(MeterRegistry meterRegistry, String result) {
+    return Counter.builder("isbn_index_lookups_total")
+        .description("Lookups in the offline ISBN index")
+        .tag("result", result)
+        .register(meterRegistry);
+  }
+}
@@ -0,0 +1,266 @@
+package ru.mentee.library.index;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import lombok.extern.slf4j.Slf4j;
+import ru.mentee.library.api.dto.BookInfoResponse;
+import ru.mentee.library.service.Isbn;
+
+/**
+ * Офлайн-сборка индекса ISBN из дампа изданий OpenLibrary ({@code ol_dump_editions_*.txt.gz}).
+ *
+ * <p>Дамп читается потоково: строки TSV (JSON в последней колонке) или JSON Lines, сжатые gzip или
+ * нет. Записи сразу пишутся в файл, в памяти остаются только пары (ISBN, номер записи) для
+ * сортировки. Имена авторов в дампе изданий — это ссылки {@code /authors/OL...A}; чтобы получить
+ * имена, можно передать дамп авторов, иначе берётся {@code by_statement}.
+ *
+ * <pre>
+ * gradle buildIsbnIndex -Pargs="editions.txt.gz isbn-index.bin [authors.txt.gz]"
+ * </pre>
+ */
+@Slf4j
+public class IsbnIndexBuilder {
+
+  // ISBN-13 начинается с 978/979 — остаток влезает в 35 бит, номер записи — в младшие 28
+  private static final long ISBN_BASE = 978_000_000_000_0L;
+  private static final int ORDINAL_BITS = 28;
+  private static final long ORDINAL_MASK = (1L << ORDINAL_BITS) - 1;
+  private static final int WRITE_BUFFER_SIZE = 1 << 20;
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final int segmentShift;
+  private final Map<String, String> authorNames = new HashMap<>();
+
+  public IsbnIndexBuilder() {
+    this(IsbnIndexFormat.DEFAULT_SEGMENT_SHIFT);
+  }
+
+  IsbnIndexBuilder(int segmentShift) {
+    this.segmentShift = segmentShift;
+  }
+
+  public static void main(String[] args) throws IOException {
+    if (args.length < 2) {
+      System.err.println("Usage: IsbnIndexBuilder <editions dump> <index file> [authors dump]");
+      System.exit(2);
+    }
+    IsbnIndexBuilder builder = new IsbnIndexBuilder();
+    if (args.length > 2) {
+      builder.loadAuthors(Path.of(args[2]));
+    }
+    long count = builder.build(Path.of(args[0]), Path.of(args[1]));
+    log.info("ISBN index {} written with {} entries", args[1], count);
+  }
+
+  /** Загружает имена авторов (key → name) из дампа авторов. */
+  public void loadAuthors(Path authorsDump) throws IOException {
+    try (BufferedReader reader = open(authorsDump)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        JsonNode json = parseLine(line);
+        if (json != null && json.hasNonNull("key") && json.hasNonNull("name")) {
+          authorNames.put(json.get("key").asText(), json.get("name").asText());
+        }
+      }
+    }
+    log.info("Loaded {} author names", authorNames.size());
+  }
+
+  /**
+   * @return число ISBN в индексе
+   */
+  public long build(Path editionsDump, Path indexFile) throws IOException {
+    long segmentSize = 1L << segmentShift;
+    long[] recordOffsets = new long[1 << 16];
+    long[] keys = new long[1 << 16];
+    int records = 0;
+    int keyCount = 0;
+
+    try (BufferedReader reader = open(editionsDump);
+        FileChannel channel =
+            FileChannel.open(
+                indexFile,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE)) {
+      ByteBuffer out = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+      long position = IsbnIndexFormat.HEADER_SIZE;
+      channel.position(position);
+
+      String line;
+      while ((line = reader.readLine()) != null) {
+        JsonNode edition = parseLine(line);
+        long[] isbns = edition != null ? isbnKeys(edition) : new long[0];
+        if (isbns.length == 0) {
+          continue;
+        }
+        byte[] record = IsbnIndexFormat.encode(toInfo(edition));
+        if (record.length > segmentSize || records > ORDINAL_MASK) {
+          log.warn("Skipping edition {}: record too large or index full", edition.path("key"));
+          continue;
+        }
+
+        // Запись не должна пересекать границу сегмента — иначе её не прочитать одним буфером
+        long inSegment = position & (segmentSize - 1);
+        if (inSegment + record.length > segmentSize) {
+          position = writePadding(channel, out, segmentSize - inSegment, position);
+        }
+
+        if (records == recordOffsets.length) {
+          recordOffsets = Arrays.copyOf(recordOffsets, records * 2);
+        }
+        recordOffsets[records] = position;
+        for (long isbn : isbns) {
+          if (keyCount == keys.length) {
+            keys = Arrays.copyOf(keys, keyCount * 2);
+          }
+          keys[keyCount++] = ((isbn - ISBN_BASE) << ORDINAL_BITS) | records;
+        }
+        records++;
+        position = write(channel, out, record, position);
+      }
+
+      Arrays.parallelSort(keys, 0, keyCount);
+
+      // Таблица выровнена по 16 байт, элементы не пересекают границы сегментов
+      long entriesOffset =
+          (position + IsbnIndexFormat.ENTRY_SIZE - 1) & -IsbnIndexFormat.ENTRY_SIZE;
+      position = writePadding(channel, out, entriesOffset - position, position);
+      long count = 0;
+      long previousIsbn = -1;
+      ByteBuffer entry = ByteBuffer.allocate(IsbnIndexFormat.ENTRY_SIZE);
+      for (int i = 0; i < keyCount; i++) {
+        long isbn = (keys[i] >>> ORDINAL_BITS) + ISBN_BASE;
+        if (isbn == previousIsbn) {
+          continue; // Один ISBN у нескольких изданий — оставляем первое
+        }
+        previousIsbn = isbn;
+        entry.clear();
+        entry.putLong(isbn).putLong(recordOffsets[(int) (keys[i] & ORDINAL_MASK)]);
+        position = write(channel, out, entry.array(), position);
+        count++;
+      }
+      flush(channel, out);
+
+      ByteBuffer header = ByteBuffer.allocate(IsbnIndexFormat.HEADER_SIZE);
+      header
+          .putInt(IsbnIndexFormat.MAGIC)
+          .putInt(IsbnIndexFormat.VERSION)
+          .putInt(segmentShift)
+          .putInt(0)
+          .putLong(count)
+          .putLong(entriesOffset)
+          .flip();
+      channel.write(header, 0);
+      return count;
+    }
+  }
+
+  private long[] isbnKeys(JsonNode edition) {
+    List<Long> keys = new ArrayList<>(2);
+    for (String field : List.of("isbn_13", "isbn_10")) {
+      for (JsonNode isbn : edition.path(field)) {
+        long key = Isbn.parse(isbn.asText());
+        if (key > 0 && !keys.contains(key)) {
+          keys.add(key);
+        }
+      }
+    }
+    return keys.stream().mapToLong(Long::longValue).toArray();
+  }
+
+  private BookInfoResponse toInfo(JsonNode edition) {
+    List<String> authors = new ArrayList<>();
+    for (JsonNode author : edition.path("authors")) {
+      String name = authorNames.get(author.path("key").asText());
+      if (name != null) {
+        authors.add(name);
+      }
+    }
+    if (authors.isEmpty() && edition.hasNonNull("by_statement")) {
+      authors.add(edition.get("by_statement").asText());
+    }
+    List<String> publishers = new ArrayList<>();
+    edition.path("publishers").forEach(p -> publishers.add(p.asText()));
+
+    return BookInfoResponse.builder()
+        .title(edition.path("title").asText(null))
+        .authors(authors)
+        .publishers(publishers)
+        .publishDate(edition.path("publish_date").asText(null))
+        .numberOfPages(
+            edition.hasNonNull("number_of_pages") ? edition.get("number_of_pages").asInt() : null)
+        .isbn10(edition.path("isbn_10").path(0).asText(null))
+        .isbn13(edition.path("isbn_13").path(0).asText(null))
+        .build();
+  }
+
+  private JsonNode parseLine(String line) {
+    // TSV дампа: type, key, revision, last_modified, JSON
+    int start = line.startsWith("{") ? 0 : line.lastIndexOf('\t') + 1;
+    try {
+      return objectMapper.readTree(line.substring(start));
+    } catch (IOException e) {
+      log.debug("Skipping malformed dump line", e);
+      return null;
+    }
+  }
+
+  private static BufferedReader open(Path path) throws IOException {
+    InputStream in = Files.newInputStream(path);
+    if (path.getFileName().toString().endsWith(".gz")) {
+      in = new GZIPInputStream(in, WRITE_BUFFER_SIZE);
+    }
+    return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+  }
+
+  private static long write(FileChannel channel, ByteBuffer out, byte[] bytes, long position)
+      throws IOException {
+    if (out.remaining() < bytes.length) {
+      flush(channel, out);
+    }
+    if (bytes.length > out.capacity()) {
+      ByteBuffer large = ByteBuffer.wrap(bytes);
+      while (large.hasRemaining()) {
+        channel.write(large);
+      }
+    } else {
+      out.put(bytes);
+    }
+    return position + bytes.length;
+  }
+
+  private static long writePadding(FileChannel channel, ByteBuffer out, long size, long position)
+      throws IOException {
+    for (long written = 0; written < size; ) {
+      int chunk = (int) Math.min(size - written, 4096);
+      position = write(channel, out, new byte[chunk], position);
+      written += chunk;
+    }
+    return position;
+  }
+
+  private static void flush(FileChannel channel, ByteBuffer out) throws IOException {
+    out.flip();
+    while (out.hasRemaining()) {
+      channel.write(out);
+    }
+    out.clear();
+  }
+}
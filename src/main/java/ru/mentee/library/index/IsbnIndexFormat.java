@@ -0,0 +1,116 @@
+package ru.mentee.library.index;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import ru.mentee.library.api.dto.BookInfoResponse;
+
+/**
+ * Формат файла офлайн-индекса ISBN.
+ *
+ * <pre>
+ * header  (32 байта): magic, version, segmentShift, 0, count (long), entriesOffset (long)
+ * records            : записи книг, ни одна не пересекает границу сегмента 2^segmentShift
+ * entries            : count пар (ISBN-13 как long, смещение записи), отсортированы по ISBN
+ * </pre>
+ *
+ * Файл читается через несколько {@code MappedByteBuffer} по {@code 2^segmentShift} байт (один буфер
+ * ограничен 2 ГБ). Записи выравниваются так, чтобы целиком лежать в одном сегменте, а элементы
+ * таблицы — по 16 байт, поэтому тоже никогда не разрезаются.
+ */
+final class IsbnIndexFormat {
+
+  static final int MAGIC = 0x4F4C4958; // "OLIX"
+  static final int VERSION = 1;
+  static final int HEADER_SIZE = 32;
+  static final int ENTRY_SIZE = 16;
+  static final int DEFAULT_SEGMENT_SHIFT = 30;
+
+  // Длина строки хранится в unsigned short; списки — не длиннее байта
+  private static final int MAX_STRING_BYTES = 0xFFFF;
+  private static final int MAX_LIST_SIZE = 0xFF;
+
+  private IsbnIndexFormat() {}
+
+  static byte[] encode(BookInfoResponse info) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      writeString(out, info.getTitle());
+      writeString(out, info.getPublishDate());
+      writeString(out, info.getIsbn10());
+      writeString(out, info.getIsbn13());
+      out.writeInt(info.getNumberOfPages() != null ? info.getNumberOfPages() : 0);
+      writeList(out, info.getAuthors());
+      writeList(out, info.getPublishers());
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return bytes.toByteArray();
+  }
+
+  /**
+   * Читает запись по абсолютным индексам — буфер не меняется и может читаться из многих потоков.
+   */
+  static BookInfoResponse decode(ByteBuffer buffer, int position) {
+    int[] cursor = {position};
+    String title = readString(buffer, cursor);
+    String publishDate = readString(buffer, cursor);
+    String isbn10 = readString(buffer, cursor);
+    String isbn13 = readString(buffer, cursor);
+    int pages = buffer.getInt(cursor[0]);
+    cursor[0] += Integer.BYTES;
+    List<String> authors = readList(buffer, cursor);
+    List<String> publishers = readList(buffer, cursor);
+    return BookInfoResponse.builder()
+        .title(title)
+        .publishDate(publishDate)
+        .isbn10(isbn10)
+        .isbn13(isbn13)
+        .numberOfPages(pages > 0 ? pages : null)
+        .authors(authors)
+        .publishers(publishers)
+        .build();
+  }
+
+  private static void writeString(DataOutputStream out, String value) throws IOException {
+    byte[] bytes = value != null ? value.getBytes(StandardCharsets.UTF_8) : new byte[0];
+    int length = Math.min(bytes.length, MAX_STRING_BYTES);
+    out.writeShort(length);
+    out.write(bytes, 0, length);
+  }
+
+  private static void writeList(DataOutputStream out, List<String> values) throws IOException {
+    int size = values != null ? Math.min(values.size(), MAX_LIST_SIZE) : 0;
+    out.writeByte(size);
+    for (int i = 0; i < size; i++) {
+      writeString(out, values.get(i));
+    }
+  }
+
+  private static String readString(ByteBuffer buffer, int[] cursor) {
+    int length = Short.toUnsignedInt(buffer.getShort(cursor[0]));
+    cursor[0] += Short.BYTES;
+    if (length == 0) {
+      return null;
+    }
+    byte[] bytes = new byte[length];
+    buffer.get(cursor[0], bytes);
+    cursor[0] += length;
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private static List<String> readList(ByteBuffer buffer, int[] cursor) {
+    int size = Byte.toUnsignedInt(buffer.get(cursor[0]));
+    cursor[0] += 1;
+    List<String> values = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      values.add(readString(buffer, cursor));
+    }
+    return values;
+  }
+}
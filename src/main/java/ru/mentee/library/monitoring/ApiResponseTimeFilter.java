@@ -2,41 +2,156 @@ package ru.mentee.library.monitoring;
 
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
-import jakarta.annotation.PostConstruct;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import lombok.RequiredArgsConstructor;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import ru.mentee.library.config.ApiLatencyProperties;
 
+/**
+ * Время ответа API с тегами {@code route} (шаблон маршрута Spring MVC, а не сырой URI), {@code
+ * method} и {@code status} (класс: 2xx, 4xx, ...).
+ *
+ * <p>Вместо клиентских перцентилей публикуются бакеты по границам {@code
+ * library.monitoring.api-latency.slo} — их можно суммировать между репликами. Число маршрутов
+ * ограничено {@code maxRoutes}. Таймеры кэшируются по маршруту в массиве [метод × класс статуса],
+ * так что на горячем пути нет ни поиска в реестре, ни аллокаций.
+ */
 @Component
-@RequiredArgsConstructor
 public class ApiResponseTimeFilter extends OncePerRequestFilter {
 
+  static final String METRIC = "api_response_duration_seconds";
+  static final String UNMATCHED = "UNMATCHED";
+  static final String OTHER = "OTHER";
+
+  private static final String[] METHODS = {
+    "GET", "POST", "PUT", "PATCH", "DELETE", "HEAD", "OPTIONS", OTHER
+  };
+  private static final String[] STATUS_CLASSES = {"1xx", "2xx", "3xx", "4xx", "5xx"};
+
   private final MeterRegistry meterRegistry;
-  private Timer apiResponseTimer;
-
-  @PostConstruct
-  public void init() {
-    this.apiResponseTimer =
-        Timer.builder("api_response_duration_seconds")
-            .description("Duration of API response")
-            .publishPercentiles(0.5, 0.95, 0.99)
-            .register(meterRegistry);
+  private final ApiLatencyProperties properties;
+  private final Duration[] slo;
+  private final ConcurrentHashMap<String, RouteTimers> routes = new ConcurrentHashMap<>();
+
+  public ApiResponseTimeFilter(MeterRegistry meterRegistry, ApiLatencyProperties properties) {
+    this.meterRegistry = meterRegistry;
+    this.properties = properties;
+    this.slo = properties.getSlo().toArray(Duration[]::new);
   }
 
   @Override
   protected void doFilterInternal(
       HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
       throws ServletException, IOException {
-    Timer.Sample sample = Timer.start(meterRegistry);
+    long start = System.nanoTime();
+    boolean failed = true;
     try {
       filterChain.doFilter(request, response);
+      failed = false;
     } finally {
-      sample.stop(apiResponseTimer);
+      if (!failed && request.isAsyncStarted()) {
+        // Асинхронный ответ ещё не готов — время фиксируется по завершении запроса
+        request.getAsyncContext().addListener(new RecordOnComplete(request, response, start));
+      } else {
+        // Исключение дойдёт до контейнера и станет 500, статус в response ещё не выставлен
+        record(request, failed ? 500 : response.getStatus(), start);
+      }
+    }
+  }
+
+  private void record(HttpServletRequest request, int status, long start) {
+    Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+    String route = pattern instanceof String template ? template : UNMATCHED;
+    routeTimers(route)
+        .timer(request.getMethod(), status)
+        .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+  }
+
+  private RouteTimers routeTimers(String route) {
+    RouteTimers timers = routes.get(route);
+    if (timers != null) {
+      return timers;
+    }
+    if (routes.size() >= properties.getMaxRoutes()) {
+      route = OTHER;
+    }
+    return routes.computeIfAbsent(route, RouteTimers::new);
+  }
+
+  private class RouteTimers {
+
+    private final String route;
+    // [метод × класс статуса]; гонка при заполнении безвредна — реестр вернёт тот же таймер
+    private final AtomicReferenceArray<Timer> timers =
+        new AtomicReferenceArray<>(METHODS.length * STATUS_CLASSES.length);
+
+    RouteTimers(String route) {
+      this.route = route;
     }
+
+    Timer timer(String method, int status) {
+      int methodIndex = METHODS.length - 1;
+      for (int i = 0; i < METHODS.length - 1; i++) {
+        if (METHODS[i].equals(method)) {
+          methodIndex = i;
+          break;
+        }
+      }
+      int statusIndex = Math.clamp(status / 100 - 1, 0, STATUS_CLASSES.length - 1);
+      int index = methodIndex * STATUS_CLASSES.length + statusIndex;
+
+      Timer timer = timers.get(index);
+      if (timer == null) {
+        timer =
+            Timer.builder(METRIC)
+                .description("Duration of API response")
+                .tag("route", route)
+                .tag("method", METHODS[methodIndex])
+                .tag("status", STATUS_CLASSES[statusIndex])
+                .serviceLevelObjectives(slo)
+                .publishPercentileHistogram(properties.isPercentileHistogram())
+                .register(meterRegistry);
+        timers.set(index, timer);
+      }
+      return timer;
+    }
+  }
+
+  private class RecordOnComplete implements AsyncListener {
+
+    private final HttpServletRequest request;
+    private final HttpServletResponse response;
+    private final long start;
+
+    RecordOnComplete(HttpServletRequest request, HttpServletResponse response, long start) {
+      this.request = request;
+      this.response = response;
+      this.start = start;
+    }
+
+    @Override
+    public void onComplete(AsyncEvent event) {
+      record(request, response.getStatus(), start);
+    }
+
+    @Override
+    public void onTimeout(AsyncEvent event) {}
+
+    @Override
+    public void onError(AsyncEvent event) {}
+
+    @Override
+    public void onStartAsync(AsyncEvent event) {}
   }
 }
@@ -0,0 +1,68 @@
+package ru.mentee.library.monitoring;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import org.slf4j.ILoggerFactory;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Метрики асинхронных аппендеров логирования ({@link MeteredAsyncAppender}): заполненность очереди
+ * и число отброшенных событий. Без профиля {@code prod} таких аппендеров нет и метрик тоже.
+ */
+@Component
+public class AsyncLogMetrics implements MeterBinder {
+
+  private final ILoggerFactory loggerFactory;
+
+  public AsyncLogMetrics() {
+    this(LoggerFactory.getILoggerFactory());
+  }
+
+  AsyncLogMetrics(ILoggerFactory loggerFactory) {
+    this.loggerFactory = loggerFactory;
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    for (MeteredAsyncAppender appender : findAppenders()) {
+      Gauge.builder(
+              "log_async_queue_depth", appender, MeteredAsyncAppender::getNumberOfElementsInQueue)
+          .description("Log events waiting in the async appender queue")
+          .tag("appender", appender.getName())
+          .register(registry);
+      Gauge.builder("log_async_queue_capacity", appender, MeteredAsyncAppender::getQueueSize)
+          .description("Capacity of the async appender queue")
+          .tag("appender", appender.getName())
+          .register(registry);
+      FunctionCounter.builder(
+              "log_async_events_discarded_total", appender, MeteredAsyncAppender::getDiscardedCount)
+          .description("TRACE/DEBUG/INFO log events dropped because the queue was full")
+          .tag("appender", appender.getName())
+          .register(registry);
+    }
+  }
+
+  private Set<MeteredAsyncAppender> findAppenders() {
+    Set<MeteredAsyncAppender> appenders = new LinkedHashSet<>();
+    if (loggerFactory instanceof LoggerContext context) {
+      for (Logger logger : context.getLoggerList()) {
+        for (Iterator<Appender<ILoggingEvent>> it = logger.iteratorForAppenders(); it.hasNext(); ) {
+          if (it.next() instanceof MeteredAsyncAppender appender) {
+            appenders.add(appender);
+          }
+        }
+      }
+    }
+    return appenders;
+  }
+}
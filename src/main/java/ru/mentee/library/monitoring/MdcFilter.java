@@ -5,24 +5,80 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import java.util.UUID;
 import org.slf4j.MDC;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+/**
+ * Кладёт в MDC идентификаторы запроса ({@link TraceContext}) и URI.
+ *
+ * <p>Входящий {@code traceparent} продолжает трассу вызывающей стороны, {@code X-Request-Id}
+ * принимается как есть, если он похож на идентификатор; иначе requestId совпадает с trace-id.
+ * {@code X-Request-Id} возвращается в ответе. Контекст сохраняется в атрибуте запроса и
+ * восстанавливается при асинхронном dispatch, который выполняется в другом потоке.
+ */
 @Component
 public class MdcFilter extends OncePerRequestFilter {
 
+  static final String CONTEXT_ATTRIBUTE = MdcFilter.class.getName() + ".CONTEXT";
+
+  private static final int MAX_REQUEST_ID_LENGTH = 64;
+
   @Override
   protected void doFilterInternal(
       HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
       throws ServletException, IOException {
     try {
-      MDC.put("requestId", UUID.randomUUID().toString());
+      TraceContext context =
+          request.getAttribute(CONTEXT_ATTRIBUTE) instanceof TraceContext saved
+              ? saved
+              : start(request, response);
+      context.apply();
       MDC.put("requestURI", request.getRequestURI());
       filterChain.doFilter(request, response);
     } finally {
       MDC.clear();
     }
   }
+
+  @Override
+  protected boolean shouldNotFilterAsyncDispatch() {
+    return false;
+  }
+
+  private static TraceContext start(HttpServletRequest request, HttpServletResponse response) {
+    String requestId = requestId(request.getHeader(TraceContext.REQUEST_ID_HEADER));
+    TraceContext context =
+        TraceContext.fromTraceparent(request.getHeader(TraceContext.TRACEPARENT), requestId);
+    if (context == null) {
+      context = TraceContext.newTrace(requestId);
+    }
+    request.setAttribute(CONTEXT_ATTRIBUTE, context);
+    response.setHeader(TraceContext.REQUEST_ID_HEADER, context.requestId());
+    return context;
+  }
+
+  /**
+   * @return входящий идентификатор или {@code null}, если он слишком длинный или содержит символы,
+   *     которые нельзя без экранирования писать в лог и заголовки
+   */
+  private static String requestId(String header) {
+    if (header == null || header.isEmpty() || header.length() > MAX_REQUEST_ID_LENGTH) {
+      return null;
+    }
+    for (int i = 0; i < header.length(); i++) {
+      char c = header.charAt(i);
+      boolean allowed =
+          (c >= 'a' && c <= 'z')
+              || (c >= 'A' && c <= 'Z')
+              || (c >= '0' && c <= '9')
+              || c == '-'
+              || c == '_'
+              || c == '.';
+      if (!allowed) {
+        return null;
+      }
+    }
+    return header;
+  }
 }
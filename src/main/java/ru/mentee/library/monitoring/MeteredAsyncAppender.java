@@ -0,0 +1,32 @@
+package ru.mentee.library.monitoring;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link AsyncAppender}, который считает отброшенные события. Запись в лог уходит из потока запроса
+ * в ограниченную очередь, кодирует и пишет её один фоновый поток.
+ *
+ * <p>Когда в очереди остаётся меньше {@code discardingThreshold} мест, события TRACE/DEBUG/INFO
+ * отбрасываются, а WARN/ERROR при {@code neverBlock=false} ждут места — их не теряем. Глубина
+ * очереди и число отброшенных публикуются {@link AsyncLogMetrics}.
+ */
+public class MeteredAsyncAppender extends AsyncAppender {
+
+  private final LongAdder discarded = new LongAdder();
+
+  @Override
+  protected boolean isDiscardable(ILoggingEvent event) {
+    // Вызывается только когда очередь уже ниже порога: true означает, что событие отброшено
+    boolean discardable = super.isDiscardable(event);
+    if (discardable) {
+      discarded.increment();
+    }
+    return discardable;
+  }
+
+  public long getDiscardedCount() {
+    return discarded.sum();
+  }
+}
@@ -0,0 +1,189 @@
+package ru.mentee.library.monitoring;
+
+import java.security.SecureRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.slf4j.MDC;
+
+/**
+ * Идентификаторы запроса в формате W3C Trace Context, которые живут в MDC текущего потока.
+ *
+ * <p>Генерация без {@code SecureRandom} на каждый запрос: trace-id — это случайный идентификатор
+ * узла (один раз при старте) и счётчик, span-id — {@link ThreadLocalRandom}. Уникальность
+ * обеспечивается в пределах узла, а между узлами практически гарантируется. Идентификаторы не
+ * годятся как секреты.
+ */
+public record TraceContext(String traceId, String spanId, String flags, String requestId) {
+
+  public static final String TRACEPARENT = "traceparent";
+  public static final String REQUEST_ID_HEADER = "X-Request-Id";
+
+  static final String REQUEST_ID = "requestId";
+  static final String TRACE_ID = "traceId";
+  static final String SPAN_ID = "spanId";
+  static final String TRACE_FLAGS = "traceFlags";
+
+  private static final String VERSION = "00";
+  private static final String NOT_SAMPLED = "00";
+  private static final char[] HEX = "0123456789abcdef".toCharArray();
+  private static final long NODE_ID = new SecureRandom().nextLong();
+  private static final AtomicLong SEQUENCE = new AtomicLong();
+
+  /** Новая трасса — для запросов без (корректного) {@code traceparent}. */
+  static TraceContext newTrace(String requestId) {
+    String traceId = hex(NODE_ID, SEQUENCE.incrementAndGet());
+    return new TraceContext(
+        traceId, newSpanId(), NOT_SAMPLED, requestId != null ? requestId : traceId);
+  }
+
+  /**
+   * Продолжение входящей трассы: trace-id и флаги из {@code traceparent}, свой span-id.
+   *
+   * <p>Версии выше {@code 00} разбираются по формату {@code 00}, как требует W3C Trace Context:
+   * после первых 55 символов допускаются поля будущих версий, отделённые {@code -}. Версия {@code
+   * ff} недопустима.
+   *
+   * @return {@code null}, если заголовок отсутствует или некорректен
+   */
+  static TraceContext fromTraceparent(String traceparent, String requestId) {
+    // <2 hex version>-<32 hex trace-id>-<16 hex parent-id>-<2 hex flags>[-...]
+    if (traceparent == null
+        || traceparent.length() < 55
+        || traceparent.charAt(2) != '-'
+        || traceparent.charAt(35) != '-'
+        || traceparent.charAt(52) != '-') {
+      return null;
+    }
+    String version = traceparent.substring(0, 2);
+    if (!isHex(version) || version.equals("ff")) {
+      return null;
+    }
+    // У версии 00 ровно 55 символов, у будущих дальше может идти только "-<новые поля>"
+    if (traceparent.length() > 55 && (version.equals(VERSION) || traceparent.charAt(55) != '-')) {
+      return null;
+    }
+    String traceId = traceparent.substring(3, 35);
+    String parentId = traceparent.substring(36, 52);
+    String flags = traceparent.substring(53, 55);
+    if (!isHex(traceId)
+        || isZero(traceId)
+        || !isHex(parentId)
+        || isZero(parentId)
+        || !isHex(flags)) {
+      return null;
+    }
+    return new TraceContext(traceId, newSpanId(), flags, requestId != null ? requestId : traceId);
+  }
+
+  /** Контекст из MDC текущего потока или {@code null}, если поток не обслуживает запрос. */
+  public static TraceContext current() {
+    String traceId = MDC.get(TRACE_ID);
+    if (traceId == null) {
+      return null;
+    }
+    return new TraceContext(traceId, MDC.get(SPAN_ID), MDC.get(TRACE_FLAGS), MDC.get(REQUEST_ID));
+  }
+
+  /**
+   * Переносит контекст текущего потока в задачу, выполняемую в другом потоке (пулы батчера,
+   * хеджера). Без контекста задача возвращается как есть.
+   */
+  public static <T> Supplier<T> propagate(Supplier<T> task) {
+    TraceContext context = current();
+    if (context == null) {
+      return task;
+    }
+    return () -> context.call(task);
+  }
+
+  /**
+   * Выполняет задачу с заранее захваченным контекстом — когда задача создаётся не в потоке запроса
+   * (например, пачка отправляется по таймеру).
+   *
+   * @param context контекст или {@code null}, тогда задача возвращается как есть
+   */
+  public static Runnable wrap(TraceContext context, Runnable task) {
+    if (context == null) {
+      return task;
+    }
+    return () ->
+        context.call(
+            () -> {
+              task.run();
+              return null;
+            });
+  }
+
+  /** {@code traceparent} для исходящего вызова: та же трасса, новый span-id вызова. */
+  public String outgoingTraceparent() {
+    return VERSION + "-" + traceId + "-" + newSpanId() + "-" + flags;
+  }
+
+  private <T> T call(Supplier<T> task) {
+    TraceContext previous = current();
+    apply();
+    try {
+      return task.get();
+    } finally {
+      if (previous != null) {
+        previous.apply();
+      } else {
+        clear();
+      }
+    }
+  }
+
+  void apply() {
+    MDC.put(REQUEST_ID, requestId);
+    MDC.put(TRACE_ID, traceId);
+    MDC.put(SPAN_ID, spanId);
+    MDC.put(TRACE_FLAGS, flags);
+  }
+
+  static void clear() {
+    MDC.remove(REQUEST_ID);
+    MDC.remove(TRACE_ID);
+    MDC.remove(SPAN_ID);
+    MDC.remove(TRACE_FLAGS);
+  }
+
+  private static String newSpanId() {
+    long id;
+    do {
+      id = ThreadLocalRandom.current().nextLong();
+    } while (id == 0);
+    return hex(id);
+  }
+
+  private static String hex(long... values) {
+    char[] chars = new char[values.length * 16];
+    for (int v = 0; v < values.length; v++) {
+      long value = values[v];
+      for (int i = 15; i >= 0; i--) {
+        chars[v * 16 + i] = HEX[(int) (value & 0xF)];
+        value >>>= 4;
+      }
+    }
+    return new String(chars);
+  }
+
+  private static boolean isHex(String value) {
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isZero(String value) {
+    for (int i = 0; i < value.length(); i++) {
+      if (value.charAt(i) != '0') {
+        return false;
+      }
+    }
+    return true;
+  }
+}
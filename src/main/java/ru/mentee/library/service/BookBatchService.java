@@ -0,0 +1,188 @@
+package ru.mentee.library.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.mentee.library.api.dto.BookBatchItemResult;
+import ru.mentee.library.api.dto.BookBatchItemResult.Status;
+import ru.mentee.library.api.dto.BookBatchOperation;
+import ru.mentee.library.api.dto.BookBatchResponse;
+import ru.mentee.library.api.dto.CreateBookRequest;
+import ru.mentee.library.cache.BookCache;
+import ru.mentee.library.config.BookBatchProperties;
+import ru.mentee.library.domain.model.Book;
+import ru.mentee.library.domain.repository.BookEnrichmentRepository;
+import ru.mentee.library.domain.repository.BookRepository;
+
+/**
+ * Массовые create/update/delete. Операции делятся на чанки, каждый чанк выполняется в своей
+ * транзакции, а изменения уходят в БД JDBC-батчами при flush.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BookBatchService {
+
+  private final BookRepository bookRepository;
+  private final BookEnrichmentRepository bookEnrichmentRepository;
+  private final EntityManager entityManager;
+  private final TransactionTemplate transactionTemplate;
+  private final Validator validator;
+  private final MeterRegistry meterRegistry;
+  private final BookBatchProperties properties;
+  private final BookCache bookCache;
+  private Counter booksCreatedCounter;
+
+  @PostConstruct
+  public void init() {
+    this.booksCreatedCounter =
+        Counter.builder("books_created_total")
+            .description("Total number of created books")
+            .register(meterRegistry);
+  }
+
+  @PreAuthorize("hasRole('LIBRARIAN') or hasRole('ADMIN')")
+  public BookBatchResponse apply(List<BookBatchOperation> operations) {
+    BookBatchItemResult[] results = new BookBatchItemResult[operations.size()];
+    List<Integer> valid = new ArrayList<>(operations.size());
+    for (int i = 0; i < operations.size(); i++) {
+      String error = validate(operations.get(i));
+      if (error != null) {
+        results[i] = new BookBatchItemResult(i, Status.INVALID, null, error);
+      } else {
+        valid.add(i);
+      }
+    }
+
+    for (int from = 0; from < valid.size(); from += properties.getChunkSize()) {
+      List<Integer> chunk =
+          valid.subList(from, Math.min(from + properties.getChunkSize(), valid.size()));
+      try {
+        transactionTemplate.executeWithoutResult(status -> applyChunk(chunk, operations, results));
+      } catch (RuntimeException e) {
+        // Транзакция чанка откатилась целиком — помечаем все его элементы
+        log.warn("Batch chunk of {} operations failed", chunk.size(), e);
+        for (int index : chunk) {
+          BookBatchOperation op = operations.get(index);
+          results[index] =
+              new BookBatchItemResult(index, Status.FAILED, op.getId(), e.getMessage());
+        }
+      }
+    }
+
+    int succeeded = (int) Arrays.stream(results).filter(BookBatchItemResult::isSuccess).count();
+    return new BookBatchResponse(succeeded, results.length - succeeded, Arrays.asList(results));
+  }
+
+  private void applyChunk(
+      List<Integer> chunk, List<BookBatchOperation> operations, BookBatchItemResult[] results) {
+    // Все книги для UPDATE/DELETE чанка загружаем одним запросом
+    Set<Long> ids =
+        chunk.stream()
+            .map(operations::get)
+            .filter(op -> op.getType() != BookBatchOperation.Type.CREATE)
+            .map(BookBatchOperation::getId)
+            .collect(Collectors.toSet());
+    Map<Long, Book> existing =
+        bookRepository.findAllById(ids).stream()
+            .collect(Collectors.toMap(Book::getId, Function.identity()));
+
+    List<Integer> createdIndexes = new ArrayList<>();
+    List<Book> created = new ArrayList<>();
+    List<Book> deleted = new ArrayList<>();
+    List<Long> changedIds = new ArrayList<>();
+
+    for (int index : chunk) {
+      BookBatchOperation op = operations.get(index);
+      switch (op.getType()) {
+        case CREATE -> {
+          createdIndexes.add(index);
+          created.add(toBook(op.getBook()));
+        }
+        case UPDATE -> {
+          Book book = existing.get(op.getId());
+          if (book == null) {
+            results[index] = new BookBatchItemResult(index, Status.NOT_FOUND, op.getId(), null);
+          } else {
+            book.setTitle(op.getBook().getTitle());
+            book.setAuthor(op.getBook().getAuthor());
+            book.setPublicationYear(op.getBook().getPublicationYear());
+            changedIds.add(book.getId());
+            results[index] = new BookBatchItemResult(index, Status.UPDATED, book.getId(), null);
+          }
+        }
+        case DELETE -> {
+          Book book = existing.remove(op.getId());
+          if (book == null) {
+            results[index] = new BookBatchItemResult(index, Status.NOT_FOUND, op.getId(), null);
+          } else {
+            deleted.add(book);
+            changedIds.add(book.getId());
+            results[index] = new BookBatchItemResult(index, Status.DELETED, book.getId(), null);
+          }
+        }
+      }
+    }
+
+    bookRepository.saveAll(created);
+    if (!deleted.isEmpty()) {
+      bookEnrichmentRepository.deleteByBookIds(deleted.stream().map(Book::getId).toList());
+    }
+    bookRepository.deleteAll(deleted);
+    entityManager.flush();
+    bookCache.evictAfterCommit(changedIds);
+    entityManager.clear();
+
+    for (int i = 0; i < created.size(); i++) {
+      int index = createdIndexes.get(i);
+      results[index] = new BookBatchItemResult(index, Status.CREATED, created.get(i).getId(), null);
+    }
+    booksCreatedCounter.increment(created.size());
+  }
+
+  private String validate(BookBatchOperation op) {
+    if (op == null || op.getType() == null) {
+      return "Operation type is required";
+    }
+    if (op.getType() != BookBatchOperation.Type.CREATE && op.getId() == null) {
+      return "Id is required for " + op.getType();
+    }
+    if (op.getType() == BookBatchOperation.Type.DELETE) {
+      return null;
+    }
+    if (op.getBook() == null) {
+      return "Book is required for " + op.getType();
+    }
+    Set<ConstraintViolation<CreateBookRequest>> violations = validator.validate(op.getBook());
+    return violations.isEmpty()
+        ? null
+        : violations.stream()
+            .map(ConstraintViolation::getMessage)
+            .sorted()
+            .collect(Collectors.joining("; "));
+  }
+
+  private static Book toBook(CreateBookRequest request) {
+    return Book.builder()
+        .title(request.getTitle())
+        .author(request.getAuthor())
+        .publicationYear(request.getPublicationYear())
+        .available(true)
+        .build();
+  }
+}
@@ -0,0 +1,30 @@
+package ru.mentee.library.service;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+
+/** Непрозрачный курсор для keyset-пагинации: base64url от id последней отданной книги. */
+public final class BookCursor {
+
+  private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+  private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+  private BookCursor() {}
+
+  public static String encode(long lastId) {
+    return ENCODER.encodeToString(ByteBuffer.allocate(Long.BYTES).putLong(lastId).array());
+  }
+
+  public static long decode(String cursor) {
+    byte[] bytes;
+    try {
+      bytes = DECODER.decode(cursor);
+    } catch (IllegalArgumentException e) {
+      throw new InvalidCursorException(cursor);
+    }
+    if (bytes.length != Long.BYTES) {
+      throw new InvalidCursorException(cursor);
+    }
+    return ByteBuffer.wrap(bytes).getLong();
+  }
+}
@@ -0,0 +1,224 @@
+package ru.mentee.library.service;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.mentee.library.api.dto.BookInfoResponse;
+import ru.mentee.library.client.OpenLibraryClient;
+import ru.mentee.library.client.OpenLibraryRateLimiter;
+import ru.mentee.library.config.BookEnrichmentRefreshProperties;
+import ru.mentee.library.domain.model.BookEnrichment;
+import ru.mentee.library.domain.repository.BookEnrichmentRepository;
+import ru.mentee.library.domain.repository.BookEnrichmentRepository.StaleEnrichment;
+
+/**
+ * Фоновое обновление сохранённых обогащений OpenLibrary. Каждый запуск берёт самые старые записи
+ * старше TTL, запрашивает их пачками на виртуальных потоках с ограничением RPS и записывает
+ * результаты чанками, каждый в своей транзакции. Пользовательские запросы в этом не участвуют.
+ *
+ * <p>Запросы проходят через те же bulkhead и circuit breaker, что и пользовательские: при занятом
+ * bulkhead пачка не ждёт, а откладывается до следующего запуска.
+ *
+ * <p>Включается только на одной реплике ({@code library.books.enrichment-refresh.enabled}): иначе
+ * каждая реплика обновляет одни и те же книги.
+ */
+@Service
+@ConditionalOnProperty(
+    prefix = "library.books.enrichment-refresh",
+    name = "enabled",
+    havingValue = "true")
+@Slf4j
+public class BookEnrichmentRefresher {
+
+  private final BookEnrichmentRepository enrichmentRepository;
+  private final OpenLibraryClient openLibraryClient;
+  private final CircuitBreaker circuitBreaker;
+  private final Bulkhead bulkhead;
+  private final OpenLibraryRateLimiter rateLimiter;
+  private final TransactionTemplate transactionTemplate;
+  private final BookEnrichmentRefreshProperties properties;
+
+  // Момент (System.nanoTime), когда можно отправить следующий запрос
+  private final AtomicLong nextRequestAt = new AtomicLong(System.nanoTime());
+  private final AtomicLong backlog = new AtomicLong();
+  private final AtomicLong lagSeconds = new AtomicLong();
+  private final Counter refreshed;
+  private final Counter notFound;
+  private final Counter failed;
+
+  public BookEnrichmentRefresher(
+      BookEnrichmentRepository enrichmentRepository,
+      OpenLibraryClient openLibraryClient,
+      CircuitBreaker openLibraryCircuitBreaker,
+      Bulkhead openLibraryBulkhead,
+      OpenLibraryRateLimiter rateLimiter,
+      TransactionTemplate transactionTemplate,
+      BookEnrichmentRefreshProperties properties,
+      MeterRegistry meterRegistry) {
+    this.enrichmentRepository = enrichmentRepository;
+    this.openLibraryClient = openLibraryClient;
+    this.circuitBreaker = openLibraryCircuitBreaker;
+    this.bulkhead = openLibraryBulkhead;
+    this.rateLimiter = rateLimiter;
+    this.transactionTemplate = transactionTemplate;
+    this.properties = properties;
+
+    Gauge.builder("enrichment_refresh_backlog", backlog, AtomicLong::get)
+        .description("Stored enrichments older than TTL at the start of the last run")
+        .register(meterRegistry);
+    Gauge.builder("enrichment_refresh_lag_seconds", lagSeconds, AtomicLong::get)
+        .description("Age of the oldest stored enrichment")
+        .baseUnit("seconds")
+        .register(meterRegistry);
+    this.refreshed = refreshCounter(meterRegistry, "refreshed");
+    this.notFound = refreshCounter(meterRegistry, "not_found");
+    this.failed = refreshCounter(meterRegistry, "failed");
+  }
+
+  @Scheduled(
+      initialDelayString = "${library.books.enrichment-refresh.interval:5m}",
+      fixedDelayString = "${library.books.enrichment-refresh.interval:5m}")
+  public void refreshStale() {
+    Instant threshold = Instant.now().minus(properties.getTtl());
+    backlog.set(enrichmentRepository.countByEnrichedAtBefore(threshold));
+    updateLag();
+
+    List<StaleEnrichment> stale =
+        enrichmentRepository.findStale(
+            threshold, PageRequest.of(0, properties.getMaxBooksPerRun()));
+    if (stale.isEmpty()) {
+      return;
+    }
+    log.info("Refreshing {} of {} stale enrichments", stale.size(), backlog.get());
+
+    List<Future<Map<Long, BookInfoResponse>>> batches = new ArrayList<>();
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (int from = 0; from < stale.size(); from += properties.getBatchSize()) {
+        List<StaleEnrichment> batch =
+            stale.subList(from, Math.min(from + properties.getBatchSize(), stale.size()));
+        batches.add(executor.submit(() -> fetch(batch)));
+      }
+
+      Map<Long, BookInfoResponse> chunk = new HashMap<>();
+      for (Future<Map<Long, BookInfoResponse>> batch : batches) {
+        chunk.putAll(await(batch));
+        if (chunk.size() >= properties.getChunkSize()) {
+          save(chunk);
+          chunk = new HashMap<>();
+        }
+      }
+      save(chunk);
+    }
+    updateLag();
+  }
+
+  private Map<Long, BookInfoResponse> fetch(List<StaleEnrichment> batch) {
+    acquireRequestSlot();
+    String bibkeys =
+        batch.stream().map(e -> "ISBN:" + e.getIsbn()).collect(Collectors.joining(","));
+    try {
+      // Общий лимит с пользовательскими запросами, но с низким приоритетом
+      rateLimiter.acquire(OpenLibraryRateLimiter.Priority.BACKGROUND);
+      // Bulkhead снаружи, как в OpenLibraryBatcher: нехватка слотов — не ошибка OpenLibrary
+      Map<String, BookInfoResponse> response =
+          bulkhead.executeSupplier(
+              () ->
+                  circuitBreaker.executeSupplier(
+                      () -> openLibraryClient.getBookByIsbn(bibkeys, "json", "data")));
+      // null в значении — OpenLibrary книгу больше не знает
+      Map<Long, BookInfoResponse> result = new HashMap<>();
+      for (StaleEnrichment e : batch) {
+        result.put(e.getBookId(), response != null ? response.get("ISBN:" + e.getIsbn()) : null);
+      }
+      return result;
+    } catch (RuntimeException e) {
+      log.warn("Failed to refresh enrichment for {} books", batch.size(), e);
+      failed.increment(batch.size());
+      return Map.of();
+    }
+  }
+
+  private void save(Map<Long, BookInfoResponse> chunk) {
+    if (chunk.isEmpty()) {
+      return;
+    }
+    Instant now = Instant.now();
+    transactionTemplate.executeWithoutResult(
+        status -> {
+          for (BookEnrichment enrichment : enrichmentRepository.findAllById(chunk.keySet())) {
+            BookInfoResponse info = chunk.get(enrichment.getBookId());
+            // Если книга пропала из OpenLibrary, оставляем прежние данные, но не перезапрашиваем
+            // её каждый запуск
+            if (info != null) {
+              enrichment.setPayload(info);
+              refreshed.increment();
+            } else {
+              notFound.increment();
+            }
+            enrichment.setEnrichedAt(now);
+          }
+        });
+  }
+
+  /** Равномерно распределяет запросы: каждый занимает свой интервал 1/RPS. */
+  private void acquireRequestSlot() {
+    long interval = (long) (TimeUnit.SECONDS.toNanos(1) / properties.getMaxRequestsPerSecond());
+    long now = System.nanoTime();
+    long slot = nextRequestAt.getAndUpdate(next -> Math.max(next, now) + interval);
+    if (slot > now) {
+      try {
+        Thread.sleep(Duration.ofNanos(slot - now));
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  private void updateLag() {
+    lagSeconds.set(
+        enrichmentRepository
+            .findOldestEnrichedAt()
+            .map(oldest -> Duration.between(oldest, Instant.now()).toSeconds())
+            .orElse(0L));
+  }
+
+  private static Map<Long, BookInfoResponse> await(Future<Map<Long, BookInfoResponse>> batch) {
+    try {
+      return batch.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return Map.of();
+    } catch (ExecutionException e) {
+      log.warn("Enrichment refresh batch failed", e.getCause());
+      return Map.of();
+    }
+  }
+
+  private static Counter refreshCounter(MeterRegistry meterRegistry, String result) {
+    return Counter.builder("enrichment_refresh_books_total")
+        .description("Stored enrichments processed by the background refresh")
+        .tag("result", result)
+        .register(meterRegistry);
+  }
+}
@@ -0,0 +1,52 @@
+package ru.mentee.library.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.mentee.library.domain.model.Book;
+import ru.mentee.library.domain.repository.BookRepository;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BookExportService {
+
+  private final BookRepository bookRepository;
+  private final EntityManager entityManager;
+  private final ObjectMapper objectMapper;
+
+  /** Пишет весь каталог в NDJSON: одна книга на строку, без накопления строк в памяти. */
+  @Transactional(readOnly = true)
+  public long exportNdjson(OutputStream out) throws IOException {
+    ObjectWriter writer =
+        objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    long count = 0;
+
+    try (Stream<Book> books = bookRepository.streamAll();
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+      generator.setRootValueSeparator(null);
+      Iterator<Book> iterator = books.iterator();
+      while (iterator.hasNext()) {
+        Book book = iterator.next();
+        writer.writeValue(generator, book);
+        generator.writeRaw('\n');
+        // Отсоединяем сущность, чтобы persistence context не рос вместе с таблицей
+        entityManager.detach(book);
+        count++;
+      }
+    }
+
+    log.info("Exported {} books", count);
+    return count;
+  }
+}
@@ -0,0 +1,101 @@
+package ru.mentee.library.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import ru.mentee.library.api.dto.BookImportJobResponse;
+import ru.mentee.library.api.dto.BookImportJobResponse.Failure;
+import ru.mentee.library.api.dto.BookImportJobResponse.Status;
+
+/** Состояние задания импорта; обновляется из потоков чанков, читается эндпоинтом статуса. */
+final class BookImportJob {
+
+  private final UUID id;
+  private final int total;
+  private final Instant submittedAt;
+  private final AtomicInteger created = new AtomicInteger();
+  private final AtomicInteger updated = new AtomicInteger();
+  private final AtomicInteger skipped = new AtomicInteger();
+  private final AtomicInteger failed = new AtomicInteger();
+  private final Queue<Failure> failures = new ConcurrentLinkedQueue<>();
+
+  private volatile Status status = Status.QUEUED;
+  private volatile Instant startedAt;
+  private volatile Instant finishedAt;
+
+  BookImportJob(int total) {
+    this.id = UUID.randomUUID();
+    this.total = total;
+    this.submittedAt = Instant.now();
+  }
+
+  UUID id() {
+    return id;
+  }
+
+  Instant finishedAt() {
+    return finishedAt;
+  }
+
+  void start() {
+    startedAt = Instant.now();
+    status = Status.RUNNING;
+  }
+
+  void finish(Status result) {
+    finishedAt = Instant.now();
+    status = result;
+  }
+
+  void created(int count) {
+    created.addAndGet(count);
+  }
+
+  void updated(int count) {
+    updated.addAndGet(count);
+  }
+
+  /** Повтор ISBN внутри задания, в том числе в другой записи (ISBN-10 и ISBN-13 одной книги). */
+  void skipped() {
+    skipped.incrementAndGet();
+  }
+
+  void fail(String isbn, String error) {
+    failures.add(new Failure(isbn, error));
+    failed.incrementAndGet();
+  }
+
+  void fail(Collection<String> isbns, String error) {
+    isbns.forEach(isbn -> fail(isbn, error));
+  }
+
+  BookImportJobResponse toResponse() {
+    int processed = created.get() + updated.get() + skipped.get() + failed.get();
+    Instant started = startedAt;
+    double itemsPerSecond = 0;
+    if (started != null) {
+      Instant end = finishedAt != null ? finishedAt : Instant.now();
+      long millis = Math.max(1, Duration.between(started, end).toMillis());
+      itemsPerSecond = processed * 1000.0 / millis;
+    }
+    return new BookImportJobResponse(
+        id,
+        status,
+        total,
+        processed,
+        created.get(),
+        updated.get(),
+        skipped.get(),
+        failed.get(),
+        itemsPerSecond,
+        submittedAt,
+        started,
+        finishedAt,
+        List.copyOf(failures));
+  }
+}
@@ -0,0 +1,354 @@
+package ru.mentee.library.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.mentee.library.api.dto.BookImportJobResponse;
+import ru.mentee.library.api.dto.BookImportJobResponse.Status;
+import ru.mentee.library.api.dto.BookInfoResponse;
+import ru.mentee.library.api.dto.IsbnInfoBatchResponse;
+import ru.mentee.library.cache.BookCache;
+import ru.mentee.library.cache.IsbnBloomFilter;
+import ru.mentee.library.client.OpenLibraryRateLimiter;
+import ru.mentee.library.config.BookImportProperties;
+import ru.mentee.library.config.OpenLibraryBatchProperties;
+import ru.mentee.library.config.OpenLibraryRateLimitProperties;
+import ru.mentee.library.domain.model.Book;
+import ru.mentee.library.domain.model.BookEnrichment;
+import ru.mentee.library.domain.repository.BookEnrichmentRepository;
+import ru.mentee.library.domain.repository.BookRepository;
+
+/**
+ * Асинхронный импорт книг по списку ISBN.
+ *
+ * <p>Задания выполняются по одному в порядке поступления. ISBN задания делятся на чанки, до {@code
+ * parallelism} чанков обрабатываются одновременно на виртуальных потоках: обогащение идёт одним
+ * multi-bibkey запросом с фоновым приоритетом, запись — в своей транзакции: новые книги одним
+ * JDBC-батчем insert-if-absent с id, взятыми у последовательности одним запросом, обогащения
+ * JDBC-батчами Hibernate. Книга с тем же ISBN обновляется, а не создаётся повторно: перечитываются
+ * только ISBN, которые батч нашёл занятыми. Статус заданий хранится в памяти узла.
+ */
+@Service
+@Slf4j
+public class BookImportService {
+
+  private final BookService bookService;
+  private final BookRepository bookRepository;
+  private final BookEnrichmentRepository bookEnrichmentRepository;
+  private final EntityManager entityManager;
+  private final TransactionTemplate transactionTemplate;
+  private final BookCache bookCache;
+  private final IsbnBloomFilter isbnFilter;
+  private final BookImportProperties properties;
+  private final OpenLibraryBatchProperties batchProperties;
+  private final OpenLibraryRateLimitProperties rateLimitProperties;
+
+  private final Map<UUID, BookImportJob> jobs = new ConcurrentHashMap<>();
+  private final ExecutorService jobRunner =
+      Executors.newSingleThreadExecutor(Thread.ofVirtual().name("book-import").factory());
+  private final Map<String, Counter> itemCounters = new HashMap<>();
+  private final Counter booksCreatedCounter;
+  private final Timer chunkTimer;
+
+  public BookImportService(
+      BookService bookService,
+      BookRepository bookRepository,
+      BookEnrichmentRepository bookEnrichmentRepository,
+      EntityManager entityManager,
+      TransactionTemplate transactionTemplate,
+      BookCache bookCache,
+      IsbnBloomFilter isbnFilter,
+      BookImportProperties properties,
+      OpenLibraryBatchProperties batchProperties,
+      OpenLibraryRateLimitProperties rateLimitProperties,
+      MeterRegistry meterRegistry) {
+    this.bookService = bookService;
+    this.bookRepository = bookRepository;
+    this.bookEnrichmentRepository = bookEnrichmentRepository;
+    this.entityManager = entityManager;
+    this.transactionTemplate = transactionTemplate;
+    this.bookCache = bookCache;
+    this.isbnFilter = isbnFilter;
+    this.properties = properties;
+    this.batchProperties = batchProperties;
+    this.rateLimitProperties = rateLimitProperties;
+
+    for (String result :
+        List.of("created", "updated", "skipped", "invalid", "not_found", "failed")) {
+      itemCounters.put(
+          result,
+          Counter.builder("book_import_items_total")
+              .description("ISBNs processed by import jobs")
+              .tag("result", result)
+              .register(meterRegistry));
+    }
+    this.booksCreatedCounter =
+        Counter.builder("books_created_total")
+            .description("Total number of created books")
+            .register(meterRegistry);
+    this.chunkTimer =
+        Timer.builder("book_import_chunk_duration")
+            .description("Time to enrich and store one chunk of an import job")
+            .register(meterRegistry);
+    Gauge.builder("book_import_jobs_active", jobs, BookImportService::countActive)
+        .description("Import jobs queued or running on this node")
+        .register(meterRegistry);
+  }
+
+  /** Ставит задание в очередь и сразу возвращает его статус. */
+  @PreAuthorize("hasRole('LIBRARIAN') or hasRole('ADMIN')")
+  public BookImportJobResponse submit(List<String> isbns) {
+    evictExpired();
+    BookImportJob job = new BookImportJob(isbns.size());
+    List<String> items = List.copyOf(isbns);
+    jobs.put(job.id(), job);
+    jobRunner.execute(() -> run(job, items));
+    log.info("Import job {} queued with {} ISBNs", job.id(), items.size());
+    return job.toResponse();
+  }
+
+  @PreAuthorize("hasRole('LIBRARIAN') or hasRole('ADMIN')")
+  public Optional<BookImportJobResponse> find(UUID id) {
+    return Optional.ofNullable(jobs.get(id)).map(BookImportJob::toResponse);
+  }
+
+  /**
+   * ISBN из загруженного файла: по одному в строке или в первой колонке CSV/TSV. Пустые строки,
+   * комментарии ({@code #}) и заголовок без цифр пропускаются.
+   */
+  public static List<String> readIsbns(InputStream in) throws IOException {
+    List<String> isbns = new ArrayList<>();
+    BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    String line;
+    while ((line = reader.readLine()) != null) {
+      String value = line.split("[,;\t]", 2)[0].strip();
+      if (!value.isEmpty()
+          && !value.startsWith("#")
+          && value.chars().anyMatch(Character::isDigit)) {
+        isbns.add(value);
+      }
+    }
+    return isbns;
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    jobRunner.shutdownNow();
+  }
+
+  private void run(BookImportJob job, List<String> items) {
+    job.start();
+    try {
+      // Все ISBN приводятся к ISBN-13 заранее: повторы не попадают в OpenLibrary и в одну пачку
+      Set<String> isbns = new LinkedHashSet<>();
+      for (String item : items) {
+        long isbn = Isbn.parse(item);
+        if (isbn < 0) {
+          job.fail(item, "Invalid ISBN");
+          count("invalid", 1);
+        } else if (!isbns.add(Long.toString(isbn))) {
+          job.skipped();
+          count("skipped", 1);
+        }
+      }
+
+      List<String> unique = new ArrayList<>(isbns);
+      Semaphore permits = new Semaphore(parallelism());
+      try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+        for (int from = 0; from < unique.size(); from += properties.getChunkSize()) {
+          List<String> chunk =
+              unique.subList(from, Math.min(from + properties.getChunkSize(), unique.size()));
+          permits.acquire();
+          executor.execute(
+              () -> {
+                try {
+                  chunkTimer.record(() -> importChunk(job, chunk));
+                } finally {
+                  permits.release();
+                }
+              });
+        }
+      }
+      job.finish(Status.COMPLETED);
+      log.info("Import job {} completed: {}", job.id(), job.toResponse());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      job.finish(Status.FAILED);
+    } catch (RuntimeException e) {
+      log.error("Import job {} failed", job.id(), e);
+      job.finish(Status.FAILED);
+    }
+  }
+
+  /**
+   * Одновременных чанков не больше, чем ограничитель скорости пропускает фоновых запросов в
+   * секунду, и не больше, чем помещается в его очередь: лишние чанки не ускоряют импорт, а только
+   * ждут токен и рискуют не дождаться его за {@code background-max-wait}.
+   */
+  int parallelism() {
+    if (!rateLimitProperties.isEnabled()) {
+      return properties.getParallelism();
+    }
+    int requestsPerChunk =
+        Math.ceilDiv(Math.max(1, properties.getChunkSize()), batchProperties.getMaxKeys());
+    int perSecond = (int) Math.ceil(rateLimitProperties.getRequestsPerSecond() / requestsPerChunk);
+    int queued = rateLimitProperties.getMaxQueue() / requestsPerChunk;
+    return Math.max(1, Math.min(properties.getParallelism(), Math.min(perSecond, queued)));
+  }
+
+  private void importChunk(BookImportJob job, List<String> isbns) {
+    IsbnInfoBatchResponse infos;
+    try {
+      infos = bookService.getBookInfoByIsbns(isbns, OpenLibraryRateLimiter.Priority.BACKGROUND);
+    } catch (RuntimeException e) {
+      log.warn("Import job {}: lookup of {} ISBNs failed", job.id(), isbns.size(), e);
+      job.fail(isbns, "OpenLibrary lookup failed: " + e.getMessage());
+      count("failed", isbns.size());
+      return;
+    }
+
+    if (!infos.unavailable().isEmpty()) {
+      job.fail(infos.unavailable(), "OpenLibrary unavailable");
+      count("failed", infos.unavailable().size());
+    }
+
+    Map<String, BookInfoResponse> found = new LinkedHashMap<>();
+    for (Map.Entry<String, BookInfoResponse> entry : infos.books().entrySet()) {
+      String isbn = entry.getKey();
+      BookInfoResponse info = entry.getValue();
+      if (info == null) {
+        job.fail(isbn, "Not found in OpenLibrary");
+        count("not_found", 1);
+      } else {
+        found.put(isbn, info);
+      }
+    }
+    if (found.isEmpty()) {
+      return;
+    }
+
+    try {
+      UpsertResult result = transactionTemplate.execute(status -> upsert(found));
+      job.created(result.created());
+      job.updated(result.updated());
+      count("created", result.created());
+      count("updated", result.updated());
+      booksCreatedCounter.increment(result.created());
+    } catch (RuntimeException e) {
+      // Транзакция чанка откатилась целиком
+      log.warn("Import job {}: saving {} books failed", job.id(), found.size(), e);
+      job.fail(found.keySet(), "Failed to save: " + e.getMessage());
+      count("failed", found.size());
+    }
+  }
+
+  private UpsertResult upsert(Map<String, BookInfoResponse> infos) {
+    Map<String, Book> existing =
+        bookRepository.findByIsbnIn(infos.keySet()).stream()
+            .collect(
+                Collectors.toMap(
+                    Book::getIsbn, Function.identity(), (first, second) -> first, HashMap::new));
+
+    // Новые книги — одним батчем insert-if-absent: импорт или createBookFromIsbn на другом узле,
+    // успевший вставить тот же ISBN, не откатывает весь чанк на уникальном индексе — такая книга
+    // обновляется
+    List<Book> candidates = new ArrayList<>();
+    infos.forEach(
+        (isbn, info) -> {
+          Book book = existing.get(isbn);
+          if (book != null) {
+            BookService.applyInfo(book, info);
+          } else {
+            candidates.add(BookService.toBook(isbn, info));
+          }
+        });
+    List<Long> ids = bookRepository.insertAllIfAbsent(candidates);
+    List<Book> created = new ArrayList<>();
+    List<String> conflicts = new ArrayList<>();
+    for (int i = 0; i < candidates.size(); i++) {
+      Book book = candidates.get(i);
+      if (ids.get(i) == null) {
+        conflicts.add(book.getIsbn());
+      } else {
+        book.setId(ids.get(i));
+        created.add(book);
+      }
+    }
+    if (!conflicts.isEmpty()) {
+      for (Book book : bookRepository.findByIsbnIn(conflicts)) {
+        BookService.applyInfo(book, infos.get(book.getIsbn()));
+        existing.put(book.getIsbn(), book);
+      }
+    }
+    created.forEach(book -> isbnFilter.put(book.getIsbn()));
+
+    // Обогащения существующих книг обновляются, для новых — вставляются через persist, без
+    // SELECT перед каждой вставкой, который делает save() для сущности с заданным id
+    Instant now = Instant.now();
+    List<Long> existingIds = existing.values().stream().map(Book::getId).toList();
+    Map<Long, BookEnrichment> enrichments =
+        bookEnrichmentRepository.findAllById(existingIds).stream()
+            .collect(Collectors.toMap(BookEnrichment::getBookId, Function.identity()));
+    List<Book> books = new ArrayList<>(existing.values());
+    books.addAll(created);
+    for (Book book : books) {
+      BookInfoResponse info = infos.get(book.getIsbn());
+      BookEnrichment enrichment = enrichments.get(book.getId());
+      if (enrichment == null) {
+        entityManager.persist(
+            BookEnrichment.builder().bookId(book.getId()).payload(info).enrichedAt(now).build());
+      } else {
+        enrichment.setPayload(info);
+        enrichment.setEnrichedAt(now);
+      }
+    }
+
+    entityManager.flush();
+    bookCache.evictAfterCommit(existingIds);
+    entityManager.clear();
+    return new UpsertResult(created.size(), existing.size());
+  }
+
+  private void evictExpired() {
+    Instant threshold = Instant.now().minus(properties.getRetention());
+    jobs.values().removeIf(job -> job.finishedAt() != null && job.finishedAt().isBefore(threshold));
+  }
+
+  private void count(String result, int amount) {
+    itemCounters.get(result).increment(amount);
+  }
+
+  private static double countActive(Map<UUID, BookImportJob> jobs) {
+    return jobs.values().stream().filter(job -> job.finishedAt() == null).count();
+  }
+
+  private record UpsertResult(int created, int updated) {}
+}
@@ -3,19 +3,53 @@ package ru.mentee.library.service;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.mentee.library.api.dto.BookDetailsResponse;
 import ru.mentee.library.api.dto.BookInfoResponse;
+import ru.mentee.library.api.dto.BookPageResponse;
 import ru.mentee.library.api.dto.CreateBookRequest;
-import ru.mentee.library.api.dto.OpenLibraryBookDto;
-import ru.mentee.library.client.OpenLibraryClient;
+import ru.mentee.library.api.dto.IsbnInfoBatchResponse;
+import ru.mentee.library.cache.BookCache;
+import ru.mentee.library.cache.IsbnBloomFilter;
+import ru.mentee.library.cache.IsbnInfoCache;
+import ru.mentee.library.cache.SingleFlight;
+import ru.mentee.library.client.OpenLibraryBatcher;
+import ru.mentee.library.client.OpenLibraryRateLimiter;
+import ru.mentee.library.client.OpenLibraryUnavailableException;
+import ru.mentee.library.config.BookPagingProperties;
+import ru.mentee.library.config.OpenLibraryRateLimitProperties;
+import ru.mentee.library.config.OpenLibraryResilienceProperties;
 import ru.mentee.library.domain.model.Book;
+import ru.mentee.library.domain.model.BookEnrichment;
+import ru.mentee.library.domain.repository.BookEnrichmentRepository;
 import ru.mentee.library.domain.repository.BookRepository;
+import ru.mentee.library.index.IsbnIndex;
 
 @Service
 @RequiredArgsConstructor
@@ -23,71 +57,330 @@ import ru.mentee.library.domain.repository.BookRepository;
 public class BookService {
 
   private final BookRepository bookRepository;
-  private final OpenLibraryClient openLibraryClient;
+  private final BookEnrichmentRepository bookEnrichmentRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final OpenLibraryBatcher openLibraryBatcher;
   private final MeterRegistry meterRegistry;
+  private final BookPagingProperties pagingProperties;
+  private final BookCache bookCache;
+  private final IsbnInfoCache isbnInfoCache;
+  private final IsbnBloomFilter isbnFilter;
+  private final IsbnIndex isbnIndex;
+  private final OpenLibraryResilienceProperties resilienceProperties;
+  private final OpenLibraryRateLimitProperties rateLimitProperties;
+  // JDBC (L2-кэш) в асинхронном пути — на виртуальных потоках, а не на потоках контейнера
+  private final ExecutorService blockingExecutor = Executors.newVirtualThreadPerTaskExecutor();
   private Counter booksCreatedCounter;
+  private SingleFlight<String, BookInfoResponse> isbnLookups;
 
   @PostConstruct
   public void init() {
-    log.info("OpenLibraryClient initialized: {}", openLibraryClient != null);
     this.booksCreatedCounter =
         Counter.builder("books_created_total")
             .description("Total number of created books")
             .register(meterRegistry);
+    this.isbnLookups =
+        new SingleFlight<>(
+            Counter.builder("openlibrary_lookups_coalesced_total")
+                .description("ISBN lookups served by an already running identical lookup")
+                .register(meterRegistry));
   }
 
+  /**
+   * @throws InvalidIsbnException если ISBN некорректен — до любых обращений к кэшам и OpenLibrary
+   */
   public BookInfoResponse getBookInfoByIsbn(String isbn) {
+    // Канонический ISBN-13: ISBN-10 и ISBN-13 одной книги дают один ключ кэша и один запрос
+    String key = Isbn.canonical(isbn);
+    // Офлайн-индекс из дампа OpenLibrary: без сети и без кэшей
+    BookInfoResponse indexed = isbnIndex.find(key);
+    if (indexed != null) {
+      return indexed;
+    }
+    try {
+      // Одновременные запросы одного ISBN ждут один поход в кэш/OpenLibrary
+      return isbnLookups.execute(key, k -> isbnInfoCache.get(k, this::fetchBookInfo));
+    } catch (OpenLibraryUnavailableException e) {
+      // Пока OpenLibrary недоступен, устаревшие данные лучше ошибки
+      BookInfoResponse stale = isbnInfoCache.getStale(key);
+      if (stale == null) {
+        throw e;
+      }
+      log.info("Serving stale book info for ISBN {}: {}", key, e.getMessage());
+      return stale;
+    }
+  }
+
+  /**
+   * Неблокирующий вариант {@link #getBookInfoByIsbn}: ни один поток не ждёт ответа OpenLibrary.
+   *
+   * @throws InvalidIsbnException сразу, если ISBN некорректен
+   */
+  public CompletableFuture<BookInfoResponse> getBookInfoByIsbnAsync(String isbn) {
+    String key = Isbn.canonical(isbn);
+    BookInfoResponse indexed = isbnIndex.find(key);
+    if (indexed != null) {
+      return CompletableFuture.completedFuture(indexed);
+    }
+    return isbnLookups
+        .executeAsync(
+            key, k -> isbnInfoCache.getAsync(k, this::fetchBookInfoAsync, blockingExecutor))
+        .exceptionallyCompose(
+            e -> {
+              Throwable cause =
+                  e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+              if (!(cause instanceof OpenLibraryUnavailableException failure)) {
+                return CompletableFuture.failedFuture(cause);
+              }
+              // Пока OpenLibrary недоступен, устаревшие данные лучше ошибки
+              return CompletableFuture.supplyAsync(
+                  () -> {
+                    BookInfoResponse stale = isbnInfoCache.getStale(key);
+                    if (stale == null) {
+                      throw failure;
+                    }
+                    log.info("Serving stale book info for ISBN {}: {}", key, failure.getMessage());
+                    return stale;
+                  },
+                  blockingExecutor);
+            });
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    blockingExecutor.shutdown();
+  }
+
+  private CompletableFuture<BookInfoResponse> fetchBookInfoAsync(String isbn) {
+    log.info("Fetching book info for ISBN: {}", isbn);
+    return openLibraryBatcher
+        .lookup(isbn)
+        .orTimeout(resilienceProperties.getTimeoutBudget().toMillis(), TimeUnit.MILLISECONDS)
+        .handle(
+            (bookInfo, error) -> {
+              if (error != null) {
+                throw lookupFailure(error, isbn);
+              }
+              if (bookInfo == null) {
+                log.warn("Book not found for ISBN: {}", isbn);
+              }
+              return bookInfo;
+            });
+  }
+
+  private BookInfoResponse fetchBookInfo(String isbn) {
     log.info("Fetching book info for ISBN: {}", isbn);
 
     try {
-      String bibkeys = "ISBN:" + isbn;
-      log.debug("Calling Feign client with bibkeys: {}", bibkeys);
+      // Батчер объединяет ISBN от параллельных запросов в один multi-bibkey вызов
+      BookInfoResponse bookInfo =
+          openLibraryBatcher
+              .lookup(isbn)
+              .orTimeout(resilienceProperties.getTimeoutBudget().toMillis(), TimeUnit.MILLISECONDS)
+              .join();
+
+      log.debug("Book for ISBN {}: {}", isbn, bookInfo);
+
+      if (bookInfo == null) {
+        log.warn("Book not found for ISBN: {}", isbn);
+      }
+      return bookInfo;
+    } catch (Exception e) {
+      throw lookupFailure(e, isbn);
+    }
+  }
+
+  /**
+   * Информация по нескольким ISBN за один проход: офлайн-индекс, затем кэши, затем один
+   * multi-bibkey запрос к OpenLibrary за оставшимися.
+   *
+   * @return информация по каждому переданному ISBN в исходном написании; {@code null} в значении —
+   *     книга не найдена
+   * @throws InvalidIsbnException если хотя бы один ISBN некорректен — до обращений к OpenLibrary
+   */
+  public IsbnInfoBatchResponse getBookInfoByIsbns(List<String> isbns) {
+    return getBookInfoByIsbns(isbns, OpenLibraryRateLimiter.Priority.INTERACTIVE);
+  }
 
-      Map<String, OpenLibraryBookDto> response =
-          openLibraryClient.getBookByIsbn(bibkeys, "json", "data");
+  /**
+   * Если OpenLibrary недоступен, ISBN без устаревшей записи в кэше возвращаются в списке {@code
+   * unavailable}, остальные — как обычно.
+   *
+   * @param priority очередь в ограничителе скорости OpenLibrary; фоновые задачи передают {@code
+   *     BACKGROUND}
+   */
+  public IsbnInfoBatchResponse getBookInfoByIsbns(
+      List<String> isbns, OpenLibraryRateLimiter.Priority priority) {
+    Map<String, String> keys = new LinkedHashMap<>();
+    for (String isbn : isbns) {
+      keys.put(isbn, Isbn.canonical(isbn));
+    }
 
-      OpenLibraryBookDto bookDto =
-          response != null && !response.isEmpty()
-              ? response.values().iterator().next() // Берём первую книгу из Map
-              : null;
+    Map<String, BookInfoResponse> found = new HashMap<>();
+    Set<String> missing = new LinkedHashSet<>();
+    for (String key : keys.values()) {
+      BookInfoResponse indexed = isbnIndex.find(key);
+      if (indexed != null) {
+        found.put(key, indexed);
+      } else {
+        missing.add(key);
+      }
+    }
 
-      log.debug("First book: {}", bookDto);
+    if (!missing.isEmpty()) {
+      found.putAll(isbnInfoCache.getAllPresent(missing));
+      missing.removeAll(found.keySet());
+    }
 
-      if (bookDto == null) {
-        log.warn("Book not found for ISBN: {}", isbn);
-        return null;
+    Set<String> unavailable = new HashSet<>();
+    if (!missing.isEmpty()) {
+      try {
+        Map<String, BookInfoResponse> fetched = fetchBookInfos(missing, priority);
+        Map<String, BookInfoResponse> loaded = new HashMap<>();
+        missing.forEach(key -> loaded.put(key, fetched.get(key)));
+        isbnInfoCache.putAll(loaded);
+        found.putAll(loaded);
+      } catch (OpenLibraryUnavailableException e) {
+        for (String key : missing) {
+          BookInfoResponse stale = isbnInfoCache.getStale(key);
+          if (stale != null) {
+            found.put(key, stale);
+          } else {
+            unavailable.add(key);
+          }
+        }
+        log.info(
+            "Serving stale book info for {} ISBNs, {} unavailable: {}",
+            missing.size() - unavailable.size(),
+            unavailable.size(),
+            e.getMessage());
       }
+    }
+
+    Map<String, BookInfoResponse> books = new LinkedHashMap<>();
+    List<String> unavailableIsbns = new ArrayList<>();
+    keys.forEach(
+        (isbn, key) -> {
+          if (unavailable.contains(key)) {
+            unavailableIsbns.add(isbn);
+          } else {
+            books.put(isbn, found.get(key));
+          }
+        });
+    return new IsbnInfoBatchResponse(books, unavailableIsbns);
+  }
+
+  private Map<String, BookInfoResponse> fetchBookInfos(
+      Set<String> isbns, OpenLibraryRateLimiter.Priority priority) {
+    log.info("Fetching book info for {} ISBNs", isbns.size());
 
-      return BookInfoResponse.from(bookDto);
+    try {
+      return openLibraryBatcher
+          .lookupAll(isbns, priority)
+          .orTimeout(timeoutBudget(priority).toMillis(), TimeUnit.MILLISECONDS)
+          .join();
     } catch (Exception e) {
-      log.error("Error fetching book info for ISBN: {}", isbn, e);
-      throw new RuntimeException("Failed to fetch book information", e);
+      throw lookupFailure(e, isbns);
+    }
+  }
+
+  /**
+   * Фоновый запрос до {@code background-max-wait} ждёт токен ограничителя скорости, поэтому его
+   * бюджет больше на это время: иначе импорт сдавался бы, ещё стоя в очереди.
+   */
+  private Duration timeoutBudget(OpenLibraryRateLimiter.Priority priority) {
+    Duration budget = resilienceProperties.getTimeoutBudget();
+    if (priority == OpenLibraryRateLimiter.Priority.BACKGROUND && rateLimitProperties.isEnabled()) {
+      return budget.plus(rateLimitProperties.getBackgroundMaxWait());
+    }
+    return budget;
+  }
+
+  private static RuntimeException lookupFailure(Throwable e, Object isbns) {
+    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+    if (cause instanceof TimeoutException) {
+      log.warn("OpenLibrary did not answer within budget for ISBN: {}", isbns);
+      return new OpenLibraryUnavailableException("OpenLibrary did not answer in time", cause);
+    }
+    if (cause instanceof OpenLibraryUnavailableException unavailable) {
+      log.warn("OpenLibrary is unavailable for ISBN {}: {}", isbns, unavailable.getMessage());
+      return unavailable;
     }
+    log.error("Error fetching book info for ISBN: {}", isbns, cause);
+    return new RuntimeException("Failed to fetch book information", cause);
   }
 
-  public Book createBookFromIsbn(String isbn) {
+  /**
+   * Создаёт книгу по данным OpenLibrary. Если книга с этим ISBN уже есть, возвращает её без похода
+   * в OpenLibrary.
+   */
+  public Book createBookFromIsbn(String rawIsbn) {
+    String isbn = Isbn.canonical(rawIsbn);
+    Optional<Book> existing = findByIsbn(isbn);
+    if (existing.isPresent()) {
+      return existing.get();
+    }
+
     BookInfoResponse bookInfo = getBookInfoByIsbn(isbn);
 
     if (bookInfo == null) {
       throw new IllegalArgumentException("Book not found for ISBN: " + isbn);
     }
 
-    Book book =
-        Book.builder()
-            .title(bookInfo.getTitle())
-            .isbn(isbn)
-            .author(
-                bookInfo.getAuthors() != null && !bookInfo.getAuthors().isEmpty()
-                    ? bookInfo.getAuthors().get(0)
-                    : "Unknown")
-            .publicationYear(
-                bookInfo.getPublishDate() != null ? extractYear(bookInfo.getPublishDate()) : null)
-            .build();
+    Book book = toBook(isbn, bookInfo);
 
-    return bookRepository.save(book);
+    // Поход в OpenLibrary — до транзакции, чтобы не держать соединение с БД
+    return transactionTemplate.execute(
+        status -> {
+          // Upsert: параллельный запрос с тем же ISBN не упадёт на уникальном индексе
+          Long id = bookRepository.insertIfAbsent(book);
+          if (id == null) {
+            return bookRepository.findByIsbn(isbn).orElseThrow();
+          }
+          book.setId(id);
+          bookEnrichmentRepository.save(
+              BookEnrichment.builder()
+                  .bookId(id)
+                  .payload(bookInfo)
+                  .enrichedAt(Instant.now())
+                  .build());
+          isbnFilter.put(isbn);
+          bookCache.putAfterCommit(book);
+          return book;
+        });
   }
 
-  private Integer extractYear(String publishDate) {
+  /** Фильтр Блума отсекает отсутствующие ISBN без запроса; остальные проверяются по индексу. */
+  private Optional<Book> findByIsbn(String isbn) {
+    if (!isbnFilter.mightContain(isbn)) {
+      return Optional.empty();
+    }
+    Optional<Book> book = bookRepository.findByIsbn(isbn);
+    if (book.isEmpty()) {
+      isbnFilter.recordFalsePositive();
+    }
+    return book;
+  }
+
+  /** Новая книга по данным OpenLibrary; {@code isbn} — канонический. */
+  static Book toBook(String isbn, BookInfoResponse bookInfo) {
+    Book book = Book.builder().isbn(isbn).build();
+    applyInfo(book, bookInfo);
+    return book;
+  }
+
+  /** Переносит в книгу название, первого автора и год из данных OpenLibrary. */
+  static void applyInfo(Book book, BookInfoResponse bookInfo) {
+    book.setTitle(bookInfo.getTitle());
+    book.setAuthor(
+        bookInfo.getAuthors() != null && !bookInfo.getAuthors().isEmpty()
+            ? bookInfo.getAuthors().get(0)
+            : "Unknown");
+    book.setPublicationYear(
+        bookInfo.getPublishDate() != null ? extractYear(bookInfo.getPublishDate()) : null);
+  }
+
+  private static Integer extractYear(String publishDate) {
     try {
       // Пытаемся извлечь год из строки (может быть "1961" или "1961-01-01")
       if (publishDate != null && !publishDate.isEmpty()) {
@@ -100,8 +393,24 @@ public class BookService {
     return null;
   }
 
-  public List<Book> findAll() {
-    return bookRepository.findAll();
+  @Transactional(readOnly = true)
+  public BookPageResponse findPage(String cursor, Integer size) {
+    int pageSize =
+        size == null
+            ? pagingProperties.getDefaultSize()
+            : Math.max(1, Math.min(size, pagingProperties.getMaxSize()));
+    long afterId = cursor == null || cursor.isBlank() ? 0L : BookCursor.decode(cursor);
+
+    Slice<Book> slice =
+        bookRepository.findByIdGreaterThan(
+            afterId, PageRequest.of(0, pageSize, Sort.by(Sort.Direction.ASC, "id")));
+
+    List<Book> items = slice.getContent();
+    String next =
+        slice.hasNext() && !items.isEmpty()
+            ? BookCursor.encode(items.get(items.size() - 1).getId())
+            : null;
+    return new BookPageResponse(items, next);
   }
 
   @PreAuthorize("hasRole('LIBRARIAN') or hasRole('ADMIN')")
@@ -116,26 +425,49 @@ public class BookService {
             .build();
     Book savedBook = bookRepository.save(book);
     booksCreatedCounter.increment();
+    bookCache.putAfterCommit(savedBook);
     return savedBook;
   }
 
   public Book findById(Long id) {
-    return bookRepository
+    Book book = bookCache.get(id, key -> bookRepository.findById(key).orElse(null));
+    if (book == null) {
+      throw new RuntimeException("Book not found: " + id);
+    }
+    return book;
+  }
+
+  /** Книга с сохранённым обогащением — только из БД, без обращения к OpenLibrary. */
+  @Transactional(readOnly = true)
+  public BookDetailsResponse findDetails(Long id) {
+    Book book = findById(id);
+    return bookEnrichmentRepository
         .findById(id)
-        .orElseThrow(() -> new RuntimeException("Book not found: " + id));
+        .map(e -> new BookDetailsResponse(book, e.getPayload(), e.getEnrichedAt()))
+        .orElseGet(() -> new BookDetailsResponse(book, null, null));
   }
 
   @Transactional
   public Book updateBook(Long id, CreateBookRequest request) {
-    Book book = findById(id);
+    // Читаем мимо кэша: экземпляр из кэша общий и его нельзя менять
+    Book book =
+        bookRepository
+            .findById(id)
+            .orElseThrow(() -> new RuntimeException("Book not found: " + id));
     book.setTitle(request.getTitle());
     book.setAuthor(request.getAuthor());
     book.setPublicationYear(request.getPublicationYear());
-    return bookRepository.save(book);
+    Book savedBook = bookRepository.save(book);
+    bookCache.evictAfterCommit(id);
+    return savedBook;
   }
 
+  /** Удаляет книгу одним запросом; возвращает {@code false}, если книги не было. */
   @Transactional
-  public void deleteBook(Long id) {
-    bookRepository.deleteById(id);
+  public boolean deleteBook(Long id) {
+    bookEnrichmentRepository.deleteByBookIds(List.of(id));
+    boolean deleted = bookRepository.deleteBookById(id) > 0;
+    bookCache.evictAfterCommit(id);
+    return deleted;
   }
 }
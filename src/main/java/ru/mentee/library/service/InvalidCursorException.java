@@ -0,0 +1,8 @@
+package ru.mentee.library.service;
+
+public class InvalidCursorException extends IllegalArgumentException {
+
+  public InvalidCursorException(String cursor) {
+    super("Invalid cursor: " + cursor);
+  }
+}
@@ -0,0 +1,8 @@
+package ru.mentee.library.service;
+
+public class InvalidIsbnException extends IllegalArgumentException {
+
+  public InvalidIsbnException(CharSequence isbn) {
+    super("Invalid ISBN: " + isbn);
+  }
+}
@@ -0,0 +1,111 @@
+package ru.mentee.library.service;
+
+/**
+ * Разбор ISBN: дефисы и пробелы пропускаются, контрольная цифра ISBN-10/13 проверяется, результат —
+ * канонический ISBN-13. Разбор идёт по символам без промежуточных строк, единственная аллокация —
+ * итоговая строка в {@link #canonical}.
+ */
+public final class Isbn {
+
+  private static final long PREFIX_978 = 978_000_000_000L;
+  private static final long PREFIX_DIVISOR = 10_000_000_000L;
+
+  private Isbn() {}
+
+  /**
+   * @return канонический ISBN-13, например {@code 9780140328721} для {@code 0-14-032872-6}
+   * @throws InvalidIsbnException если это не корректный ISBN-10 или ISBN-13
+   */
+  public static String canonical(CharSequence raw) {
+    long isbn13 = parse(raw);
+    if (isbn13 < 0) {
+      throw new InvalidIsbnException(raw);
+    }
+    return Long.toString(isbn13);
+  }
+
+  /**
+   * @return ISBN-13 в виде числа или {@code -1}, если строка не является корректным ISBN
+   */
+  public static long parse(CharSequence raw) {
+    if (raw == null) {
+      return -1;
+    }
+    int length = 0;
+    for (int i = 0; i < raw.length(); i++) {
+      if (!isSeparator(raw.charAt(i))) {
+        length++;
+      }
+    }
+    return switch (length) {
+      case 10 -> parseIsbn10(raw);
+      case 13 -> parseIsbn13(raw);
+      default -> -1;
+    };
+  }
+
+  private static long parseIsbn10(CharSequence raw) {
+    long value = 0;
+    int sum = 0;
+    int position = 0;
+    for (int i = 0; i < raw.length(); i++) {
+      char c = raw.charAt(i);
+      if (isSeparator(c)) {
+        continue;
+      }
+      int digit;
+      if (c >= '0' && c <= '9') {
+        digit = c - '0';
+      } else if ((c == 'X' || c == 'x') && position == 9) {
+        digit = 10; // X допустим только как контрольная цифра
+      } else {
+        return -1;
+      }
+      sum += digit * (10 - position);
+      if (position < 9) {
+        value = value * 10 + digit;
+      }
+      position++;
+    }
+    if (sum % 11 != 0) {
+      return -1;
+    }
+    // ISBN-10 → ISBN-13: префикс 978 и пересчитанная контрольная цифра
+    long first12 = PREFIX_978 + value;
+    return first12 * 10 + isbn13CheckDigit(first12);
+  }
+
+  private static long parseIsbn13(CharSequence raw) {
+    long value = 0;
+    int sum = 0;
+    int position = 0;
+    for (int i = 0; i < raw.length(); i++) {
+      char c = raw.charAt(i);
+      if (isSeparator(c)) {
+        continue;
+      }
+      if (c < '0' || c > '9') {
+        return -1;
+      }
+      int digit = c - '0';
+      sum += digit * (position % 2 == 0 ? 1 : 3);
+      value = value * 10 + digit;
+      position++;
+    }
+    long prefix = value / PREFIX_DIVISOR;
+    return sum % 10 == 0 && (prefix == 978 || prefix == 979) ? value : -1;
+  }
+
+  private static int isbn13CheckDigit(long first12) {
+    int sum = 0;
+    for (int position = 11; position >= 0; position--) {
+      sum += (int) (first12 % 10) * (position % 2 == 0 ? 1 : 3);
+      first12 /= 10;
+    }
+    return (10 - sum % 10) % 10;
+  }
+
+  private static boolean isSeparator(char c) {
+    return c == '-' || c == ' ';
+  }
+}
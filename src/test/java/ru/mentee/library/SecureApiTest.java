@@ -179,8 +179,8 @@ class SecureApiTest {
         .get("/api/books")
         .then()
         .spec(successSpec)
-        .body("$", isA(List.class))
-        .body("size()", greaterThanOrEqualTo(0));
+        .body("items", isA(List.class))
+        .body("items.size()", greaterThanOrEqualTo(0));
   }
 
   @Test
@@ -286,18 +286,18 @@ class SecureApiTest {
         .then()
         .spec(successSpec)
         // Проверяем, что список не пустой
-        .body("$", hasSize(greaterThan(0)))
+        .body("items", hasSize(greaterThan(0)))
         // Проверяем, что у всех книг есть title
-        .body("title", everyItem(notNullValue()))
+        .body("items.title", everyItem(notNullValue()))
         // Проверяем, что у всех книг есть author
-        .body("author", everyItem(notNullValue()))
+        .body("items.author", everyItem(notNullValue()))
         // Проверяем, что есть книга с определенным названием
-        .body("find { it.title == 'Book 1' }", notNullValue())
-        .body("find { it.title == 'Book 1' }.author", equalTo("Author A"))
+        .body("items.find { it.title == 'Book 1' }", notNullValue())
+        .body("items.find { it.title == 'Book 1' }.author", equalTo("Author A"))
         // Проверяем, что все книги имеют id
-        .body("id", everyItem(notNullValue()))
+        .body("items.id", everyItem(notNullValue()))
         // Проверяем, что все id больше 0
-        .body("id", everyItem(greaterThan(0)));
+        .body("items.id", everyItem(greaterThan(0)));
   }
 
   @Test
@@ -380,7 +380,7 @@ class SecureApiTest {
 
     // Проверяем, что есть книги с publicationYear >= 2020
     List<Integer> recentYears =
-        response.path("findAll { it.publicationYear >= 2020 }.publicationYear");
+        response.path("items.findAll { it.publicationYear >= 2020 }.publicationYear");
     assertNotNull(recentYears);
     assertTrue(recentYears.size() > 0);
   }
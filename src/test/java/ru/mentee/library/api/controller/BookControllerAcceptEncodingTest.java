@@ -0,0 +1,34 @@
+package ru.mentee.library.api.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class BookControllerAcceptEncodingTest {
+
+  @ParameterizedTest
+  @DisplayName("Should choose gzip only when Accept-Encoding gives it a non-zero weight")
+  @CsvSource(
+      delimiter = '|',
+      nullValues = "null",
+      value = {
+        "null | false",
+        "identity | false",
+        "gzip | true",
+        "GZIP | true",
+        "deflate, gzip;q=0.5 | true",
+        "gzip;q=0 | false",
+        "gzip; q=0.000, deflate | false",
+        "br;q=1.0, gzip;Q=0 | false",
+        "* | true",
+        "*;q=0 | false",
+        "gzip;q=0, * | false",
+        "gzip;q=abc | false",
+        "x-gzip | true"
+      })
+  void shouldHonorQualityValues(String acceptEncoding, boolean expected) {
+    assertThat(BookController.acceptsGzip(acceptEncoding)).isEqualTo(expected);
+  }
+}
@@ -19,7 +19,18 @@ import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.mentee.library.api.dto.BookPageResponse;
+import ru.mentee.library.cache.BookCoverCache;
+import ru.mentee.library.config.ApiLatencyProperties;
+import ru.mentee.library.config.BookBatchProperties;
+import ru.mentee.library.config.BookCoverProperties;
+import ru.mentee.library.config.BookExportProperties;
+import ru.mentee.library.config.BookImportProperties;
+import ru.mentee.library.config.OpenLibraryBatchProperties;
 import ru.mentee.library.domain.model.Book;
+import ru.mentee.library.service.BookBatchService;
+import ru.mentee.library.service.BookExportService;
+import ru.mentee.library.service.BookImportService;
 import ru.mentee.library.service.BookService;
 
 @WebMvcTest(
@@ -35,12 +46,50 @@ class BookControllerTest {
     public MeterRegistry meterRegistry() {
       return new SimpleMeterRegistry();
     }
+
+    @Bean
+    public BookBatchProperties bookBatchProperties() {
+      return new BookBatchProperties();
+    }
+
+    @Bean
+    public OpenLibraryBatchProperties openLibraryBatchProperties() {
+      return new OpenLibraryBatchProperties();
+    }
+
+    @Bean
+    public BookImportProperties bookImportProperties() {
+      return new BookImportProperties();
+    }
+
+    @Bean
+    public BookCoverProperties bookCoverProperties() {
+      return new BookCoverProperties();
+    }
+
+    @Bean
+    public ApiLatencyProperties apiLatencyProperties() {
+      return new ApiLatencyProperties();
+    }
+
+    @Bean
+    public BookExportProperties bookExportProperties() {
+      return new BookExportProperties();
+    }
   }
 
   @Autowired private MockMvc mockMvc;
 
   @MockitoBean private BookService bookService;
 
+  @MockitoBean private BookExportService bookExportService;
+
+  @MockitoBean private BookBatchService bookBatchService;
+
+  @MockitoBean private BookImportService bookImportService;
+
+  @MockitoBean private BookCoverCache bookCoverCache;
+
   @Test
   @DisplayName("Should return book by id")
   void shouldReturnBookById() throws Exception {
@@ -82,17 +131,18 @@ class BookControllerTest {
             .build();
 
     List<Book> books = Arrays.asList(book1, book2);
-    when(bookService.findAll()).thenReturn(books);
+    when(bookService.findPage(null, null)).thenReturn(new BookPageResponse(books, "next-cursor"));
 
     // When & Then
     mockMvc
         .perform(get("/api/books"))
         .andExpect(status().isOk())
-        .andExpect(jsonPath("$").isArray())
-        .andExpect(jsonPath("$[0].id").value(1))
-        .andExpect(jsonPath("$[0].title").value("1984"))
-        .andExpect(jsonPath("$[1].id").value(2))
-        .andExpect(jsonPath("$[1].title").value("Animal Farm"));
+        .andExpect(jsonPath("$.items").isArray())
+        .andExpect(jsonPath("$.items[0].id").value(1))
+        .andExpect(jsonPath("$.items[0].title").value("1984"))
+        .andExpect(jsonPath("$.items[1].id").value(2))
+        .andExpect(jsonPath("$.items[1].title").value("Animal Farm"))
+        .andExpect(jsonPath("$.next").value("next-cursor"));
   }
 
   @Test
@@ -0,0 +1,173 @@
+package ru.mentee.library.api.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.mentee.library.cache.BookCoverCache;
+import ru.mentee.library.config.ApiLatencyProperties;
+import ru.mentee.library.config.BookBatchProperties;
+import ru.mentee.library.config.BookCoverProperties;
+import ru.mentee.library.config.BookExportProperties;
+import ru.mentee.library.config.BookImportProperties;
+import ru.mentee.library.config.OpenLibraryBatchProperties;
+import ru.mentee.library.service.BookBatchService;
+import ru.mentee.library.service.BookExportService;
+import ru.mentee.library.service.BookImportService;
+import ru.mentee.library.service.BookService;
+
+@WebMvcTest(
+    controllers = BookController.class,
+    excludeAutoConfiguration = SecurityAutoConfiguration.class,
+    properties = {"spring.mvc.async.request-timeout=10s", "library.books.export.timeout=45m"})
+@AutoConfigureMockMvc(addFilters = false)
+class BookExportControllerTest {
+
+  private static final String NDJSON = "{\"id\":1,\"title\":\"1984\"}\n";
+
+  @TestConfiguration
+  static class TestConfig {
+    @Bean
+    public MeterRegistry meterRegistry() {
+      return new SimpleMeterRegistry();
+    }
+
+    @Bean
+    public BookBatchProperties bookBatchProperties() {
+      return new BookBatchProperties();
+    }
+
+    @Bean
+    public OpenLibraryBatchProperties openLibraryBatchProperties() {
+      return new OpenLibraryBatchProperties();
+    }
+
+    @Bean
+    public BookImportProperties bookImportProperties() {
+      return new BookImportProperties();
+    }
+
+    @Bean
+    public BookCoverProperties bookCoverProperties() {
+      return new BookCoverProperties();
+    }
+
+    @Bean
+    public ApiLatencyProperties apiLatencyProperties() {
+      return new ApiLatencyProperties();
+    }
+
+    @Bean
+    public BookExportProperties bookExportProperties() {
+      return new BookExportProperties();
+    }
+  }
+
+  @Autowired private MockMvc mockMvc;
+
+  @MockitoBean private BookService bookService;
+
+  @MockitoBean private BookExportService bookExportService;
+
+  @MockitoBean private BookBatchService bookBatchService;
+
+  @MockitoBean private BookImportService bookImportService;
+
+  @MockitoBean private BookCoverCache bookCoverCache;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    when(bookExportService.exportNdjson(any()))
+        .thenAnswer(
+            invocation -> {
+              OutputStream out = invocation.getArgument(0);
+              out.write(NDJSON.getBytes(StandardCharsets.UTF_8));
+              return 1L;
+            });
+  }
+
+  @Test
+  @DisplayName("Should give only the export its own long async timeout")
+  void shouldUseExportTimeout() throws Exception {
+    // When
+    MvcResult started =
+        mockMvc.perform(get("/api/books/export")).andExpect(request().asyncStarted()).andReturn();
+
+    // Then: общий таймаут 10s на экспорт не действует
+    assertThat(started.getRequest().getAsyncContext().getTimeout())
+        .isEqualTo(Duration.ofMinutes(45).toMillis());
+    mockMvc
+        .perform(asyncDispatch(started))
+        .andExpect(status().isOk())
+        .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+        .andExpect(content().string(NDJSON));
+  }
+
+  @Test
+  @DisplayName("Should compress the export when gzip is accepted")
+  void shouldCompressWhenGzipAccepted() throws Exception {
+    // When
+    MvcResult started =
+        mockMvc
+            .perform(get("/api/books/export").header(HttpHeaders.ACCEPT_ENCODING, "gzip, br"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+    MvcResult result =
+        mockMvc
+            .perform(asyncDispatch(started))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+            .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+            .andReturn();
+
+    // Then
+    byte[] body = result.getResponse().getContentAsByteArray();
+    try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+      assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(NDJSON);
+    }
+  }
+
+  @Test
+  @DisplayName("Should not compress the export when gzip is refused with q=0")
+  void shouldNotCompressWhenGzipRefused() throws Exception {
+    // When
+    MvcResult started =
+        mockMvc
+            .perform(get("/api/books/export").header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    // Then
+    mockMvc
+        .perform(asyncDispatch(started))
+        .andExpect(status().isOk())
+        .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+        .andExpect(content().string(NDJSON));
+  }
+}
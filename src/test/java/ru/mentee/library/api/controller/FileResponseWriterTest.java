@@ -0,0 +1,116 @@
+package ru.mentee.library.api.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class FileResponseWriterTest {
+
+  @TempDir Path directory;
+
+  private Path file;
+  private final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/cover");
+  private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+  @BeforeEach
+  void setUp() throws Exception {
+    file = Files.write(directory.resolve("cover.jpg"), "0123456789".getBytes());
+  }
+
+  @Test
+  @DisplayName("Should stream the whole file with long-lived cache headers")
+  void shouldWriteWholeFile() throws Exception {
+    // When
+    write();
+
+    // Then
+    assertThat(response.getStatus()).isEqualTo(200);
+    assertThat(response.getContentAsString()).isEqualTo("0123456789");
+    assertThat(response.getHeader(HttpHeaders.CACHE_CONTROL))
+        .isEqualTo("max-age=86400, public, immutable");
+    assertThat(response.getHeader(HttpHeaders.ACCEPT_RANGES)).isEqualTo("bytes");
+    assertThat(response.getHeader(HttpHeaders.ETAG)).isNotBlank();
+  }
+
+  @Test
+  @DisplayName("Should return a single requested range")
+  void shouldWriteRange() throws Exception {
+    // Given
+    request.addHeader(HttpHeaders.RANGE, "bytes=2-5");
+
+    // When
+    write();
+
+    // Then
+    assertThat(response.getStatus()).isEqualTo(206);
+    assertThat(response.getContentAsString()).isEqualTo("2345");
+    assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 2-5/10");
+    assertThat(response.getContentLengthLong()).isEqualTo(4);
+  }
+
+  @Test
+  @DisplayName("Should reject a range beyond the end of the file")
+  void shouldRejectUnsatisfiableRange() throws Exception {
+    // Given
+    request.addHeader(HttpHeaders.RANGE, "bytes=20-");
+
+    // When
+    write();
+
+    // Then
+    assertThat(response.getStatus()).isEqualTo(416);
+    assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */10");
+  }
+
+  @Test
+  @DisplayName("Should answer 304 when the client already has the file")
+  void shouldReturnNotModified() throws Exception {
+    // Given
+    write();
+    String etag = response.getHeader(HttpHeaders.ETAG);
+    MockHttpServletRequest conditional = new MockHttpServletRequest("GET", "/cover");
+    conditional.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+    MockHttpServletResponse notModified = new MockHttpServletResponse();
+
+    // When
+    FileResponseWriter.write(
+        conditional, notModified, file, MediaType.IMAGE_JPEG, Duration.ofDays(1));
+
+    // Then
+    assertThat(notModified.getStatus()).isEqualTo(304);
+    assertThat(notModified.getContentAsByteArray()).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Should hand the file over to Tomcat sendfile when supported")
+  void shouldUseSendfile() throws Exception {
+    // Given
+    request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+    request.addHeader(HttpHeaders.RANGE, "bytes=-3");
+
+    // When
+    write();
+
+    // Then: тело не пишется в поток ответа, его отправит коннектор
+    assertThat(response.getContentAsByteArray()).isEmpty();
+    assertThat(request.getAttribute("org.apache.tomcat.sendfile.filename"))
+        .isEqualTo(file.toAbsolutePath().toString());
+    assertThat(request.getAttribute("org.apache.tomcat.sendfile.start")).isEqualTo(7L);
+    assertThat(request.getAttribute("org.apache.tomcat.sendfile.end")).isEqualTo(10L);
+    assertThat(response.getContentLengthLong()).isEqualTo(3);
+  }
+
+  private void write() throws Exception {
+    FileResponseWriter.write(request, response, file, MediaType.IMAGE_JPEG, Duration.ofDays(1));
+  }
+}
@@ -0,0 +1,167 @@
+package ru.mentee.library.cache;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+import ru.mentee.library.config.BookCoverProperties;
+
+class BookCoverCacheTest {
+
+  private static final String ISBN = "978-0-14-032872-1";
+  private static final String COVER_PATH = "/b/isbn/9780140328721-L.jpg";
+
+  @TempDir Path directory;
+
+  private final WireMockServer coverService = new WireMockServer(options().dynamicPort());
+  private final BookCoverProperties properties = new BookCoverProperties();
+
+  @BeforeEach
+  void setUp() {
+    coverService.start();
+    properties.setUrl(coverService.baseUrl());
+    properties.setDirectory(directory.toString());
+  }
+
+  @AfterEach
+  void tearDown() {
+    coverService.stop();
+  }
+
+  @Test
+  @DisplayName("Should download a cover once and serve it from disk afterwards")
+  void shouldCacheCoverOnDisk() throws Exception {
+    // Given
+    byte[] image = {(byte) 0xFF, (byte) 0xD8, 1, 2, 3};
+    coverService.stubFor(get(urlPathEqualTo(COVER_PATH)).willReturn(aResponse().withBody(image)));
+    BookCoverCache cache = newCache();
+
+    // When
+    Path first = cache.get(ISBN);
+    Path second = cache.get("0140328726");
+
+    // Then
+    assertThat(first).isEqualTo(second);
+    assertThat(Files.readAllBytes(first)).isEqualTo(image);
+    coverService.verify(1, getRequestedFor(urlPathEqualTo(COVER_PATH)));
+  }
+
+  @Test
+  @DisplayName("Should remember ISBNs without a cover")
+  void shouldRememberMissingCovers() throws Exception {
+    // Given
+    coverService.stubFor(get(urlPathEqualTo(COVER_PATH)).willReturn(notFound()));
+    BookCoverCache cache = newCache();
+
+    // When
+    Path first = cache.get(ISBN);
+    Path second = cache.get(ISBN);
+
+    // Then
+    assertThat(first).isNull();
+    assertThat(second).isNull();
+    coverService.verify(1, getRequestedFor(urlPathEqualTo(COVER_PATH)));
+  }
+
+  @Test
+  @DisplayName("Should evict least recently requested covers over the size limit")
+  void shouldEvictLeastRecentlyUsed() throws Exception {
+    // Given
+    properties.setMaxSize(DataSize.ofBytes(25));
+    properties.setDeleteDelay(Duration.ZERO);
+    coverService.stubFor(
+        get(urlPathMatching("/b/isbn/.*")).willReturn(aResponse().withBody(new byte[10])));
+    BookCoverCache cache = newCache();
+    Path first = cache.get("9780140328721");
+    Path second = cache.get("9780261102385");
+    cache.get("9780140328721");
+
+    // When: третья обложка не влезает — вытесняется вторая, к первой обращались позже
+    Path third = cache.get("9780451524935");
+
+    // Then
+    assertThat(first).exists();
+    assertThat(second).doesNotExist();
+    assertThat(third).exists();
+    assertThat(cache.size()).isEqualTo(20);
+  }
+
+  @Test
+  @DisplayName("Should keep an evicted file on disk until the delete delay passes")
+  void shouldDeleteEvictedFileLater() throws Exception {
+    // Given
+    properties.setMaxSize(DataSize.ofBytes(15));
+    properties.setDeleteDelay(Duration.ofMillis(300));
+    coverService.stubFor(
+        get(urlPathMatching("/b/isbn/.*")).willReturn(aResponse().withBody(new byte[10])));
+    BookCoverCache cache = newCache();
+    Path first = cache.get("9780140328721");
+
+    // When: путь первой обложки уже выдан, а вторая её вытесняет
+    cache.get("9780261102385");
+
+    // Then
+    assertThat(first).exists();
+    assertThat(cache.size()).isEqualTo(10);
+    awaitDeleted(first);
+  }
+
+  @Test
+  @DisplayName("Should download again when the cached file has disappeared from disk")
+  void shouldTreatMissingFileAsMiss() throws Exception {
+    // Given
+    coverService.stubFor(
+        get(urlPathEqualTo(COVER_PATH)).willReturn(aResponse().withBody(new byte[5])));
+    BookCoverCache cache = newCache();
+    Files.delete(cache.get(ISBN));
+
+    // When
+    Path cover = cache.get(ISBN);
+
+    // Then
+    assertThat(cover).exists();
+    assertThat(cache.size()).isEqualTo(5);
+    coverService.verify(2, getRequestedFor(urlPathEqualTo(COVER_PATH)));
+  }
+
+  @Test
+  @DisplayName("Should pick up cached files after restart")
+  void shouldReloadCachedFiles() throws Exception {
+    // Given
+    Files.write(directory.resolve("9780140328721.jpg"), new byte[7]);
+    Files.write(directory.resolve("9780140328721-42.tmp"), new byte[3]);
+
+    // When
+    BookCoverCache cache = newCache();
+
+    // Then
+    assertThat(cache.get(ISBN)).isEqualTo(directory.resolve("9780140328721.jpg"));
+    assertThat(cache.size()).isEqualTo(7);
+    assertThat(directory.resolve("9780140328721-42.tmp")).doesNotExist();
+    coverService.verify(0, getRequestedFor(anyUrl()));
+  }
+
+  private static void awaitDeleted(Path file) throws InterruptedException {
+    for (int i = 0; i < 100 && Files.exists(file); i++) {
+      Thread.sleep(20);
+    }
+    assertThat(file).doesNotExist();
+  }
+
+  private BookCoverCache newCache() throws Exception {
+    BookCoverCache cache = new BookCoverCache(properties, new SimpleMeterRegistry());
+    cache.init();
+    return cache;
+  }
+}
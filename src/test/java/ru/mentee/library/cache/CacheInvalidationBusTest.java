@@ -0,0 +1,96 @@
+package ru.mentee.library.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.mentee.library.config.CacheInvalidationProperties;
+
+@Testcontainers(disabledWithoutDocker = true)
+class CacheInvalidationBusTest {
+
+  @Container
+  static PostgreSQLContainer<?> postgres =
+      new PostgreSQLContainer<>("postgres:15-alpine").withReuse(true);
+
+  private DriverManagerDataSource dataSource;
+  private CacheInvalidationBus nodeA;
+  private CacheInvalidationBus nodeB;
+  private final BlockingQueue<String> evictedOnB = new LinkedBlockingQueue<>();
+  private final CountDownLatch nodeBReady = new CountDownLatch(1);
+
+  @BeforeEach
+  void setUp() throws InterruptedException {
+    dataSource =
+        new DriverManagerDataSource(
+            postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+    nodeA = newNode();
+    nodeB = newNode();
+    // evictAll вызывается, когда LISTEN установлен — значит, узел готов принимать уведомления
+    nodeB.subscribe(CacheInvalidationBus.BOOK, evictedOnB::add, nodeBReady::countDown);
+    nodeA.start();
+    nodeB.start();
+    assertThat(nodeBReady.await(10, TimeUnit.SECONDS)).isTrue();
+  }
+
+  @AfterEach
+  void tearDown() {
+    nodeA.stop();
+    nodeB.stop();
+  }
+
+  @Test
+  @DisplayName("Should deliver invalidation to another node after commit")
+  void shouldDeliverInvalidationAfterCommit() throws InterruptedException {
+    // When
+    new TransactionTemplate(new DataSourceTransactionManager(dataSource))
+        .executeWithoutResult(
+            status -> nodeA.publish(CacheInvalidationBus.BOOK, List.of(42L, 43L)));
+
+    // Then
+    assertThat(evictedOnB.poll(5, TimeUnit.SECONDS)).isEqualTo("42");
+    assertThat(evictedOnB.poll(5, TimeUnit.SECONDS)).isEqualTo("43");
+  }
+
+  @Test
+  @DisplayName("Should not deliver invalidation when transaction rolls back")
+  void shouldNotDeliverInvalidationOnRollback() throws InterruptedException {
+    // When
+    new TransactionTemplate(new DataSourceTransactionManager(dataSource))
+        .executeWithoutResult(
+            status -> {
+              nodeA.publish(CacheInvalidationBus.BOOK, List.of(7L));
+              status.setRollbackOnly();
+            });
+
+    // Then
+    assertThat(evictedOnB.poll(1, TimeUnit.SECONDS)).isNull();
+  }
+
+  private CacheInvalidationBus newNode() {
+    DataSourceProperties dataSourceProperties = new DataSourceProperties();
+    dataSourceProperties.setUrl(postgres.getJdbcUrl());
+    dataSourceProperties.setUsername(postgres.getUsername());
+    dataSourceProperties.setPassword(postgres.getPassword());
+
+    CacheInvalidationProperties properties = new CacheInvalidationProperties();
+    properties.setEnabled(true);
+    properties.setPollTimeout(Duration.ofMillis(100));
+    return new CacheInvalidationBus(dataSource, dataSourceProperties, properties);
+  }
+}
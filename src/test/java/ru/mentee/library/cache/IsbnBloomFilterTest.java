@@ -0,0 +1,76 @@
+package ru.mentee.library.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.mentee.library.config.IsbnFilterProperties;
+import ru.mentee.library.domain.model.Book;
+import ru.mentee.library.domain.repository.BookRepository;
+
+@DataJpaTest
+@Import({IsbnBloomFilter.class, IsbnBloomFilterTest.TestConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // Загрузка фильтра идёт в своей транзакции
+class IsbnBloomFilterTest {
+
+  @TestConfiguration
+  static class TestConfig {
+    @Bean
+    public MeterRegistry meterRegistry() {
+      return new SimpleMeterRegistry();
+    }
+
+    @Bean
+    public IsbnFilterProperties isbnFilterProperties() {
+      IsbnFilterProperties properties = new IsbnFilterProperties();
+      properties.setExpectedInsertions(1_000);
+      return properties;
+    }
+  }
+
+  @Autowired private IsbnBloomFilter filter;
+
+  @Autowired private BookRepository bookRepository;
+
+  @Test
+  @DisplayName("Should keep loaded and written ISBNs and reject most ISBNs not in the catalog")
+  void shouldLoadIsbnsFromDatabase() {
+    // Given
+    bookRepository.save(Book.builder().title("Fox").author("Dahl").isbn("9780140328721").build());
+
+    // When
+    filter.load();
+    filter.put("9791090636071");
+
+    // Then
+    assertThat(filter.isReady()).isTrue();
+    assertThat(filter.mightContain("9780140328721")).isTrue();
+    assertThat(filter.mightContain("9791090636071")).isTrue();
+    long falsePositives =
+        LongStream.range(0, 1_000)
+            .mapToObj(i -> isbn13(978_100_000_000L + i * 7919))
+            .filter(filter::mightContain)
+            .count();
+    assertThat(falsePositives).isLessThan(50);
+  }
+
+  private static String isbn13(long first12) {
+    int sum = 0;
+    long digits = first12;
+    for (int position = 11; position >= 0; position--) {
+      sum += (int) (digits % 10) * (position % 2 == 0 ? 1 : 3);
+      digits /= 10;
+    }
+    return Long.toString(first12 * 10 + (10 - sum % 10) % 10);
+  }
+}
@@ -0,0 +1,183 @@
+package ru.mentee.library.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.mentee.library.api.dto.BookInfoResponse;
+import ru.mentee.library.config.IsbnInfoCacheProperties;
+import ru.mentee.library.domain.model.IsbnInfoCacheEntry;
+import ru.mentee.library.domain.repository.IsbnInfoCacheRepository;
+
+@ExtendWith(MockitoExtension.class)
+class IsbnInfoCacheTest {
+
+  private static final Instant NOW = Instant.parse("2026-01-01T12:00:00Z");
+
+  @Mock private IsbnInfoCacheRepository repository;
+
+  private IsbnInfoCache cache;
+  private final AtomicInteger loaderCalls = new AtomicInteger();
+
+  @BeforeEach
+  void setUp() {
+    IsbnInfoCacheProperties properties = new IsbnInfoCacheProperties();
+    properties.setTtl(Duration.ofDays(1));
+    properties.setNegativeTtl(Duration.ofHours(1));
+    cache =
+        new IsbnInfoCache(
+            repository, properties, new SimpleMeterRegistry(), Clock.fixed(NOW, ZoneOffset.UTC));
+  }
+
+  @Test
+  @DisplayName("Should call loader once and serve repeated lookups from memory")
+  void shouldServeRepeatedLookupsFromMemory() {
+    // Given
+    when(repository.findById("9780140328721")).thenReturn(Optional.empty());
+    BookInfoResponse info = BookInfoResponse.builder().title("Fantastic Mr. Fox").build();
+
+    // When
+    cache.get("9780140328721", loader(info));
+    BookInfoResponse result = cache.get("9780140328721", loader(info));
+
+    // Then
+    assertThat(result).isSameAs(info);
+    assertThat(loaderCalls).hasValue(1);
+    verify(repository, times(1)).findById("9780140328721");
+    verify(repository, times(1)).save(any(IsbnInfoCacheEntry.class));
+  }
+
+  @Test
+  @DisplayName("Should cache negative result")
+  void shouldCacheNegativeResult() {
+    // Given
+    when(repository.findById("0000000000")).thenReturn(Optional.empty());
+
+    // When
+    cache.get("0000000000", loader(null));
+    BookInfoResponse result = cache.get("0000000000", loader(null));
+
+    // Then
+    assertThat(result).isNull();
+    assertThat(loaderCalls).hasValue(1);
+  }
+
+  @Test
+  @DisplayName("Should use fresh database entry without calling loader")
+  void shouldUseFreshDatabaseEntry() {
+    // Given
+    BookInfoResponse stored = BookInfoResponse.builder().title("Stored").build();
+    when(repository.findById("9780140328721"))
+        .thenReturn(Optional.of(entry("9780140328721", stored, Duration.ofHours(2))));
+
+    // When
+    BookInfoResponse result = cache.get("9780140328721", loader(null));
+
+    // Then
+    assertThat(result.getTitle()).isEqualTo("Stored");
+    assertThat(loaderCalls).hasValue(0);
+  }
+
+  @Test
+  @DisplayName("Should reload negative database entry older than negative TTL")
+  void shouldReloadExpiredNegativeEntry() {
+    // Given
+    when(repository.findById("9780140328721"))
+        .thenReturn(Optional.of(entry("9780140328721", null, Duration.ofHours(2))));
+    BookInfoResponse info = BookInfoResponse.builder().title("Now found").build();
+
+    // When
+    BookInfoResponse result = cache.get("9780140328721", loader(info));
+
+    // Then
+    assertThat(result).isSameAs(info);
+    assertThat(loaderCalls).hasValue(1);
+  }
+
+  @Test
+  @DisplayName("Should return expired database entry as stale fallback")
+  void shouldReturnExpiredEntryAsStale() {
+    // Given
+    BookInfoResponse stored = BookInfoResponse.builder().title("Old").build();
+    when(repository.findById("9780140328721"))
+        .thenReturn(Optional.of(entry("9780140328721", stored, Duration.ofDays(30))));
+
+    // When
+    BookInfoResponse result = cache.getStale("9780140328721");
+
+    // Then
+    assertThat(result.getTitle()).isEqualTo("Old");
+  }
+
+  @Test
+  @DisplayName("Should look up L1 misses in the database with a single query")
+  void shouldLookUpMissesInOneQuery() {
+    // Given
+    BookInfoResponse stored = BookInfoResponse.builder().title("Stored").build();
+    when(repository.findAllById(Set.of("9780140328721", "9780804429573")))
+        .thenReturn(List.of(entry("9780140328721", stored, Duration.ofHours(2))));
+
+    // When
+    Map<String, BookInfoResponse> result =
+        cache.getAllPresent(List.of("9780140328721", "9780804429573"));
+
+    // Then
+    assertThat(result).containsOnly(Map.entry("9780140328721", stored));
+    assertThat(cache.get("9780140328721", loader(null))).isSameAs(stored);
+    assertThat(loaderCalls).hasValue(0);
+  }
+
+  @Test
+  @DisplayName("Should store loaded entries in both tiers with a single database write")
+  void shouldStoreLoadedEntriesInOneWrite() {
+    // Given
+    BookInfoResponse loaded = BookInfoResponse.builder().title("Loaded").build();
+    Map<String, BookInfoResponse> entries = new HashMap<>();
+    entries.put("9780804429573", loaded);
+    entries.put("9791090636071", null);
+
+    // When
+    cache.putAll(entries);
+
+    // Then
+    verify(repository, times(1))
+        .saveAll(argThat(rows -> rows instanceof List<?> list && list.size() == 2));
+    verify(repository, never()).save(any(IsbnInfoCacheEntry.class));
+    assertThat(cache.get("9780804429573", loader(null))).isSameAs(loaded);
+    assertThat(cache.get("9791090636071", loader(loaded))).isNull();
+    assertThat(loaderCalls).hasValue(0);
+  }
+
+  private Function<String, BookInfoResponse> loader(BookInfoResponse result) {
+    return isbn -> {
+      loaderCalls.incrementAndGet();
+      return result;
+    };
+  }
+
+  private static IsbnInfoCacheEntry entry(String isbn, BookInfoResponse payload, Duration age) {
+    return IsbnInfoCacheEntry.builder()
+        .isbn(isbn)
+        .payload(payload)
+        .fetchedAt(NOW.minus(age))
+        .build();
+  }
+}
@@ -0,0 +1,114 @@
+package ru.mentee.library.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class SingleFlightTest {
+
+  private final Counter coalesced = new SimpleMeterRegistry().counter("coalesced");
+  private final SingleFlight<String, String> singleFlight = new SingleFlight<>(coalesced);
+
+  @Test
+  @DisplayName("Should run loader once for concurrent callers of the same key")
+  void shouldCoalesceConcurrentCalls() throws Exception {
+    // Given
+    int callers = 8;
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger loads = new AtomicInteger();
+    ExecutorService executor = Executors.newFixedThreadPool(callers);
+
+    // When
+    List<Future<String>> results = new ArrayList<>();
+    for (int i = 0; i < callers; i++) {
+      results.add(
+          executor.submit(
+              () ->
+                  singleFlight.execute(
+                      "isbn",
+                      key -> {
+                        loads.incrementAndGet();
+                        await(release);
+                        return "info:" + key;
+                      })));
+    }
+    // Ждём, пока все, кроме первого, присоединятся к уже идущему вызову
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (coalesced.count() < callers - 1 && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    release.countDown();
+
+    // Then
+    for (Future<String> result : results) {
+      assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("info:isbn");
+    }
+    assertThat(loads).hasValue(1);
+    assertThat(coalesced.count()).isEqualTo(callers - 1);
+    executor.shutdownNow();
+  }
+
+  @Test
+  @DisplayName("Should not remember failures after the call completes")
+  void shouldRetryAfterFailure() {
+    // When & Then
+    assertThatThrownBy(
+            () ->
+                singleFlight.execute(
+                    "isbn",
+                    key -> {
+                      throw new IllegalStateException("boom");
+                    }))
+        .isInstanceOf(IllegalStateException.class);
+    assertThat(singleFlight.execute("isbn", key -> "ok")).isEqualTo("ok");
+  }
+
+  @Test
+  @DisplayName("Should share one pending future between async callers of the same key")
+  void shouldCoalesceAsyncCalls() {
+    // Given
+    CompletableFuture<String> pending = new CompletableFuture<>();
+    AtomicInteger loads = new AtomicInteger();
+
+    // When
+    CompletableFuture<String> first =
+        singleFlight.executeAsync(
+            "isbn",
+            key -> {
+              loads.incrementAndGet();
+              return pending;
+            });
+    CompletableFuture<String> second =
+        singleFlight.executeAsync("isbn", key -> CompletableFuture.completedFuture("other"));
+    pending.complete("info:isbn");
+
+    // Then
+    assertThat(first.join()).isEqualTo("info:isbn");
+    assertThat(second.join()).isEqualTo("info:isbn");
+    assertThat(loads).hasValue(1);
+    assertThat(coalesced.count()).isEqualTo(1);
+    assertThat(singleFlight.executeAsync("isbn", key -> CompletableFuture.completedFuture("ok")))
+        .isCompletedWithValue("ok");
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
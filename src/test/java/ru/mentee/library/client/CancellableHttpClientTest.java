@@ -0,0 +1,82 @@
+package ru.mentee.library.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.mentee.library.api.dto.BookInfoResponse;
+import ru.mentee.library.config.OpenLibraryAsyncClientConfig;
+
+class CancellableHttpClientTest {
+
+  private final CountDownLatch requestReceived = new CountDownLatch(1);
+  private final CountDownLatch connectionClosed = new CountDownLatch(1);
+  private ServerSocket server;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    // Сервер читает запрос и не отвечает: закрытие соединения клиентом видно как конец потока
+    server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+    Thread.ofVirtual()
+        .start(
+            () -> {
+              try (Socket socket = server.accept()) {
+                BufferedReader in =
+                    new BufferedReader(
+                        new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                String line;
+                while ((line = in.readLine()) != null && !line.isEmpty()) {
+                  // Заголовки запроса
+                }
+                requestReceived.countDown();
+                if (in.read() == -1) {
+                  connectionClosed.countDown();
+                }
+              } catch (IOException e) {
+                connectionClosed.countDown();
+              }
+            });
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    server.close();
+  }
+
+  @Test
+  @DisplayName("Should abort the HTTP exchange when the async client future is cancelled")
+  void shouldAbortExchangeOnCancel() throws Exception {
+    // Given
+    OpenLibraryAsyncClient client =
+        new OpenLibraryAsyncClientConfig()
+            .openLibraryAsyncClient(
+                new ObjectMapper(),
+                new TracePropagationInterceptor(),
+                "http://127.0.0.1:" + server.getLocalPort(),
+                1_000,
+                10_000);
+    CompletableFuture<Map<String, BookInfoResponse>> call =
+        client.getBookByIsbn("ISBN:9780140328721", "json", "data");
+    assertThat(requestReceived.await(5, TimeUnit.SECONDS)).isTrue();
+
+    // When
+    call.cancel(true);
+
+    // Then: задолго до read timeout
+    assertThat(connectionClosed.await(2, TimeUnit.SECONDS)).isTrue();
+  }
+}
@@ -0,0 +1,225 @@
+package ru.mentee.library.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.mentee.library.api.dto.BookInfoResponse;
+import ru.mentee.library.config.OpenLibraryBatchProperties;
+import ru.mentee.library.config.OpenLibraryHedgingProperties;
+import ru.mentee.library.config.OpenLibraryRateLimitProperties;
+
+@ExtendWith(MockitoExtension.class)
+class OpenLibraryBatcherTest {
+
+  @Mock private OpenLibraryClient openLibraryClient;
+  @Mock private OpenLibraryAsyncClient asyncClient;
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final CircuitBreaker circuitBreaker = CircuitBreaker.ofDefaults("test");
+  private OpenLibraryBatcher batcher;
+
+  @AfterEach
+  void tearDown() {
+    batcher.shutdown();
+  }
+
+  @Test
+  @DisplayName("Should send lookups from one window as a single multi-bibkey request")
+  void shouldBatchLookupsWithinWindow() throws Exception {
+    // Given
+    batcher = newBatcher(Duration.ofMillis(200), 50);
+    BookInfoResponse first = book("First");
+    when(openLibraryClient.getBookByIsbn(anyString(), eq("json"), eq("data")))
+        .thenReturn(Map.of("ISBN:111", first));
+
+    // When
+    CompletableFuture<BookInfoResponse> a = batcher.lookup("111");
+    CompletableFuture<BookInfoResponse> b = batcher.lookup("222");
+
+    // Then
+    assertThat(a.get(5, TimeUnit.SECONDS)).isSameAs(first);
+    assertThat(b.get(5, TimeUnit.SECONDS)).isNull();
+    verify(openLibraryClient, times(1)).getBookByIsbn("ISBN:111,ISBN:222", "json", "data");
+  }
+
+  @Test
+  @DisplayName("Should flush immediately when batch is full")
+  void shouldFlushWhenFull() throws Exception {
+    // Given
+    batcher = newBatcher(Duration.ofMinutes(1), 2);
+    when(openLibraryClient.getBookByIsbn(anyString(), eq("json"), eq("data"))).thenReturn(Map.of());
+
+    // When
+    CompletableFuture<BookInfoResponse> a = batcher.lookup("111");
+    CompletableFuture<BookInfoResponse> b = batcher.lookup("222");
+
+    // Then: окно в минуту не дождались — пачка ушла по размеру
+    assertThat(a.get(5, TimeUnit.SECONDS)).isNull();
+    assertThat(b.get(5, TimeUnit.SECONDS)).isNull();
+    verify(openLibraryClient, times(1)).getBookByIsbn("ISBN:111,ISBN:222", "json", "data");
+  }
+
+  @Test
+  @DisplayName("Should send known ISBNs at once, split by max keys")
+  void shouldLookupAllWithoutWaitingForWindow() throws Exception {
+    // Given
+    batcher = newBatcher(Duration.ofMinutes(1), 2);
+    BookInfoResponse first = book("First");
+    when(openLibraryClient.getBookByIsbn(anyString(), eq("json"), eq("data")))
+        .thenReturn(Map.of("ISBN:111", first));
+
+    // When
+    Map<String, BookInfoResponse> result =
+        batcher
+            .lookupAll(
+                List.of("111", "222", "111", "333"), OpenLibraryRateLimiter.Priority.INTERACTIVE)
+            .get(5, TimeUnit.SECONDS);
+
+    // Then
+    assertThat(result).hasSize(3).containsEntry("111", first).containsEntry("333", null);
+    verify(openLibraryClient).getBookByIsbn("ISBN:111,ISBN:222", "json", "data");
+    verify(openLibraryClient).getBookByIsbn("ISBN:333", "json", "data");
+  }
+
+  @Test
+  @DisplayName("Should not fail other waiters of the same ISBN when one caller times out")
+  void shouldIsolateCallerTimeouts() throws Exception {
+    // Given
+    batcher = newBatcher(Duration.ofMillis(300), 50);
+    BookInfoResponse first = book("First");
+    when(openLibraryClient.getBookByIsbn(anyString(), eq("json"), eq("data")))
+        .thenReturn(Map.of("ISBN:111", first));
+
+    // When
+    CompletableFuture<BookInfoResponse> impatient =
+        batcher.lookup("111").orTimeout(10, TimeUnit.MILLISECONDS);
+    CompletableFuture<BookInfoResponse> patient = batcher.lookup("111");
+
+    // Then
+    assertThat(impatient).failsWithin(Duration.ofSeconds(5));
+    assertThat(patient.get(5, TimeUnit.SECONDS)).isSameAs(first);
+  }
+
+  @Test
+  @DisplayName("Should fail every waiter when the request fails")
+  void shouldPropagateFailureToAllWaiters() {
+    // Given
+    batcher = newBatcher(Duration.ofMillis(10), 50);
+    when(openLibraryClient.getBookByIsbn(anyString(), eq("json"), eq("data")))
+        .thenThrow(new IllegalStateException("boom"));
+
+    // When
+    CompletableFuture<BookInfoResponse> a = batcher.lookup("111");
+    CompletableFuture<BookInfoResponse> b = batcher.lookup("222");
+
+    // Then
+    assertThat(a).failsWithin(Duration.ofSeconds(5));
+    assertThat(b).failsWithin(Duration.ofSeconds(5));
+  }
+
+  @Test
+  @DisplayName("Should reject lookups without calling OpenLibrary when circuit is open")
+  void shouldRejectWhenCircuitOpen() {
+    // Given
+    batcher = newBatcher(Duration.ofMillis(10), 50);
+    circuitBreaker.transitionToOpenState();
+
+    // When
+    CompletableFuture<BookInfoResponse> result = batcher.lookup("111");
+
+    // Then
+    assertThat(result)
+        .failsWithin(Duration.ofSeconds(5))
+        .withThrowableThat()
+        .havingCause()
+        .isInstanceOf(OpenLibraryUnavailableException.class);
+    verifyNoInteractions(openLibraryClient);
+  }
+
+  @Test
+  @DisplayName("Should send batches through the async client when enabled")
+  void shouldUseAsyncClientWhenEnabled() throws Exception {
+    // Given
+    OpenLibraryBatchProperties properties = batchProperties(Duration.ofMillis(10), 50);
+    properties.setAsyncClient(true);
+    batcher = newBatcher(properties);
+    BookInfoResponse first = book("First");
+    when(asyncClient.getBookByIsbn("ISBN:111", "json", "data"))
+        .thenReturn(CompletableFuture.completedFuture(Map.of("ISBN:111", first)));
+
+    // When
+    CompletableFuture<BookInfoResponse> result = batcher.lookup("111");
+
+    // Then
+    assertThat(result.get(5, TimeUnit.SECONDS)).isSameAs(first);
+    verifyNoInteractions(openLibraryClient);
+  }
+
+  @Test
+  @DisplayName("Should map async client failures to OpenLibrary unavailable")
+  void shouldMapAsyncClientFailure() {
+    // Given
+    OpenLibraryBatchProperties properties = batchProperties(Duration.ofMillis(10), 50);
+    properties.setAsyncClient(true);
+    batcher = newBatcher(properties);
+    circuitBreaker.transitionToOpenState();
+
+    // When
+    CompletableFuture<BookInfoResponse> result = batcher.lookup("111");
+
+    // Then
+    assertThat(result)
+        .failsWithin(Duration.ofSeconds(5))
+        .withThrowableThat()
+        .havingCause()
+        .isInstanceOf(OpenLibraryUnavailableException.class);
+    verifyNoInteractions(asyncClient);
+  }
+
+  private OpenLibraryBatcher newBatcher(Duration window, int maxKeys) {
+    return newBatcher(batchProperties(window, maxKeys));
+  }
+
+  private static OpenLibraryBatchProperties batchProperties(Duration window, int maxKeys) {
+    OpenLibraryBatchProperties properties = new OpenLibraryBatchProperties();
+    properties.setWindow(window);
+    properties.setMaxKeys(maxKeys);
+    return properties;
+  }
+
+  private OpenLibraryBatcher newBatcher(OpenLibraryBatchProperties properties) {
+    Bulkhead bulkhead = Bulkhead.ofDefaults("test");
+    OpenLibraryRateLimiter rateLimiter =
+        new OpenLibraryRateLimiter(new OpenLibraryRateLimitProperties(), meterRegistry);
+    return new OpenLibraryBatcher(
+        openLibraryClient,
+        asyncClient,
+        properties,
+        circuitBreaker,
+        bulkhead,
+        new OpenLibraryHedger(
+            new OpenLibraryHedgingProperties(), bulkhead, rateLimiter, meterRegistry),
+        rateLimiter,
+        meterRegistry);
+  }
+
+  private static BookInfoResponse book(String title) {
+    return BookInfoResponse.builder().title(title).build();
+  }
+}
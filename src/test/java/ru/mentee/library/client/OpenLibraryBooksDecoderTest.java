@@ -0,0 +1,100 @@
+package ru.mentee.library.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import feign.Request;
+import feign.Response;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import ru.mentee.library.api.dto.BookInfoResponse;
+import ru.mentee.library.api.dto.OpenLibraryBookDto;
+
+class OpenLibraryBooksDecoderTest {
+
+  private static final Type BOOKS_TYPE =
+      new TypeReference<Map<String, BookInfoResponse>>() {}.getType();
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final OpenLibraryBooksDecoder decoder = new OpenLibraryBooksDecoder(objectMapper);
+
+  @ParameterizedTest
+  @ValueSource(strings = {"enrich-success.json", "openlibrary-data-batch.json"})
+  @DisplayName("Should decode the same books as full DTO binding")
+  void shouldMatchDtoBinding(String file) throws IOException {
+    // Given
+    byte[] body = read(file);
+    Map<String, OpenLibraryBookDto> dtos =
+        objectMapper.readValue(body, new TypeReference<Map<String, OpenLibraryBookDto>>() {});
+    Map<String, BookInfoResponse> expected = new HashMap<>();
+    dtos.forEach((bibkey, dto) -> expected.put(bibkey, BookInfoResponse.from(dto)));
+
+    // When
+    Object decoded = decoder.decode(response(body), BOOKS_TYPE);
+
+    // Then
+    assertThat(decoded).isEqualTo(expected);
+  }
+
+  @Test
+  @DisplayName("Should skip unexpected shapes instead of failing the whole response")
+  void shouldTolerateUnexpectedShapes() throws IOException {
+    // Given
+    String json =
+        """
+        {
+          "ISBN:111": {
+            "title": "Title",
+            "authors": "not an array",
+            "publishers": [{"name": "P", "extra": {"deep": [1, 2, {"x": null}]}}, "odd"],
+            "number_of_pages": {"value": 10},
+            "identifiers": {"isbn_13": [], "isbn_10": ["0123456789", "ignored"]}
+          },
+          "ISBN:222": null
+        }
+        """;
+
+    // When
+    @SuppressWarnings("unchecked")
+    Map<String, BookInfoResponse> books =
+        (Map<String, BookInfoResponse>)
+            decoder.decode(response(json.getBytes(StandardCharsets.UTF_8)), BOOKS_TYPE);
+
+    // Then
+    assertThat(books).containsEntry("ISBN:222", null);
+    BookInfoResponse book = books.get("ISBN:111");
+    assertThat(book.getTitle()).isEqualTo("Title");
+    assertThat(book.getAuthors()).isEmpty();
+    assertThat(book.getPublishers()).isEqualTo(List.of("P"));
+    assertThat(book.getNumberOfPages()).isNull();
+    assertThat(book.getIsbn10()).isEqualTo("0123456789");
+    assertThat(book.getIsbn13()).isNull();
+  }
+
+  private static byte[] read(String file) throws IOException {
+    try (InputStream in =
+        OpenLibraryBooksDecoderTest.class.getResourceAsStream("/__files/" + file)) {
+      return in.readAllBytes();
+    }
+  }
+
+  private static Response response(byte[] body) {
+    return Response.builder()
+        .status(200)
+        .request(
+            Request.create(
+                Request.HttpMethod.GET, "/api/books", Map.of(), null, StandardCharsets.UTF_8, null))
+        .body(body)
+        .build();
+  }
+}
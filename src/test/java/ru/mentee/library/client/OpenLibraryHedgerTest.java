@@ -0,0 +1,251 @@
+package ru.mentee.library.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.mentee.library.config.OpenLibraryHedgingProperties;
+import ru.mentee.library.config.OpenLibraryRateLimitProperties;
+
+class OpenLibraryHedgerTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private Bulkhead bulkhead = Bulkhead.ofDefaults("test");
+  private OpenLibraryRateLimiter rateLimiter =
+      new OpenLibraryRateLimiter(new OpenLibraryRateLimitProperties(), meterRegistry);
+  private OpenLibraryHedger hedger;
+
+  @AfterEach
+  void tearDown() {
+    hedger.shutdown();
+  }
+
+  @Test
+  @DisplayName("Should send hedge after delay and return the faster answer")
+  void shouldReturnHedgeWhenPrimaryIsSlow() {
+    // Given
+    hedger = newHedger(10);
+    AtomicInteger calls = new AtomicInteger();
+    Supplier<String> request =
+        () -> calls.incrementAndGet() == 1 ? sleepAndReturn("primary") : "hedge";
+
+    // When
+    String result = hedger.execute(request);
+
+    // Then
+    assertThat(result).isEqualTo("hedge");
+    assertThat(calls).hasValue(2);
+    assertThat(hedgeCount("sent")).isEqualTo(1);
+    assertThat(hedgeCount("won")).isEqualTo(1);
+    assertThat(bulkhead.getMetrics().getAvailableConcurrentCalls())
+        .isEqualTo(BulkheadConfig.DEFAULT_MAX_CONCURRENT_CALLS);
+  }
+
+  @Test
+  @DisplayName("Should skip hedge when bulkhead has no free permit")
+  void shouldNotHedgeWithoutBulkheadPermit() {
+    // Given: единственный слот занят основной попыткой, как в OpenLibraryBatcher
+    bulkhead = Bulkhead.of("single", BulkheadConfig.custom().maxConcurrentCalls(1).build());
+    hedger = newHedger(10);
+    AtomicInteger calls = new AtomicInteger();
+
+    // When
+    String result =
+        bulkhead.executeSupplier(
+            () ->
+                hedger.execute(
+                    () -> {
+                      calls.incrementAndGet();
+                      return sleepFor(Duration.ofMillis(200), "primary");
+                    }));
+
+    // Then
+    assertThat(result).isEqualTo("primary");
+    assertThat(calls).hasValue(1);
+    assertThat(hedgeCount("sent")).isZero();
+    assertThat(hedgeCount("no_permit")).isEqualTo(1);
+    assertThat(bulkhead.getMetrics().getAvailableConcurrentCalls()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Should skip hedge when rate limiter has no token for it")
+  void shouldNotHedgeWithoutRateLimiterToken() {
+    // Given: фоновой части корзины нет, весь лимит — резерв интерактивных запросов
+    OpenLibraryRateLimitProperties limits = new OpenLibraryRateLimitProperties();
+    limits.setInteractiveReserve(limits.getBurst());
+    rateLimiter = new OpenLibraryRateLimiter(limits, meterRegistry);
+    hedger = newHedger(10);
+    AtomicInteger calls = new AtomicInteger();
+
+    // When
+    String result =
+        hedger.execute(
+            () -> {
+              calls.incrementAndGet();
+              return sleepFor(Duration.ofMillis(200), "primary");
+            });
+
+    // Then
+    assertThat(result).isEqualTo("primary");
+    assertThat(calls).hasValue(1);
+    assertThat(hedgeCount("sent")).isZero();
+    assertThat(hedgeCount("rate_limited")).isEqualTo(1);
+    assertThat(bulkhead.getMetrics().getAvailableConcurrentCalls())
+        .isEqualTo(BulkheadConfig.DEFAULT_MAX_CONCURRENT_CALLS);
+  }
+
+  @Test
+  @DisplayName("Should not hedge when budget is exhausted")
+  void shouldNotHedgeWithoutBudget() {
+    // Given
+    hedger = newHedger(0);
+    AtomicInteger calls = new AtomicInteger();
+
+    // When
+    String result =
+        hedger.execute(
+            () -> {
+              calls.incrementAndGet();
+              return sleepFor(Duration.ofMillis(200), "primary");
+            });
+
+    // Then
+    assertThat(result).isEqualTo("primary");
+    assertThat(calls).hasValue(1);
+    assertThat(hedgeCount("sent")).isZero();
+  }
+
+  @Test
+  @DisplayName("Should wait for hedge when primary fails")
+  void shouldUseHedgeWhenPrimaryFailsLate() {
+    // Given
+    hedger = newHedger(10);
+    AtomicInteger calls = new AtomicInteger();
+    Supplier<String> request =
+        () -> {
+          if (calls.incrementAndGet() == 1) {
+            sleepFor(Duration.ofMillis(100), null);
+            throw new IllegalStateException("primary failed");
+          }
+          return sleepFor(Duration.ofMillis(300), "hedge");
+        };
+
+    // When
+    String result = hedger.execute(request);
+
+    // Then
+    assertThat(result).isEqualTo("hedge");
+  }
+
+  @Test
+  @DisplayName("Should hedge async requests and cancel the slower one")
+  void shouldHedgeAsyncRequest() {
+    // Given
+    hedger = newHedger(10);
+    CompletableFuture<String> primary = new CompletableFuture<>();
+    AtomicInteger calls = new AtomicInteger();
+    Supplier<CompletableFuture<String>> request =
+        () -> calls.incrementAndGet() == 1 ? primary : CompletableFuture.completedFuture("hedge");
+
+    // When
+    String result = hedger.executeAsync(request).join();
+
+    // Then
+    assertThat(result).isEqualTo("hedge");
+    assertThat(primary).isCancelled();
+    assertThat(hedgeCount("won")).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Should wait for async hedge when primary fails and release the hedge permit")
+  void shouldUseAsyncHedgeWhenPrimaryFailsLate() {
+    // Given
+    hedger = newHedger(10);
+    CompletableFuture<String> primary = new CompletableFuture<>();
+    CompletableFuture<String> hedge = new CompletableFuture<>();
+    AtomicInteger calls = new AtomicInteger();
+    Supplier<CompletableFuture<String>> request =
+        () -> {
+          if (calls.incrementAndGet() == 1) {
+            return primary;
+          }
+          primary.completeExceptionally(new IllegalStateException("primary failed"));
+          CompletableFuture.delayedExecutor(100, TimeUnit.MILLISECONDS)
+              .execute(() -> hedge.complete("hedge"));
+          return hedge;
+        };
+
+    // When
+    String result = hedger.executeAsync(request).join();
+
+    // Then
+    assertThat(result).isEqualTo("hedge");
+    assertThat(bulkhead.getMetrics().getAvailableConcurrentCalls())
+        .isEqualTo(BulkheadConfig.DEFAULT_MAX_CONCURRENT_CALLS);
+  }
+
+  @Test
+  @DisplayName("Should skip async hedge when bulkhead has no free permit")
+  void shouldNotHedgeAsyncWithoutBulkheadPermit() {
+    // Given: единственный слот занят основной попыткой, как в OpenLibraryBatcher
+    bulkhead = Bulkhead.of("single", BulkheadConfig.custom().maxConcurrentCalls(1).build());
+    hedger = newHedger(10);
+    AtomicInteger calls = new AtomicInteger();
+    Supplier<CompletableFuture<String>> request =
+        () -> {
+          calls.incrementAndGet();
+          return CompletableFuture.supplyAsync(
+              () -> "primary", CompletableFuture.delayedExecutor(200, TimeUnit.MILLISECONDS));
+        };
+
+    // When
+    String result =
+        bulkhead
+            .executeCompletionStage(() -> hedger.executeAsync(request))
+            .toCompletableFuture()
+            .join();
+
+    // Then
+    assertThat(result).isEqualTo("primary");
+    assertThat(calls).hasValue(1);
+    assertThat(hedgeCount("sent")).isZero();
+    assertThat(hedgeCount("no_permit")).isEqualTo(1);
+    assertThat(bulkhead.getMetrics().getAvailableConcurrentCalls()).isEqualTo(1);
+  }
+
+  private OpenLibraryHedger newHedger(int maxBurst) {
+    OpenLibraryHedgingProperties properties = new OpenLibraryHedgingProperties();
+    properties.setEnabled(true);
+    properties.setMinDelay(Duration.ofMillis(20));
+    // Бюджет пополняется целиком за один запрос, чтобы первый же запрос мог хеджироваться
+    properties.setBudgetRatio(1);
+    properties.setMaxBurst(maxBurst);
+    return new OpenLibraryHedger(properties, bulkhead, rateLimiter, meterRegistry);
+  }
+
+  private double hedgeCount(String result) {
+    return meterRegistry.get("openlibrary_hedges_total").tag("result", result).counter().count();
+  }
+
+  private static String sleepAndReturn(String value) {
+    return sleepFor(Duration.ofSeconds(10), value);
+  }
+
+  private static String sleepFor(Duration duration, String value) {
+    try {
+      Thread.sleep(duration);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    return value;
+  }
+}
@@ -0,0 +1,145 @@
+package ru.mentee.library.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.mentee.library.client.OpenLibraryRateLimiter.Priority;
+import ru.mentee.library.config.OpenLibraryRateLimitProperties;
+
+class OpenLibraryRateLimiterTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  @Test
+  @DisplayName("Should let a full burst through and reject the next request without waiting room")
+  void shouldRejectAfterBurst() {
+    // Given
+    OpenLibraryRateLimiter limiter = newLimiter(Duration.ZERO, Duration.ZERO);
+
+    // When
+    for (int i = 0; i < 5; i++) {
+      limiter.acquire(Priority.INTERACTIVE);
+    }
+
+    // Then
+    assertThatThrownBy(() -> limiter.acquire(Priority.INTERACTIVE))
+        .isInstanceOf(OpenLibraryUnavailableException.class);
+    assertThat(rejected("interactive")).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Should take a free token without waiting and refuse when none is left")
+  void shouldTryAcquireWithoutWaiting() {
+    // Given: ожидание разрешено, но tryAcquire им не пользуется
+    OpenLibraryRateLimiter limiter = newLimiter(Duration.ofSeconds(1), Duration.ofSeconds(1));
+
+    // When
+    int taken = 0;
+    while (limiter.tryAcquire(Priority.BACKGROUND)) {
+      taken++;
+    }
+
+    // Then: фоновой части корзины хватает на burst - interactiveReserve, резерв не тронут
+    assertThat(taken).isEqualTo(3);
+    assertThat(limiter.tryAcquire(Priority.INTERACTIVE)).isTrue();
+    assertThat(rejected("background")).isZero();
+  }
+
+  @Test
+  @DisplayName("Should keep reserved tokens for interactive requests")
+  void shouldReserveTokensForInteractive() {
+    // Given
+    OpenLibraryRateLimiter limiter = newLimiter(Duration.ZERO, Duration.ZERO);
+    for (int i = 0; i < 3; i++) {
+      limiter.acquire(Priority.BACKGROUND);
+    }
+
+    // When / Then
+    assertThatThrownBy(() -> limiter.acquire(Priority.BACKGROUND))
+        .isInstanceOf(OpenLibraryUnavailableException.class);
+    limiter.acquire(Priority.INTERACTIVE);
+    limiter.acquire(Priority.INTERACTIVE);
+    assertThat(rejected("background")).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Should queue request until the next token when waiting is allowed")
+  void shouldWaitForNextToken() {
+    // Given
+    OpenLibraryRateLimiter limiter = newLimiter(Duration.ofSeconds(1), Duration.ZERO);
+    for (int i = 0; i < 5; i++) {
+      limiter.acquire(Priority.INTERACTIVE);
+    }
+
+    // When
+    long start = System.nanoTime();
+    limiter.acquire(Priority.INTERACTIVE);
+
+    // Then: 20 запросов в секунду — следующий токен примерно через 50 мс
+    assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThan(Duration.ofMillis(20));
+    assertThat(rejected("interactive")).isZero();
+  }
+
+  @Test
+  @DisplayName("Should keep serving interactive requests while background traffic saturates")
+  void shouldNotStarveInteractiveUnderBackgroundLoad() throws Exception {
+    // Given: фоновым разрешено ждать долго, интерактивным — не дольше одного интервала
+    OpenLibraryRateLimiter limiter = newLimiter(Duration.ofMillis(50), Duration.ofSeconds(30));
+    AtomicBoolean running = new AtomicBoolean(true);
+    AtomicInteger background = new AtomicInteger();
+    ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    for (int i = 0; i < 20; i++) {
+      executor.execute(
+          () -> {
+            while (running.get()) {
+              limiter.acquire(Priority.BACKGROUND);
+              background.incrementAndGet();
+            }
+          });
+    }
+    Thread.sleep(300);
+
+    // When
+    try {
+      for (int i = 0; i < 5; i++) {
+        limiter.acquire(Priority.INTERACTIVE);
+        Thread.sleep(100);
+      }
+    } finally {
+      running.set(false);
+      executor.shutdownNow();
+      executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    // Then: фон продолжал получать токены, но не занял будущие интерактивные
+    assertThat(rejected("interactive")).isZero();
+    assertThat(background).hasValueGreaterThan(5);
+  }
+
+  private OpenLibraryRateLimiter newLimiter(Duration interactiveWait, Duration backgroundWait) {
+    OpenLibraryRateLimitProperties properties = new OpenLibraryRateLimitProperties();
+    properties.setRequestsPerSecond(20);
+    properties.setBurst(5);
+    properties.setInteractiveReserve(2);
+    properties.setInteractiveMaxWait(interactiveWait);
+    properties.setBackgroundMaxWait(backgroundWait);
+    return new OpenLibraryRateLimiter(properties, meterRegistry);
+  }
+
+  private double rejected(String priority) {
+    return meterRegistry
+        .get("openlibrary_rate_limiter_rejected_total")
+        .tag("priority", priority)
+        .counter()
+        .count();
+  }
+}
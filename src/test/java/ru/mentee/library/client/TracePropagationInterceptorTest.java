@@ -0,0 +1,79 @@
+package ru.mentee.library.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import feign.RequestTemplate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import ru.mentee.library.monitoring.TraceContext;
+
+class TracePropagationInterceptorTest {
+
+  private final TracePropagationInterceptor interceptor = new TracePropagationInterceptor();
+
+  @AfterEach
+  void tearDown() {
+    MDC.clear();
+  }
+
+  @Test
+  @DisplayName("Should forward trace and request id of the current request")
+  void shouldForwardCurrentContext() {
+    // Given
+    putContext();
+    RequestTemplate template = new RequestTemplate();
+
+    // When
+    interceptor.apply(template);
+
+    // Then
+    assertThat(template.headers().get(TraceContext.TRACEPARENT))
+        .singleElement()
+        .asString()
+        .matches("00-4bf92f3577b34da6a3ce929d0e0e4736-[0-9a-f]{16}-01")
+        .doesNotContain("00f067aa0ba902b7");
+    assertThat(template.headers().get(TraceContext.REQUEST_ID_HEADER)).containsExactly("req-42");
+  }
+
+  @Test
+  @DisplayName("Should forward context captured on another thread")
+  void shouldPropagateAcrossThreads() throws Exception {
+    // Given
+    putContext();
+    RequestTemplate template = new RequestTemplate();
+    Thread worker =
+        Thread.ofVirtual()
+            .unstarted(
+                TraceContext.wrap(TraceContext.current(), () -> interceptor.apply(template)));
+
+    // When
+    worker.start();
+    worker.join();
+
+    // Then
+    assertThat(template.headers().get(TraceContext.REQUEST_ID_HEADER)).containsExactly("req-42");
+    assertThat(template.headers()).containsKey(TraceContext.TRACEPARENT);
+  }
+
+  @Test
+  @DisplayName("Should not add headers outside of a request")
+  void shouldSkipWithoutContext() {
+    // Given
+    RequestTemplate template = new RequestTemplate();
+
+    // When
+    interceptor.apply(template);
+
+    // Then
+    assertThat(template.headers()).isEmpty();
+  }
+
+  private static void putContext() {
+    MDC.put("traceId", "4bf92f3577b34da6a3ce929d0e0e4736");
+    MDC.put("spanId", "00f067aa0ba902b7");
+    MDC.put("traceFlags", "01");
+    MDC.put("requestId", "req-42");
+  }
+}
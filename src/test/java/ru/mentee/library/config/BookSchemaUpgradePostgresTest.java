@@ -0,0 +1,64 @@
+package ru.mentee.library.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.mentee.library.domain.model.Book;
+import ru.mentee.library.domain.repository.BookRepository;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(BookSchemaUpgrade.class)
+@Testcontainers(disabledWithoutDocker = true)
+class BookSchemaUpgradePostgresTest {
+
+  @Container
+  static PostgreSQLContainer<?> postgres =
+      new PostgreSQLContainer<>("postgres:15-alpine").withReuse(true);
+
+  @DynamicPropertySource
+  static void configureProperties(DynamicPropertyRegistry registry) {
+    registry.add("spring.datasource.url", postgres::getJdbcUrl);
+    registry.add("spring.datasource.username", postgres::getUsername);
+    registry.add("spring.datasource.password", postgres::getPassword);
+    registry.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
+  }
+
+  @Autowired private BookSchemaUpgrade schemaUpgrade;
+  @Autowired private BookRepository bookRepository;
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @Test
+  @DisplayName("Should move books_seq past ids that existed before the sequence")
+  void shouldAlignSequenceWithExistingIds() {
+    // Given: строки из базы до появления последовательности, сама последовательность с начала
+    for (long id = 1; id <= 250; id++) {
+      jdbcTemplate.update(
+          "INSERT INTO books (id, title, author, available) VALUES (?, 'Old', 'Author', true)", id);
+    }
+    jdbcTemplate.execute("ALTER SEQUENCE books_seq RESTART");
+
+    // When: повторный запуск ничего не меняет
+    schemaUpgrade.alignSequence();
+    schemaUpgrade.alignSequence();
+
+    // Then
+    Book saved =
+        bookRepository.saveAndFlush(
+            Book.builder().title("New").author("Author").available(true).build());
+    assertThat(saved.getId()).isGreaterThan(250L);
+    assertThat(jdbcTemplate.queryForObject("SELECT last_value FROM books_seq", Long.class))
+        .isGreaterThanOrEqualTo(saved.getId());
+  }
+}
@@ -0,0 +1,52 @@
+package ru.mentee.library.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.mentee.library.domain.repository.BookRepository;
+
+@DataJpaTest
+@Import(BookSchemaUpgrade.class)
+class BookSchemaUpgradeTest {
+
+  @Autowired private BookSchemaUpgrade schemaUpgrade;
+  @Autowired private BookRepository bookRepository;
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @Test
+  @DisplayName("Should rewrite stored ISBNs to canonical ISBN-13 without creating duplicates")
+  void shouldNormalizeStoredIsbns() {
+    // Given: ISBN в том виде, как их вводили до канонизации
+    insertBook(1, "0-14-032872-6");
+    insertBook(2, "9780306406157");
+    insertBook(3, "978-0-306-40615-7");
+    insertBook(4, "12345");
+
+    // When: повторный запуск ничего не меняет
+    schemaUpgrade.normalizeIsbns();
+    schemaUpgrade.normalizeIsbns();
+
+    // Then
+    assertThat(isbnOf(1)).isEqualTo("9780140328721");
+    assertThat(isbnOf(2)).isEqualTo("9780306406157");
+    assertThat(isbnOf(3)).isEqualTo("978-0-306-40615-7");
+    assertThat(isbnOf(4)).isEqualTo("12345");
+    assertThat(bookRepository.findByIsbn("9780140328721")).map(book -> book.getId()).contains(1L);
+  }
+
+  private void insertBook(long id, String isbn) {
+    jdbcTemplate.update(
+        "INSERT INTO books (id, title, author, isbn, available) VALUES (?, 'Old', 'Author', ?, true)",
+        id,
+        isbn);
+  }
+
+  private String isbnOf(long id) {
+    return jdbcTemplate.queryForObject("SELECT isbn FROM books WHERE id = ?", String.class, id);
+  }
+}
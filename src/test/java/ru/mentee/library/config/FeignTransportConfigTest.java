@@ -0,0 +1,89 @@
+package ru.mentee.library.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.io.HttpClientConnectionManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.autoconfigure.metrics.MetricsAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.export.simple.SimpleMetricsExportAutoConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.ConfigDataApplicationContextInitializer;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.cloud.openfeign.FeignAutoConfiguration;
+
+class FeignTransportConfigTest {
+
+  // application.yml из main: проверяются те же настройки, с которыми запускается приложение
+  private final ApplicationContextRunner contextRunner =
+      new ApplicationContextRunner()
+          .withInitializer(new ConfigDataApplicationContextInitializer())
+          .withConfiguration(
+              AutoConfigurations.of(
+                  FeignAutoConfiguration.class,
+                  MetricsAutoConfiguration.class,
+                  SimpleMetricsExportAutoConfiguration.class))
+          .withUserConfiguration(FeignTransportConfig.class);
+
+  @Test
+  @DisplayName("Should apply pool limits from configuration to the hc5 connection manager")
+  void shouldApplyPoolLimits() {
+    contextRunner.run(
+        context -> {
+          // Then
+          assertThat(context).hasSingleBean(HttpClientConnectionManager.class);
+          PoolingHttpClientConnectionManager pool =
+              (PoolingHttpClientConnectionManager)
+                  context.getBean(HttpClientConnectionManager.class);
+          assertThat(pool.getMaxTotal()).isEqualTo(200);
+          assertThat(pool.getDefaultMaxPerRoute()).isEqualTo(50);
+        });
+  }
+
+  @Test
+  @DisplayName("Should register connection pool gauges")
+  void shouldRegisterPoolGauges() {
+    contextRunner.run(
+        context -> {
+          // Then
+          MeterRegistry registry = context.getBean(MeterRegistry.class);
+          assertThat(
+                  registry
+                      .get("httpcomponents.httpclient.pool.total.connections")
+                      .tag("httpclient", "feign")
+                      .tag("state", "leased")
+                      .gauge()
+                      .value())
+              .isZero();
+          assertThat(
+                  registry
+                      .get("httpcomponents.httpclient.pool.total.max")
+                      .tag("httpclient", "feign")
+                      .gauge()
+                      .value())
+              .isEqualTo(200);
+          assertThat(registry.find("httpcomponents.httpclient.pool.total.pending").gauge())
+              .isNotNull();
+        });
+  }
+
+  @Test
+  @DisplayName("Should not register pool gauges when the hc5 transport is disabled")
+  void shouldSkipGaugesWithoutPool() {
+    contextRunner
+        .withPropertyValues("spring.cloud.openfeign.httpclient.hc5.enabled=false")
+        .run(
+            context -> {
+              // Then
+              assertThat(context).doesNotHaveBean(HttpClientConnectionManager.class);
+              assertThat(
+                      context
+                          .getBean(MeterRegistry.class)
+                          .find("httpcomponents.httpclient.pool.total.max")
+                          .gauge())
+                  .isNull();
+            });
+  }
+}
@@ -0,0 +1,43 @@
+package ru.mentee.library.domain.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import ru.mentee.library.domain.model.Book;
+
+@DataJpaTest
+class BookRepositoryStreamTest {
+
+  @Autowired private TestEntityManager entityManager;
+
+  @Autowired private BookRepository bookRepository;
+
+  @Test
+  @DisplayName("Should stream all books ordered by id")
+  void shouldStreamAllBooksOrderedById() {
+    // Given
+    Book book1 =
+        entityManager.persistAndFlush(
+            Book.builder().title("Stream 1").author("Author").isbn("33333").build());
+    Book book2 =
+        entityManager.persistAndFlush(
+            Book.builder().title("Stream 2").author("Author").isbn("44444").build());
+    entityManager.clear();
+
+    // When
+    List<Long> ids;
+    try (Stream<Book> books = bookRepository.streamAll()) {
+      ids = books.map(Book::getId).toList();
+    }
+
+    // Then
+    assertThat(ids).containsSubsequence(book1.getId(), book2.getId());
+    assertThat(ids).isSorted();
+  }
+}
@@ -0,0 +1,76 @@
+package ru.mentee.library.domain.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import ru.mentee.library.domain.model.Book;
+
+@DataJpaTest
+class BookUpsertRepositoryTest {
+
+  @Autowired private BookRepository bookRepository;
+
+  @Test
+  @DisplayName("Should insert a new ISBN and skip an ISBN that already exists")
+  void shouldInsertOnlyAbsentIsbn() {
+    // Given
+    Book existing =
+        bookRepository.saveAndFlush(
+            Book.builder().title("Fox").author("Dahl").isbn("9780140328721").build());
+
+    // When
+    Long inserted = bookRepository.insertIfAbsent(book("Dune", "9780804429573"));
+    Long conflicting = bookRepository.insertIfAbsent(book("Other Fox", "9780140328721"));
+
+    // Then
+    assertThat(inserted).isNotNull().isNotEqualTo(existing.getId());
+    assertThat(conflicting).isNull();
+    assertThat(bookRepository.findByIsbn("9780804429573"))
+        .get()
+        .extracting(Book::getId, Book::getTitle)
+        .containsExactly(inserted, "Dune");
+    assertThat(bookRepository.findByIsbn("9780140328721"))
+        .get()
+        .extracting(Book::getTitle)
+        .isEqualTo("Fox");
+  }
+
+  @Test
+  @DisplayName("Should batch-insert absent ISBNs with distinct ids and report taken ones as null")
+  void shouldBatchInsertOnlyAbsentIsbns() {
+    // Given
+    Book existing =
+        bookRepository.saveAndFlush(
+            Book.builder().title("Fox").author("Dahl").isbn("9780140328721").build());
+
+    // When
+    List<Long> ids =
+        bookRepository.insertAllIfAbsent(
+            List.of(
+                book("Dune", "9780804429573"),
+                book("Other Fox", "9780140328721"),
+                book("Clean Code", "9780132350884")));
+
+    // Then
+    assertThat(ids).hasSize(3);
+    assertThat(ids.get(1)).isNull();
+    assertThat(ids.get(0)).isNotNull().isNotEqualTo(ids.get(2)).isNotEqualTo(existing.getId());
+    assertThat(ids.get(2)).isNotNull().isNotEqualTo(existing.getId());
+    assertThat(bookRepository.findByIsbn("9780132350884"))
+        .get()
+        .extracting(Book::getId, Book::getTitle)
+        .containsExactly(ids.get(2), "Clean Code");
+    assertThat(bookRepository.findByIsbn("9780140328721"))
+        .get()
+        .extracting(Book::getTitle)
+        .isEqualTo("Fox");
+  }
+
+  private static Book book(String title, String isbn) {
+    return Book.builder().title(title).author("Author").isbn(isbn).available(true).build();
+  }
+}
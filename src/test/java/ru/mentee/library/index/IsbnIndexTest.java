@@ -0,0 +1,112 @@
+package ru.mentee.library.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPOutputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.mentee.library.api.dto.BookInfoResponse;
+import ru.mentee.library.config.IsbnIndexProperties;
+
+class IsbnIndexTest {
+
+  @TempDir Path tempDir;
+
+  private IsbnIndex index;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    Path authors = tempDir.resolve("authors.txt.gz");
+    Path editions = tempDir.resolve("editions.txt.gz");
+    try (PrintWriter out = gzipWriter(authors)) {
+      out.println(
+          "/type/author\t/authors/OL34184A\t1\t2024-01-01\t"
+              + "{\"key\": \"/authors/OL34184A\", \"name\": \"Roald Dahl\"}");
+    }
+    try (PrintWriter out = gzipWriter(editions)) {
+      out.println(
+          "/type/edition\t/books/OL1M\t1\t2024-01-01\t"
+              + "{\"title\": \"Fantastic Mr. Fox\", \"authors\": [{\"key\": \"/authors/OL34184A\"}],"
+              + " \"publishers\": [\"Puffin\"], \"publish_date\": \"1988\","
+              + " \"number_of_pages\": 96, \"isbn_10\": [\"0140328726\"]}");
+      // Много мелких записей — чтобы они пересекали границы маленьких сегментов
+      for (int i = 0; i < 200; i++) {
+        String isbn = isbn13(String.format("979%09d", i));
+        out.println(
+            "/type/edition\t/books/OL"
+                + (i + 2)
+                + "M\t1\t2024-01-01\t"
+                + "{\"title\": \"Book "
+                + i
+                + "\", \"isbn_13\": [\""
+                + isbn
+                + "\"]}");
+      }
+      out.println("/type/edition\t/books/OLXM\t1\t2024-01-01\t{\"title\": \"No ISBN\"}");
+      out.println("not json");
+    }
+
+    Path indexFile = tempDir.resolve("isbn-index.bin");
+    IsbnIndexBuilder builder = new IsbnIndexBuilder(9);
+    builder.loadAuthors(authors);
+    assertThat(builder.build(editions, indexFile)).isEqualTo(201);
+
+    IsbnIndexProperties properties = new IsbnIndexProperties();
+    properties.setPath(indexFile.toString());
+    index = new IsbnIndex(properties, new SimpleMeterRegistry());
+  }
+
+  @Test
+  @DisplayName("Should find edition by ISBN-13 derived from its ISBN-10")
+  void shouldFindByEitherIsbnForm() {
+    // When
+    BookInfoResponse byIsbn13 = index.find("9780140328721");
+    BookInfoResponse byIsbn10 = index.find("0-14-032872-6");
+
+    // Then
+    assertThat(byIsbn13.getTitle()).isEqualTo("Fantastic Mr. Fox");
+    assertThat(byIsbn13.getAuthors()).containsExactly("Roald Dahl");
+    assertThat(byIsbn13.getPublishers()).containsExactly("Puffin");
+    assertThat(byIsbn13.getNumberOfPages()).isEqualTo(96);
+    assertThat(byIsbn10).isEqualTo(byIsbn13);
+  }
+
+  @Test
+  @DisplayName("Should find every entry across segment boundaries")
+  void shouldFindEntriesAcrossSegments() {
+    for (int i = 0; i < 200; i++) {
+      String isbn = isbn13(String.format("979%09d", i));
+      assertThat(index.find(isbn)).extracting(BookInfoResponse::getTitle).isEqualTo("Book " + i);
+    }
+  }
+
+  @Test
+  @DisplayName("Should return null for unknown or invalid ISBN")
+  void shouldMissUnknownIsbn() {
+    assertThat(index.find("9780306406157")).isNull();
+    assertThat(index.find("not-an-isbn")).isNull();
+  }
+
+  private static PrintWriter gzipWriter(Path path) throws IOException {
+    OutputStream out = new GZIPOutputStream(Files.newOutputStream(path));
+    return new PrintWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+  }
+
+  private static String isbn13(String first12) {
+    int sum = 0;
+    for (int i = 0; i < 12; i++) {
+      sum += (first12.charAt(i) - '0') * (i % 2 == 0 ? 1 : 3);
+    }
+    return first12 + (10 - sum % 10) % 10;
+  }
+}
@@ -0,0 +1,125 @@
+package ru.mentee.library.monitoring;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+import ru.mentee.library.config.ApiLatencyProperties;
+
+class ApiResponseTimeFilterTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final ApiLatencyProperties properties = new ApiLatencyProperties();
+
+  @Test
+  @DisplayName("Should tag by route template, method and status class")
+  void shouldTagByRouteTemplate() throws Exception {
+    // Given
+    ApiResponseTimeFilter filter = new ApiResponseTimeFilter(meterRegistry, properties);
+
+    // When
+    filter.doFilter(
+        get("/api/books/1"), new MockHttpServletResponse(), route("/api/books/{id}", 200));
+    filter.doFilter(
+        get("/api/books/2"), new MockHttpServletResponse(), route("/api/books/{id}", 200));
+    filter.doFilter(
+        get("/api/books/3"), new MockHttpServletResponse(), route("/api/books/{id}", 404));
+    filter.doFilter(get("/nope"), new MockHttpServletResponse(), (req, res) -> {});
+
+    // Then
+    assertThat(timer("/api/books/{id}", "GET", "2xx").count()).isEqualTo(2);
+    assertThat(timer("/api/books/{id}", "GET", "4xx").count()).isEqualTo(1);
+    assertThat(timer(ApiResponseTimeFilter.UNMATCHED, "GET", "2xx").count()).isEqualTo(1);
+    assertThat(
+            meterRegistry.find(ApiResponseTimeFilter.METRIC).tag("route", "/api/books/1").timer())
+        .isNull();
+  }
+
+  @Test
+  @DisplayName("Should publish configured SLO buckets instead of client-side percentiles")
+  void shouldPublishSloBuckets() throws Exception {
+    // Given
+    properties.setSlo(List.of(Duration.ofMillis(100), Duration.ofSeconds(1)));
+    ApiResponseTimeFilter filter = new ApiResponseTimeFilter(meterRegistry, properties);
+
+    // When
+    filter.doFilter(get("/api/books"), new MockHttpServletResponse(), route("/api/books", 200));
+
+    // Then
+    var snapshot = timer("/api/books", "GET", "2xx").takeSnapshot();
+    assertThat(snapshot.histogramCounts())
+        .extracting(CountAtBucket::bucket)
+        .containsExactly(
+            (double) Duration.ofMillis(100).toNanos(), (double) Duration.ofSeconds(1).toNanos());
+    assertThat(snapshot.percentileValues()).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Should fold routes over the limit into OTHER")
+  void shouldGuardRouteCardinality() throws Exception {
+    // Given
+    properties.setMaxRoutes(2);
+    ApiResponseTimeFilter filter = new ApiResponseTimeFilter(meterRegistry, properties);
+
+    // When
+    for (String route : List.of("/a", "/b", "/c", "/d")) {
+      filter.doFilter(get(route), new MockHttpServletResponse(), route(route, 200));
+    }
+
+    // Then
+    assertThat(timer("/a", "GET", "2xx").count()).isEqualTo(1);
+    assertThat(timer("/b", "GET", "2xx").count()).isEqualTo(1);
+    assertThat(timer(ApiResponseTimeFilter.OTHER, "GET", "2xx").count()).isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("Should count requests that end with an exception as 5xx")
+  void shouldRecordFailuresAsServerErrors() {
+    // Given
+    ApiResponseTimeFilter filter = new ApiResponseTimeFilter(meterRegistry, properties);
+    FilterChain failing =
+        (req, res) -> {
+          req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/books");
+          throw new IllegalStateException("boom");
+        };
+
+    // When
+    assertThatThrownBy(
+            () -> filter.doFilter(get("/api/books"), new MockHttpServletResponse(), failing))
+        .isInstanceOf(IllegalStateException.class);
+
+    // Then
+    assertThat(timer("/api/books", "GET", "5xx").count()).isEqualTo(1);
+  }
+
+  private Timer timer(String route, String method, String status) {
+    return meterRegistry
+        .get(ApiResponseTimeFilter.METRIC)
+        .tag("route", route)
+        .tag("method", method)
+        .tag("status", status)
+        .timer();
+  }
+
+  private static MockHttpServletRequest get(String uri) {
+    return new MockHttpServletRequest("GET", uri);
+  }
+
+  private static FilterChain route(String pattern, int status) {
+    return (req, res) -> {
+      req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, pattern);
+      ((HttpServletResponse) res).setStatus(status);
+    };
+  }
+}
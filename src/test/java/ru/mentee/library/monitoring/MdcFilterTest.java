@@ -0,0 +1,134 @@
+package ru.mentee.library.monitoring;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import jakarta.servlet.FilterChain;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class MdcFilterTest {
+
+  private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+  private static final String TRACEPARENT = "00-" + TRACE_ID + "-00f067aa0ba902b7-01";
+
+  private final MdcFilter filter = new MdcFilter();
+  private final List<TraceContext> seen = new ArrayList<>();
+  private final FilterChain capture = (req, res) -> seen.add(TraceContext.current());
+
+  @Test
+  @DisplayName("Should continue incoming trace and keep caller request id")
+  void shouldContinueIncomingTrace() throws Exception {
+    // Given
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/books");
+    request.addHeader(TraceContext.TRACEPARENT, TRACEPARENT);
+    request.addHeader(TraceContext.REQUEST_ID_HEADER, "req-42");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    // When
+    filter.doFilter(request, response, capture);
+
+    // Then
+    TraceContext context = seen.get(0);
+    assertThat(context.traceId()).isEqualTo(TRACE_ID);
+    assertThat(context.flags()).isEqualTo("01");
+    assertThat(context.spanId()).hasSize(16).isNotEqualTo("00f067aa0ba902b7");
+    assertThat(context.requestId()).isEqualTo("req-42");
+    assertThat(response.getHeader(TraceContext.REQUEST_ID_HEADER)).isEqualTo("req-42");
+    assertThat(MDC.get(TraceContext.TRACE_ID)).isNull();
+  }
+
+  @ParameterizedTest
+  @ValueSource(
+      strings = {
+        "00-00000000000000000000000000000000-00f067aa0ba902b7-01",
+        "ff-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01",
+        "0g-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01",
+        "00-4bf92f3577b34da6a3ce929d0e0e4736-0000000000000000-01",
+        "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01-extra",
+        "01-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01extra",
+        "00-4BF92F3577B34DA6A3CE929D0E0E4736-00f067aa0ba902b7-01",
+        "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7",
+        "garbage"
+      })
+  @DisplayName("Should start a new trace when traceparent is invalid")
+  void shouldIgnoreInvalidTraceparent(String traceparent) throws Exception {
+    // Given
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/books");
+    request.addHeader(TraceContext.TRACEPARENT, traceparent);
+    request.addHeader(TraceContext.REQUEST_ID_HEADER, "bad id\r\nX-Injected: 1");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    // When
+    filter.doFilter(request, response, capture);
+
+    // Then
+    TraceContext context = seen.get(0);
+    assertThat(context.traceId()).matches("[0-9a-f]{32}").isNotEqualTo(TRACE_ID);
+    assertThat(context.requestId()).isEqualTo(context.traceId());
+    assertThat(response.getHeader(TraceContext.REQUEST_ID_HEADER)).isEqualTo(context.traceId());
+  }
+
+  @ParameterizedTest
+  @ValueSource(
+      strings = {
+        "01-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01",
+        "cc-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01-what-the-future-will-be-like"
+      })
+  @DisplayName("Should parse higher traceparent versions with the version 00 layout")
+  void shouldAcceptHigherVersion(String traceparent) throws Exception {
+    // Given
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/books");
+    request.addHeader(TraceContext.TRACEPARENT, traceparent);
+
+    // When
+    filter.doFilter(request, new MockHttpServletResponse(), capture);
+
+    // Then
+    TraceContext context = seen.get(0);
+    assertThat(context.traceId()).isEqualTo(TRACE_ID);
+    assertThat(context.flags()).isEqualTo("01");
+    assertThat(context.outgoingTraceparent()).startsWith("00-" + TRACE_ID + "-");
+  }
+
+  @Test
+  @DisplayName("Should generate unique ids without incoming headers")
+  void shouldGenerateUniqueIds() throws Exception {
+    // When
+    for (int i = 0; i < 1_000; i++) {
+      filter.doFilter(
+          new MockHttpServletRequest("GET", "/api/books"), new MockHttpServletResponse(), capture);
+    }
+
+    // Then
+    Set<String> traceIds = new HashSet<>();
+    seen.forEach(context -> traceIds.add(context.traceId()));
+    assertThat(traceIds).hasSize(1_000);
+  }
+
+  @Test
+  @DisplayName("Should build outgoing traceparent within the same trace")
+  void shouldBuildOutgoingTraceparent() throws Exception {
+    // Given
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/books");
+    request.addHeader(TraceContext.TRACEPARENT, TRACEPARENT);
+    List<String> outgoing = new ArrayList<>();
+
+    // When
+    filter.doFilter(
+        request,
+        new MockHttpServletResponse(),
+        (req, res) -> outgoing.add(TraceContext.current().outgoingTraceparent()));
+
+    // Then
+    assertThat(outgoing.get(0)).matches("00-" + TRACE_ID + "-[0-9a-f]{16}-01");
+  }
+}
@@ -0,0 +1,114 @@
+package ru.mentee.library.monitoring;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.AppenderBase;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class MeteredAsyncAppenderTest {
+
+  private final LoggerContext context = new LoggerContext();
+  private final BlockingAppender target = new BlockingAppender();
+  private final MeteredAsyncAppender appender = new MeteredAsyncAppender();
+
+  @BeforeEach
+  void setUp() {
+    context.setMDCAdapter(new LogbackMDCAdapter());
+    target.setContext(context);
+    target.start();
+    appender.setContext(context);
+    appender.setName("async");
+    appender.setQueueSize(4);
+    appender.setDiscardingThreshold(2);
+    appender.addAppender(target);
+    appender.start();
+    context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME).addAppender(appender);
+  }
+
+  @AfterEach
+  void tearDown() {
+    target.release.countDown();
+    context.stop();
+  }
+
+  @Test
+  @DisplayName("Should drop INFO but keep WARN when the queue is nearly full, and count drops")
+  void shouldDropOnlyLowLevelsWhenFull() throws Exception {
+    // Given: фоновый поток занят первым событием, очередь пуста
+    appender.doAppend(event(Level.INFO, "first"));
+    assertThat(target.entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+    // When
+    for (int i = 0; i < 4; i++) {
+      appender.doAppend(event(Level.INFO, "info-" + i));
+    }
+    appender.doAppend(event(Level.WARN, "warn"));
+    target.release.countDown();
+    appender.stop();
+
+    // Then
+    assertThat(appender.getDiscardedCount()).isEqualTo(1);
+    assertThat(target.received)
+        .extracting(ILoggingEvent::getMessage)
+        .containsExactly("first", "info-0", "info-1", "info-2", "warn");
+  }
+
+  @Test
+  @DisplayName("Should publish queue depth, capacity and dropped events")
+  void shouldPublishMetrics() {
+    // Given
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    // When
+    new AsyncLogMetrics(context).bindTo(registry);
+
+    // Then
+    assertThat(registry.get("log_async_queue_depth").tag("appender", "async").gauge().value())
+        .isZero();
+    assertThat(registry.get("log_async_queue_capacity").tag("appender", "async").gauge().value())
+        .isEqualTo(4);
+    assertThat(
+            registry
+                .get("log_async_events_discarded_total")
+                .tag("appender", "async")
+                .functionCounter()
+                .count())
+        .isZero();
+  }
+
+  private LoggingEvent event(Level level, String message) {
+    return new LoggingEvent(
+        getClass().getName(), context.getLogger("test"), level, message, null, null);
+  }
+
+  private static class BlockingAppender extends AppenderBase<ILoggingEvent> {
+
+    private final List<ILoggingEvent> received = new CopyOnWriteArrayList<>();
+    private final CountDownLatch entered = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @Override
+    protected void append(ILoggingEvent event) {
+      received.add(event);
+      entered.countDown();
+      try {
+        release.await(5, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+}
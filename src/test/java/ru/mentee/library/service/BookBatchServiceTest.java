@@ -0,0 +1,146 @@
+package ru.mentee.library.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+import ru.mentee.library.api.dto.BookBatchItemResult.Status;
+import ru.mentee.library.api.dto.BookBatchOperation;
+import ru.mentee.library.api.dto.BookBatchResponse;
+import ru.mentee.library.api.dto.CreateBookRequest;
+import ru.mentee.library.cache.BookCache;
+import ru.mentee.library.cache.CacheInvalidationBus;
+import ru.mentee.library.config.BookBatchProperties;
+import ru.mentee.library.config.BookCacheProperties;
+import ru.mentee.library.config.CacheInvalidationProperties;
+import ru.mentee.library.domain.model.Book;
+import ru.mentee.library.domain.repository.BookRepository;
+
+@DataJpaTest
+@Import({
+  BookBatchService.class,
+  BookCache.class,
+  CacheInvalidationBus.class,
+  BookBatchServiceTest.TestConfig.class
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // Чанки должны коммититься сами
+class BookBatchServiceTest {
+
+  @TestConfiguration
+  static class TestConfig {
+    @Bean
+    public MeterRegistry meterRegistry() {
+      return new SimpleMeterRegistry();
+    }
+
+    @Bean
+    public LocalValidatorFactoryBean validator() {
+      return new LocalValidatorFactoryBean();
+    }
+
+    @Bean
+    public CacheInvalidationProperties cacheInvalidationProperties() {
+      return new CacheInvalidationProperties();
+    }
+
+    @Bean
+    public BookCacheProperties bookCacheProperties() {
+      return new BookCacheProperties();
+    }
+
+    @Bean
+    public BookBatchProperties bookBatchProperties() {
+      BookBatchProperties properties = new BookBatchProperties();
+      properties.setChunkSize(2);
+      return properties;
+    }
+  }
+
+  @Autowired private BookBatchService bookBatchService;
+
+  @Autowired private BookRepository bookRepository;
+
+  @Test
+  @DisplayName("Should apply mixed operations and report result per item")
+  void shouldApplyMixedOperations() {
+    // Given
+    Book toUpdate = bookRepository.save(Book.builder().title("Old").author("Author").build());
+    Book toDelete = bookRepository.save(Book.builder().title("Gone").author("Author").build());
+
+    List<BookBatchOperation> operations =
+        List.of(
+            create("Batch 1", "Author 1"),
+            create("Batch 2", "Author 2"),
+            update(toUpdate.getId(), "New", "Author"),
+            delete(toDelete.getId()),
+            delete(-1L),
+            create("", "No title"));
+
+    // When
+    BookBatchResponse response = bookBatchService.apply(operations);
+
+    // Then
+    assertThat(response.results())
+        .extracting(r -> r.status())
+        .containsExactly(
+            Status.CREATED,
+            Status.CREATED,
+            Status.UPDATED,
+            Status.DELETED,
+            Status.NOT_FOUND,
+            Status.INVALID);
+    assertThat(response.succeeded()).isEqualTo(4);
+    assertThat(response.failed()).isEqualTo(2);
+
+    Long createdId = response.results().get(0).id();
+    assertThat(bookRepository.findById(createdId))
+        .get()
+        .extracting(Book::getTitle)
+        .isEqualTo("Batch 1");
+    assertThat(bookRepository.findById(toUpdate.getId()))
+        .get()
+        .extracting(Book::getTitle)
+        .isEqualTo("New");
+    assertThat(bookRepository.findById(toDelete.getId())).isEmpty();
+  }
+
+  private static BookBatchOperation create(String title, String author) {
+    BookBatchOperation op = new BookBatchOperation();
+    op.setType(BookBatchOperation.Type.CREATE);
+    op.setBook(book(title, author));
+    return op;
+  }
+
+  private static BookBatchOperation update(Long id, String title, String author) {
+    BookBatchOperation op = new BookBatchOperation();
+    op.setType(BookBatchOperation.Type.UPDATE);
+    op.setId(id);
+    op.setBook(book(title, author));
+    return op;
+  }
+
+  private static BookBatchOperation delete(Long id) {
+    BookBatchOperation op = new BookBatchOperation();
+    op.setType(BookBatchOperation.Type.DELETE);
+    op.setId(id);
+    return op;
+  }
+
+  private static CreateBookRequest book(String title, String author) {
+    CreateBookRequest request = new CreateBookRequest();
+    request.setTitle(title);
+    request.setAuthor(author);
+    return request;
+  }
+}
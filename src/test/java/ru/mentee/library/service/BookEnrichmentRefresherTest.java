@@ -0,0 +1,141 @@
+package ru.mentee.library.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.mentee.library.api.dto.BookInfoResponse;
+import ru.mentee.library.client.OpenLibraryClient;
+import ru.mentee.library.client.OpenLibraryRateLimiter;
+import ru.mentee.library.config.BookEnrichmentRefreshProperties;
+import ru.mentee.library.config.OpenLibraryRateLimitProperties;
+import ru.mentee.library.domain.model.Book;
+import ru.mentee.library.domain.model.BookEnrichment;
+import ru.mentee.library.domain.repository.BookEnrichmentRepository;
+import ru.mentee.library.domain.repository.BookRepository;
+
+@DataJpaTest(properties = "library.books.enrichment-refresh.enabled=true")
+@Import({BookEnrichmentRefresher.class, BookEnrichmentRefresherTest.TestConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // Чанки должны коммититься сами
+class BookEnrichmentRefresherTest {
+
+  @TestConfiguration
+  static class TestConfig {
+    @Bean
+    public MeterRegistry meterRegistry() {
+      return new SimpleMeterRegistry();
+    }
+
+    @Bean
+    public CircuitBreaker openLibraryCircuitBreaker() {
+      return CircuitBreaker.ofDefaults("test");
+    }
+
+    @Bean
+    public Bulkhead openLibraryBulkhead() {
+      return Bulkhead.of("test", BulkheadConfig.custom().maxConcurrentCalls(1).build());
+    }
+
+    @Bean
+    public OpenLibraryRateLimiter openLibraryRateLimiter(MeterRegistry meterRegistry) {
+      return new OpenLibraryRateLimiter(new OpenLibraryRateLimitProperties(), meterRegistry);
+    }
+
+    @Bean
+    public BookEnrichmentRefreshProperties bookEnrichmentRefreshProperties() {
+      BookEnrichmentRefreshProperties properties = new BookEnrichmentRefreshProperties();
+      properties.setTtl(Duration.ofDays(30));
+      properties.setMaxRequestsPerSecond(1_000);
+      return properties;
+    }
+  }
+
+  @MockitoBean private OpenLibraryClient openLibraryClient;
+
+  @Autowired private BookEnrichmentRefresher refresher;
+
+  @Autowired private Bulkhead bulkhead;
+
+  @Autowired private BookRepository bookRepository;
+
+  @Autowired private BookEnrichmentRepository enrichmentRepository;
+
+  @AfterEach
+  void tearDown() {
+    enrichmentRepository.deleteAll();
+    bookRepository.deleteAll();
+  }
+
+  @Test
+  @DisplayName("Should refresh only enrichments older than TTL")
+  void shouldRefreshStaleEnrichments() {
+    // Given
+    Long staleId = enrichedBook("1111111111", "Old title", Duration.ofDays(60));
+    Long freshId = enrichedBook("2222222222", "Fresh title", Duration.ofDays(1));
+    BookInfoResponse info = BookInfoResponse.builder().title("New title").build();
+    when(openLibraryClient.getBookByIsbn("ISBN:1111111111", "json", "data"))
+        .thenReturn(Map.of("ISBN:1111111111", info));
+
+    // When
+    refresher.refreshStale();
+
+    // Then
+    BookEnrichment stale = enrichmentRepository.findById(staleId).orElseThrow();
+    assertThat(stale.getPayload().getTitle()).isEqualTo("New title");
+    assertThat(stale.getEnrichedAt()).isAfter(Instant.now().minus(Duration.ofMinutes(1)));
+    assertThat(enrichmentRepository.findById(freshId).orElseThrow().getPayload().getTitle())
+        .isEqualTo("Fresh title");
+    verify(openLibraryClient, times(1)).getBookByIsbn("ISBN:1111111111", "json", "data");
+  }
+
+  @Test
+  @DisplayName("Should leave enrichments stale when the shared bulkhead is full")
+  void shouldRespectSharedBulkhead() {
+    // Given: единственный слот занят пользовательским запросом
+    Long staleId = enrichedBook("3333333333", "Old title", Duration.ofDays(60));
+    Instant enrichedAt = enrichmentRepository.findById(staleId).orElseThrow().getEnrichedAt();
+    assertThat(bulkhead.tryAcquirePermission()).isTrue();
+
+    // When
+    try {
+      refresher.refreshStale();
+    } finally {
+      bulkhead.onComplete();
+    }
+
+    // Then
+    verifyNoInteractions(openLibraryClient);
+    assertThat(enrichmentRepository.findById(staleId).orElseThrow().getEnrichedAt())
+        .isEqualTo(enrichedAt);
+  }
+
+  private Long enrichedBook(String isbn, String title, Duration age) {
+    Book book =
+        bookRepository.save(Book.builder().title(title).author("Author").isbn(isbn).build());
+    enrichmentRepository.save(
+        BookEnrichment.builder()
+            .bookId(book.getId())
+            .payload(BookInfoResponse.builder().title(title).build())
+            .enrichedAt(Instant.now().minus(age))
+            .build());
+    return book.getId();
+  }
+}
@@ -0,0 +1,296 @@
+package ru.mentee.library.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.mentee.library.api.dto.BookImportJobResponse;
+import ru.mentee.library.api.dto.BookImportJobResponse.Failure;
+import ru.mentee.library.api.dto.BookImportJobResponse.Status;
+import ru.mentee.library.api.dto.BookInfoResponse;
+import ru.mentee.library.api.dto.IsbnInfoBatchResponse;
+import ru.mentee.library.cache.BookCache;
+import ru.mentee.library.cache.CacheInvalidationBus;
+import ru.mentee.library.cache.IsbnBloomFilter;
+import ru.mentee.library.client.OpenLibraryRateLimiter;
+import ru.mentee.library.config.BookCacheProperties;
+import ru.mentee.library.config.BookImportProperties;
+import ru.mentee.library.config.CacheInvalidationProperties;
+import ru.mentee.library.config.IsbnFilterProperties;
+import ru.mentee.library.config.OpenLibraryBatchProperties;
+import ru.mentee.library.config.OpenLibraryRateLimitProperties;
+import ru.mentee.library.domain.model.Book;
+import ru.mentee.library.domain.repository.BookEnrichmentRepository;
+import ru.mentee.library.domain.repository.BookRepository;
+
+@DataJpaTest
+@Import({
+  BookImportService.class,
+  BookCache.class,
+  CacheInvalidationBus.class,
+  IsbnBloomFilter.class,
+  BookImportServiceTest.TestConfig.class
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // Чанки должны коммититься сами
+class BookImportServiceTest {
+
+  @TestConfiguration
+  static class TestConfig {
+    @Bean
+    public MeterRegistry meterRegistry() {
+      return new SimpleMeterRegistry();
+    }
+
+    @Bean
+    public CacheInvalidationProperties cacheInvalidationProperties() {
+      return new CacheInvalidationProperties();
+    }
+
+    @Bean
+    public BookCacheProperties bookCacheProperties() {
+      return new BookCacheProperties();
+    }
+
+    @Bean
+    public IsbnFilterProperties isbnFilterProperties() {
+      return new IsbnFilterProperties();
+    }
+
+    @Bean
+    public BookImportProperties bookImportProperties() {
+      BookImportProperties properties = new BookImportProperties();
+      properties.setChunkSize(2);
+      return properties;
+    }
+
+    @Bean
+    public OpenLibraryBatchProperties openLibraryBatchProperties() {
+      return new OpenLibraryBatchProperties();
+    }
+
+    @Bean
+    public OpenLibraryRateLimitProperties openLibraryRateLimitProperties() {
+      return new OpenLibraryRateLimitProperties();
+    }
+  }
+
+  @MockitoBean private BookService bookService;
+
+  @Autowired private BookImportService bookImportService;
+
+  @MockitoSpyBean private BookRepository bookRepository;
+
+  @Autowired private BookEnrichmentRepository enrichmentRepository;
+
+  @Test
+  @DisplayName("Should create new books, update existing by ISBN and report failures per item")
+  void shouldUpsertByIsbn() throws Exception {
+    // Given
+    Book existing =
+        bookRepository.save(
+            Book.builder().title("Old").author("Author").isbn("9780140328721").build());
+    Map<String, BookInfoResponse> infos = new HashMap<>();
+    infos.put("9780140328721", info("Fantastic Mr. Fox", "Roald Dahl", "1988"));
+    infos.put("9780804429573", info("Dune", "Frank Herbert", "1965"));
+    infos.put("9791090636071", null);
+    when(bookService.getBookInfoByIsbns(anyList(), eq(OpenLibraryRateLimiter.Priority.BACKGROUND)))
+        .thenAnswer(
+            invocation -> {
+              Map<String, BookInfoResponse> books = new HashMap<>();
+              List<String> unavailable = new ArrayList<>();
+              List<String> isbns = invocation.getArgument(0);
+              for (String isbn : isbns) {
+                if (isbn.equals("9780306406157")) {
+                  unavailable.add(isbn);
+                } else {
+                  books.put(isbn, infos.get(isbn));
+                }
+              }
+              return new IsbnInfoBatchResponse(books, unavailable);
+            });
+
+    // When
+    BookImportJobResponse submitted =
+        bookImportService.submit(
+            List.of(
+                "0-14-032872-6",
+                "9780804429573",
+                "978-0-14-032872-1",
+                "9791090636071",
+                "9780306406157",
+                "12345"));
+    BookImportJobResponse job = awaitCompletion(submitted.id());
+
+    // Then
+    assertThat(job.status()).isEqualTo(Status.COMPLETED);
+    assertThat(job.total()).isEqualTo(6);
+    assertThat(job.processed()).isEqualTo(6);
+    assertThat(job.created()).isEqualTo(1);
+    assertThat(job.updated()).isEqualTo(1);
+    assertThat(job.skipped()).isEqualTo(1);
+    assertThat(job.failures())
+        .containsExactlyInAnyOrder(
+            new Failure("12345", "Invalid ISBN"),
+            new Failure("9791090636071", "Not found in OpenLibrary"),
+            new Failure("9780306406157", "OpenLibrary unavailable"));
+
+    assertThat(bookRepository.findById(existing.getId()))
+        .get()
+        .extracting(Book::getTitle)
+        .isEqualTo("Fantastic Mr. Fox");
+    Book created = bookRepository.findByIsbnIn(List.of("9780804429573")).get(0);
+    assertThat(created.getAuthor()).isEqualTo("Frank Herbert");
+    assertThat(created.getPublicationYear()).isEqualTo(1965);
+    assertThat(enrichmentRepository.findById(existing.getId())).isPresent();
+    assertThat(enrichmentRepository.findById(created.getId())).isPresent();
+  }
+
+  @Test
+  @DisplayName("Should update a book inserted concurrently instead of failing the chunk")
+  void shouldUpdateConcurrentlyInsertedBook() throws Exception {
+    // Given
+    when(bookService.getBookInfoByIsbns(anyList(), eq(OpenLibraryRateLimiter.Priority.BACKGROUND)))
+        .thenReturn(
+            new IsbnInfoBatchResponse(
+                Map.of(
+                    "9780262033848", info("Introduction to Algorithms", "Cormen", "2009"),
+                    "9780132350884", info("Clean Code", "Robert Martin", "2008")),
+                List.of()));
+    // Другой узел вставляет ту же книгу между проверкой существующих и вставкой
+    doAnswer(
+            invocation -> {
+              CompletableFuture.runAsync(
+                      () ->
+                          bookRepository.save(
+                              Book.builder()
+                                  .title("Concurrent")
+                                  .author("Someone")
+                                  .isbn("9780262033848")
+                                  .build()))
+                  .join();
+              // Репозиторий — JDK-прокси: шпион делегирует ему через ответ по умолчанию
+              return mockingDetails(bookRepository)
+                  .getMockCreationSettings()
+                  .getDefaultAnswer()
+                  .answer(invocation);
+            })
+        .when(bookRepository)
+        .insertAllIfAbsent(
+            argThat(books -> books.stream().anyMatch(b -> "9780262033848".equals(b.getIsbn()))));
+
+    // When
+    BookImportJobResponse submitted =
+        bookImportService.submit(List.of("9780262033848", "9780132350884"));
+    BookImportJobResponse job = awaitCompletion(submitted.id());
+
+    // Then: обе книги чанка ушли одним батчем
+    assertThat(job.failures()).isEmpty();
+    assertThat(job.created()).isEqualTo(1);
+    assertThat(job.updated()).isEqualTo(1);
+    verify(bookRepository).insertAllIfAbsent(argThat(books -> books.size() == 2));
+    verify(bookRepository, never()).insertIfAbsent(any());
+    List<Book> books = bookRepository.findByIsbnIn(List.of("9780262033848", "9780132350884"));
+    assertThat(books)
+        .extracting(Book::getTitle)
+        .containsExactlyInAnyOrder("Introduction to Algorithms", "Clean Code");
+    books.forEach(book -> assertThat(enrichmentRepository.findById(book.getId())).isPresent());
+  }
+
+  @Test
+  @DisplayName("Should not run more chunks at once than the rate limit admits per second")
+  void shouldTieParallelismToRateLimit() {
+    // Given
+    BookImportProperties importProperties = new BookImportProperties();
+    importProperties.setParallelism(8);
+    importProperties.setChunkSize(100);
+    OpenLibraryBatchProperties batchProperties = new OpenLibraryBatchProperties();
+    batchProperties.setMaxKeys(50);
+    OpenLibraryRateLimitProperties rateLimitProperties = new OpenLibraryRateLimitProperties();
+    rateLimitProperties.setRequestsPerSecond(5);
+
+    // When
+    BookImportService service =
+        new BookImportService(
+            null,
+            null,
+            null,
+            null,
+            null,
+            null,
+            null,
+            importProperties,
+            batchProperties,
+            rateLimitProperties,
+            new SimpleMeterRegistry());
+    int limited = service.parallelism();
+    rateLimitProperties.setEnabled(false);
+    int unlimited = service.parallelism();
+    service.shutdown();
+
+    // Then
+    assertThat(limited).isEqualTo(3);
+    assertThat(unlimited).isEqualTo(8);
+  }
+
+  @Test
+  @DisplayName("Should read ISBNs from the first column of an uploaded file")
+  void shouldReadIsbnsFromFile() throws Exception {
+    // Given
+    String file = "isbn,title\n0-14-032872-6,Fantastic Mr. Fox\n\n# comment\n9780804429573\n";
+
+    // When
+    List<String> isbns =
+        BookImportService.readIsbns(
+            new ByteArrayInputStream(file.getBytes(StandardCharsets.UTF_8)));
+
+    // Then
+    assertThat(isbns).containsExactly("0-14-032872-6", "9780804429573");
+  }
+
+  private BookImportJobResponse awaitCompletion(UUID id) throws InterruptedException {
+    for (int i = 0; i < 100; i++) {
+      BookImportJobResponse job = bookImportService.find(id).orElseThrow();
+      if (job.finishedAt() != null) {
+        return job;
+      }
+      Thread.sleep(50);
+    }
+    throw new AssertionError("Import job did not finish in time");
+  }
+
+  private static BookInfoResponse info(String title, String author, String publishDate) {
+    return BookInfoResponse.builder()
+        .title(title)
+        .authors(List.of(author))
+        .publishDate(publishDate)
+        .build();
+  }
+}
@@ -0,0 +1,242 @@
+package ru.mentee.library.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.mentee.library.api.dto.BookDetailsResponse;
+import ru.mentee.library.api.dto.BookInfoResponse;
+import ru.mentee.library.api.dto.BookPageResponse;
+import ru.mentee.library.api.dto.IsbnInfoBatchResponse;
+import ru.mentee.library.cache.BookCache;
+import ru.mentee.library.cache.CacheInvalidationBus;
+import ru.mentee.library.cache.IsbnBloomFilter;
+import ru.mentee.library.cache.IsbnInfoCache;
+import ru.mentee.library.client.OpenLibraryBatcher;
+import ru.mentee.library.client.OpenLibraryUnavailableException;
+import ru.mentee.library.config.BookCacheProperties;
+import ru.mentee.library.config.BookPagingProperties;
+import ru.mentee.library.config.IsbnIndexProperties;
+import ru.mentee.library.config.OpenLibraryRateLimitProperties;
+import ru.mentee.library.config.OpenLibraryResilienceProperties;
+import ru.mentee.library.domain.model.Book;
+import ru.mentee.library.domain.model.BookEnrichment;
+import ru.mentee.library.domain.repository.BookEnrichmentRepository;
+import ru.mentee.library.domain.repository.BookRepository;
+import ru.mentee.library.index.IsbnIndex;
+
+@ExtendWith(MockitoExtension.class)
+class BookServiceFeaturesTest {
+
+  @Mock private BookRepository bookRepository;
+
+  @Mock private BookEnrichmentRepository bookEnrichmentRepository;
+
+  @Mock private OpenLibraryBatcher openLibraryBatcher;
+
+  @Mock private CacheInvalidationBus invalidationBus;
+
+  @Mock private IsbnInfoCache isbnInfoCache;
+
+  @Mock private IsbnBloomFilter isbnFilter;
+
+  private MeterRegistry meterRegistry;
+  private BookCache bookCache;
+  private BookService bookService;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    bookCache = new BookCache(new BookCacheProperties(), meterRegistry, invalidationBus);
+    bookService =
+        new BookService(
+            bookRepository,
+            bookEnrichmentRepository,
+            new TransactionTemplate(mock(PlatformTransactionManager.class)),
+            openLibraryBatcher,
+            meterRegistry,
+            new BookPagingProperties(),
+            bookCache,
+            isbnInfoCache,
+            isbnFilter,
+            new IsbnIndex(new IsbnIndexProperties(), meterRegistry),
+            new OpenLibraryResilienceProperties(),
+            new OpenLibraryRateLimitProperties());
+    bookService.init();
+  }
+
+  @Test
+  @DisplayName("Should serve repeated reads from cache")
+  void whenBookCached_findById_skipsRepository() {
+    // Given
+    Book book = Book.builder().id(1L).title("1984").author("George Orwell").build();
+    when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
+
+    // When
+    bookService.findById(1L);
+    Book result = bookService.findById(1L);
+
+    // Then
+    assertThat(result).isSameAs(book);
+    verify(bookRepository, times(1)).findById(1L);
+    assertThat(meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count())
+        .isEqualTo(1.0);
+  }
+
+  @Test
+  @DisplayName("Should delete book")
+  void shouldDeleteBook() {
+    // Given
+    Book book = Book.builder().id(1L).title("1984").author("George Orwell").build();
+    when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
+    when(bookRepository.deleteBookById(1L)).thenReturn(1);
+    bookService.findById(1L);
+
+    // When
+    boolean deleted = bookService.deleteBook(1L);
+
+    // Then
+    assertThat(deleted).isTrue();
+    verify(bookRepository, times(1)).deleteBookById(1L);
+    assertThat(bookCache.get(1L, id -> null)).isNull();
+  }
+
+  @Test
+  @DisplayName("Should report missing book on delete")
+  void shouldReportMissingBookOnDelete() {
+    // Given
+    when(bookRepository.deleteBookById(999L)).thenReturn(0);
+
+    // When & Then
+    assertThat(bookService.deleteBook(999L)).isFalse();
+  }
+
+  @Test
+  @DisplayName(
+      "Should return resolved ISBNs and list the rest as unavailable when OpenLibrary fails")
+  void whenOpenLibraryUnavailable_getBookInfoByIsbns_returnsPartialResult() {
+    // Given
+    BookInfoResponse cached = BookInfoResponse.builder().title("Cached").build();
+    BookInfoResponse stale = BookInfoResponse.builder().title("Stale").build();
+    when(isbnInfoCache.getAllPresent(any())).thenReturn(Map.of("9780140328721", cached));
+    when(openLibraryBatcher.lookupAll(any(), any()))
+        .thenReturn(
+            CompletableFuture.failedFuture(
+                new OpenLibraryUnavailableException("Circuit is open", null)));
+    when(isbnInfoCache.getStale("9780804429573")).thenReturn(stale);
+    when(isbnInfoCache.getStale("9791090636071")).thenReturn(null);
+
+    // When
+    IsbnInfoBatchResponse result =
+        bookService.getBookInfoByIsbns(
+            List.of("978-0-14-032872-1", "9780804429573", "9791090636071"));
+
+    // Then
+    assertThat(result.books())
+        .containsOnly(entry("978-0-14-032872-1", cached), entry("9780804429573", stale));
+    assertThat(result.unavailable()).containsExactly("9791090636071");
+    verify(isbnInfoCache, never()).putAll(any());
+  }
+
+  @Test
+  @DisplayName("Should return first page of books with next cursor")
+  void shouldReturnFirstPageOfBooks() {
+    // Given
+    Book book1 =
+        Book.builder().id(1L).title("1984").author("George Orwell").publicationYear(1949).build();
+
+    Book book2 =
+        Book.builder()
+            .id(2L)
+            .title("Animal Farm")
+            .author("George Orwell")
+            .publicationYear(1945)
+            .build();
+
+    List<Book> books = Arrays.asList(book1, book2);
+    when(bookRepository.findByIdGreaterThan(eq(0L), any(Pageable.class)))
+        .thenReturn(new SliceImpl<>(books, PageRequest.of(0, 2), true));
+
+    // When
+    BookPageResponse result = bookService.findPage(null, 2);
+
+    // Then
+    assertThat(result.items()).hasSize(2);
+    assertThat(result.items().get(0).getTitle()).isEqualTo("1984");
+    assertThat(result.items().get(1).getTitle()).isEqualTo("Animal Farm");
+    assertThat(BookCursor.decode(result.next())).isEqualTo(2L);
+  }
+
+  @Test
+  @DisplayName("Should continue from cursor and stop on last page")
+  void shouldContinueFromCursor() {
+    // Given
+    Book book3 = Book.builder().id(3L).title("Homage to Catalonia").author("George Orwell").build();
+    when(bookRepository.findByIdGreaterThan(eq(2L), any(Pageable.class)))
+        .thenReturn(new SliceImpl<>(List.of(book3), PageRequest.of(0, 2), false));
+
+    // When
+    BookPageResponse result = bookService.findPage(BookCursor.encode(2L), 2);
+
+    // Then
+    assertThat(result.items()).extracting(Book::getId).containsExactly(3L);
+    assertThat(result.next()).isNull();
+  }
+
+  @Test
+  @DisplayName("Should reject malformed cursor")
+  void shouldRejectMalformedCursor() {
+    assertThatThrownBy(() -> bookService.findPage("not-a-cursor", 10))
+        .isInstanceOf(InvalidCursorException.class);
+  }
+
+  @Test
+  @DisplayName("Should return book details with stored enrichment")
+  void whenEnrichmentStored_findDetails_returnsItWithoutOutboundCall() {
+    // Given
+    Book book = Book.builder().id(1L).title("1984").author("George Orwell").build();
+    BookInfoResponse info =
+        BookInfoResponse.builder()
+            .title("1984")
+            .authors(List.of("George Orwell"))
+            .publishers(List.of("Secker & Warburg"))
+            .build();
+    Instant enrichedAt = Instant.parse("2026-01-01T00:00:00Z");
+    when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
+    when(bookEnrichmentRepository.findById(1L))
+        .thenReturn(
+            Optional.of(
+                BookEnrichment.builder().bookId(1L).payload(info).enrichedAt(enrichedAt).build()));
+
+    // When
+    BookDetailsResponse result = bookService.findDetails(1L);
+
+    // Then
+    assertThat(result.book()).isSameAs(book);
+    assertThat(result.enrichment().getPublishers()).containsExactly("Secker & Warburg");
+    assertThat(result.enrichedAt()).isEqualTo(enrichedAt);
+    verifyNoInteractions(openLibraryBatcher);
+  }
+}
@@ -7,8 +7,6 @@ import static org.mockito.Mockito.*;
 
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
-import java.util.Arrays;
-import java.util.List;
 import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
@@ -17,10 +15,23 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.mentee.library.api.dto.CreateBookRequest;
-import ru.mentee.library.client.OpenLibraryClient;
+import ru.mentee.library.cache.BookCache;
+import ru.mentee.library.cache.CacheInvalidationBus;
+import ru.mentee.library.cache.IsbnBloomFilter;
+import ru.mentee.library.cache.IsbnInfoCache;
+import ru.mentee.library.client.OpenLibraryBatcher;
+import ru.mentee.library.config.BookCacheProperties;
+import ru.mentee.library.config.BookPagingProperties;
+import ru.mentee.library.config.IsbnIndexProperties;
+import ru.mentee.library.config.OpenLibraryRateLimitProperties;
+import ru.mentee.library.config.OpenLibraryResilienceProperties;
 import ru.mentee.library.domain.model.Book;
+import ru.mentee.library.domain.repository.BookEnrichmentRepository;
 import ru.mentee.library.domain.repository.BookRepository;
+import ru.mentee.library.index.IsbnIndex;
 
 @ExtendWith(MockitoExtension.class)
 @Disabled("Не относится к заданию по мониторингу")
@@ -28,15 +39,38 @@ class BookServiceTest {
 
   @Mock private BookRepository bookRepository;
 
-  @Mock private OpenLibraryClient openLibraryClient;
+  @Mock private BookEnrichmentRepository bookEnrichmentRepository;
+
+  @Mock private OpenLibraryBatcher openLibraryBatcher;
+
+  @Mock private CacheInvalidationBus invalidationBus;
+
+  @Mock private IsbnInfoCache isbnInfoCache;
+
+  @Mock private IsbnBloomFilter isbnFilter;
 
   private MeterRegistry meterRegistry;
+  private BookCache bookCache;
   private BookService bookService;
 
   @BeforeEach
   void setUp() {
     meterRegistry = new SimpleMeterRegistry();
-    bookService = new BookService(bookRepository, openLibraryClient, meterRegistry);
+    bookCache = new BookCache(new BookCacheProperties(), meterRegistry, invalidationBus);
+    bookService =
+        new BookService(
+            bookRepository,
+            bookEnrichmentRepository,
+            new TransactionTemplate(mock(PlatformTransactionManager.class)),
+            openLibraryBatcher,
+            meterRegistry,
+            new BookPagingProperties(),
+            bookCache,
+            isbnInfoCache,
+            isbnFilter,
+            new IsbnIndex(new IsbnIndexProperties(), meterRegistry),
+            new OpenLibraryResilienceProperties(),
+            new OpenLibraryRateLimitProperties());
     bookService.init();
   }
 
@@ -77,34 +111,6 @@ class BookServiceTest {
     verify(bookRepository, times(1)).findById(999L);
   }
 
-  @Test
-  @DisplayName("Should return all books")
-  void shouldReturnAllBooks() {
-    // Given
-    Book book1 =
-        Book.builder().id(1L).title("1984").author("George Orwell").publicationYear(1949).build();
-
-    Book book2 =
-        Book.builder()
-            .id(2L)
-            .title("Animal Farm")
-            .author("George Orwell")
-            .publicationYear(1945)
-            .build();
-
-    List<Book> books = Arrays.asList(book1, book2);
-    when(bookRepository.findAll()).thenReturn(books);
-
-    // When
-    List<Book> result = bookService.findAll();
-
-    // Then
-    assertThat(result).hasSize(2);
-    assertThat(result.get(0).getTitle()).isEqualTo("1984");
-    assertThat(result.get(1).getTitle()).isEqualTo("Animal Farm");
-    verify(bookRepository, times(1)).findAll();
-  }
-
   @Test
   @DisplayName("Should create book")
   void shouldCreateBook() {
@@ -167,17 +173,4 @@ class BookServiceTest {
     verify(bookRepository, times(1)).findById(1L);
     verify(bookRepository, times(1)).save(any(Book.class));
   }
-
-  @Test
-  @DisplayName("Should delete book")
-  void shouldDeleteBook() {
-    // Given
-    doNothing().when(bookRepository).deleteById(1L);
-
-    // When
-    bookService.deleteBook(1L);
-
-    // Then
-    verify(bookRepository, times(1)).deleteById(1L);
-  }
 }
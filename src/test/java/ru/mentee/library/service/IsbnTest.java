@@ -0,0 +1,50 @@
+package ru.mentee.library.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class IsbnTest {
+
+  @ParameterizedTest
+  @ValueSource(strings = {"9780140328721", "978-0-14-032872-1", "0140328726", "0-14-032872-6"})
+  @DisplayName("ISBN-10 и ISBN-13 одной книги дают один канонический ISBN-13")
+  void shouldCanonicalizeToIsbn13(String raw) {
+    assertThat(Isbn.canonical(raw)).isEqualTo("9780140328721");
+  }
+
+  @Test
+  @DisplayName("Контрольная цифра X у ISBN-10 принимается в любом регистре")
+  void shouldAcceptIsbn10WithX() {
+    assertThat(Isbn.canonical("0-8044-2957-X")).isEqualTo("9780804429573");
+    assertThat(Isbn.canonical("080442957x")).isEqualTo("9780804429573");
+  }
+
+  @Test
+  @DisplayName("Принимается ISBN-13 с префиксом 979")
+  void shouldAcceptIsbn13With979Prefix() {
+    assertThat(Isbn.parse("979-10-90636-07-1")).isEqualTo(9791090636071L);
+  }
+
+  @ParameterizedTest
+  @ValueSource(
+      strings = {
+        "",
+        "0140328727", // неверная контрольная цифра ISBN-10
+        "9780140328722", // неверная контрольная цифра ISBN-13
+        "01403287", // неверная длина
+        "X140328726", // X не на последней позиции
+        "97801403287X1",
+        "014O328726", // буква O вместо нуля
+        "1234567890128" // контрольная цифра верна, но префикс не 978/979
+      })
+  @DisplayName("Некорректный ISBN отклоняется")
+  void shouldRejectInvalidIsbn(String raw) {
+    assertThat(Isbn.parse(raw)).isEqualTo(-1);
+    assertThatThrownBy(() -> Isbn.canonical(raw)).isInstanceOf(InvalidIsbnException.class);
+  }
+}